@@ -10,6 +10,17 @@ DROP TABLE IF EXISTS order_item_customizations;
 DROP TABLE IF EXISTS customization_options;
 DROP TABLE IF EXISTS seasonal_pricing;
 DROP TABLE IF EXISTS deliveries;
+DROP TABLE IF EXISTS delivery_slot_capacities;
+DROP TABLE IF EXISTS delivery_positions;
+DROP TABLE IF EXISTS zip_centroids;
+DROP TABLE IF EXISTS delivery_sla_sketches;
+DROP TABLE IF EXISTS cohort_activity;
+DROP TABLE IF EXISTS customer_order_stats;
+DROP TABLE IF EXISTS daily_product_sales;
+DROP TABLE IF EXISTS daily_distinct_sketches;
+DROP TABLE IF EXISTS daily_sales_rollup;
+DROP TABLE IF EXISTS projection_backfills;
+DROP TABLE IF EXISTS order_views;
 DROP TABLE IF EXISTS event_items;
 DROP TABLE IF EXISTS events;
 DROP TABLE IF EXISTS order_items;
@@ -81,6 +92,7 @@ CREATE TABLE products (
     description TEXT,
     price DECIMAL(10, 2) NOT NULL,
     stock_quantity INT NOT NULL DEFAULT 0,
+    reorder_threshold INT,
     image_url LONGTEXT,
     category_id BIGINT,
     sku VARCHAR(100),
@@ -129,6 +141,7 @@ CREATE TABLE orders (
     user_id BIGINT NOT NULL,
     total_amount DECIMAL(10, 2) NOT NULL,
     status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    payment_status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
     shipping_address VARCHAR(500) NOT NULL,
     shipping_city VARCHAR(100),
     shipping_state VARCHAR(100),
@@ -140,6 +153,7 @@ CREATE TABLE orders (
     notes TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_orders_created (created_at),
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
@@ -168,6 +182,8 @@ CREATE TABLE events (
     venue_city VARCHAR(100),
     venue_state VARCHAR(100),
     venue_zip_code VARCHAR(20),
+    venue_latitude DECIMAL(10, 8),
+    venue_longitude DECIMAL(11, 8),
     guest_count INT,
     budget DECIMAL(10, 2),
     special_instructions TEXT,
@@ -208,6 +224,8 @@ CREATE TABLE deliveries (
     delivery_type VARCHAR(20) NOT NULL DEFAULT 'STANDARD',
     scheduled_date DATE NOT NULL,
     scheduled_time_slot VARCHAR(50),
+    slot_start INT,
+    slot_end INT,
     actual_delivery_time TIMESTAMP,
     status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
     driver_name VARCHAR(100),
@@ -226,10 +244,146 @@ CREATE TABLE deliveries (
     gps_longitude DECIMAL(11, 8),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_deliveries_scheduled (scheduled_date, status),
+    INDEX idx_deliveries_slot (scheduled_date, slot_start),
+    INDEX idx_deliveries_created (created_at),
     FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE SET NULL,
     FOREIGN KEY (event_id) REFERENCES events(id) ON DELETE SET NULL
 );
 
+-- Order Views Table (denormalized read model maintained from order/delivery writes)
+CREATE TABLE order_views (
+    id BIGINT PRIMARY KEY,
+    order_number VARCHAR(100) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    customer_name VARCHAR(255),
+    customer_email VARCHAR(100),
+    customer_phone VARCHAR(20),
+    total_amount DECIMAL(10, 2) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_status VARCHAR(20),
+    payment_method VARCHAR(50),
+    shipping_address VARCHAR(500),
+    shipping_city VARCHAR(100),
+    shipping_state VARCHAR(100),
+    shipping_zip_code VARCHAR(20),
+    shipping_country VARCHAR(100),
+    item_count INT NOT NULL DEFAULT 0,
+    order_items JSON,
+    tracking_number VARCHAR(100),
+    delivery_status VARCHAR(20),
+    delivery JSON,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    INDEX idx_order_views_user (user_id, id),
+    INDEX idx_order_views_tracking (tracking_number),
+    INDEX idx_order_views_created (created_at),
+    FOREIGN KEY (id) REFERENCES orders(id) ON DELETE CASCADE
+);
+
+-- Projection Backfills Table (one row per read model whose history has been loaded from its source tables)
+CREATE TABLE projection_backfills (
+    name VARCHAR(64) PRIMARY KEY,
+    completed_at DATETIME
+);
+
+-- Daily Sales Rollup Table (maintained incrementally from order writes)
+CREATE TABLE daily_sales_rollup (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    sales_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(50) NOT NULL DEFAULT '',
+    order_count BIGINT NOT NULL DEFAULT 0,
+    gross_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    item_count BIGINT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_daily_sales_rollup (sales_date, status, payment_method)
+);
+
+-- Daily Distinct Sketches Table (HyperLogLog registers of distinct customers / products per day)
+CREATE TABLE daily_distinct_sketches (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    sketch_date DATE NOT NULL,
+    metric VARCHAR(20) NOT NULL,
+    registers VARBINARY(3073) NOT NULL,
+    UNIQUE KEY uk_daily_distinct_sketches (sketch_date, metric)
+);
+
+-- Daily Product Sales Table (units and revenue per product per day, excluding cancelled orders)
+CREATE TABLE daily_product_sales (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    sales_date DATE NOT NULL,
+    product_id BIGINT NOT NULL,
+    category_id BIGINT,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_daily_product_sales (sales_date, product_id),
+    INDEX idx_daily_product_sales_category (category_id, sales_date)
+);
+
+-- Customer Order Stats Table (first/last order per customer, for cohorts)
+CREATE TABLE customer_order_stats (
+    user_id BIGINT PRIMARY KEY,
+    cohort_month DATE NOT NULL,
+    first_order_at DATETIME(6) NOT NULL,
+    last_order_at DATETIME(6) NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    total_spent DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    INDEX idx_customer_order_stats_cohort (cohort_month)
+);
+
+-- Cohort Activity Table (customers first ordering in cohort_month who ordered in activity_month)
+CREATE TABLE cohort_activity (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    cohort_month DATE NOT NULL,
+    activity_month DATE NOT NULL,
+    active_customers BIGINT NOT NULL DEFAULT 0,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_cohort_activity (cohort_month, activity_month)
+);
+
+-- Delivery SLA Sketches Table (quantile sketches of lateness / fulfillment minutes per delivery day)
+CREATE TABLE delivery_sla_sketches (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    delivery_date DATE NOT NULL,
+    dimension VARCHAR(20) NOT NULL,
+    dimension_value VARCHAR(100) NOT NULL DEFAULT '',
+    metric VARCHAR(20) NOT NULL,
+    sketch VARBINARY(8192) NOT NULL,
+    UNIQUE KEY uk_delivery_sla_sketches (delivery_date, dimension, dimension_value, metric),
+    INDEX idx_delivery_sla_sketches_dimension (dimension, delivery_date)
+);
+
+-- Zip Centroids Table (geocoded zip code centres for routing deliveries without GPS coordinates)
+CREATE TABLE zip_centroids (
+    zip_code VARCHAR(20) PRIMARY KEY,
+    latitude DECIMAL(10, 8) NOT NULL,
+    longitude DECIMAL(11, 8) NOT NULL
+);
+
+-- Delivery Positions Table (append-only driver GPS fixes; coordinates in degrees x 10^7)
+CREATE TABLE delivery_positions (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    delivery_id BIGINT NOT NULL,
+    recorded_at DATETIME(3) NOT NULL,
+    latitude_e7 INT NOT NULL,
+    longitude_e7 INT NOT NULL,
+    accuracy_meters SMALLINT,
+    INDEX idx_delivery_positions_delivery (delivery_id, recorded_at)
+);
+
+-- Delivery Slot Capacities Table (capacity and reservations per day, delivery zone and time slot)
+CREATE TABLE delivery_slot_capacities (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    slot_date DATE NOT NULL,
+    zone VARCHAR(20) NOT NULL,
+    time_slot VARCHAR(50) NOT NULL,
+    capacity INT NOT NULL,
+    reserved INT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_delivery_slot_capacities (slot_date, zone, time_slot),
+    INDEX idx_delivery_slot_capacities_zone (zone, slot_date)
+);
+
 -- Seasonal Pricing Table
 CREATE TABLE seasonal_pricing (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -303,6 +457,8 @@ CREATE INDEX idx_products_active ON products(active);
 CREATE INDEX idx_orders_user ON orders(user_id);
 CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_orders_number ON orders(order_number);
+CREATE INDEX idx_orders_created ON orders(created_at);
+CREATE INDEX idx_orders_status_created ON orders(status, created_at);
 CREATE INDEX idx_events_user ON events(user_id);
 CREATE INDEX idx_events_status ON events(status);
 CREATE INDEX idx_events_date ON events(event_date);
@@ -0,0 +1,73 @@
+package com.flora.controller;
+
+import com.flora.dto.BulkStatusUpdateRequest;
+import com.flora.dto.BulkStatusUpdateResponse;
+import com.flora.dto.CheckoutMetricsResponse;
+import com.flora.dto.CursorPage;
+import com.flora.dto.OrderSearchCriteria;
+import com.flora.dto.OrderSummaryResponse;
+import com.flora.service.CheckoutAdmissionService;
+import com.flora.service.OrderService;
+import com.flora.service.StatusStreamService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminOrderController {
+
+    private final OrderService orderService;
+    private final StatusStreamService statusStreamService;
+    private final CheckoutAdmissionService checkoutAdmissionService;
+
+    @GetMapping
+    public ResponseEntity<CursorPage<OrderSummaryResponse>> searchOrders(
+            @ModelAttribute OrderSearchCriteria criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(orderService.searchOrders(criteria, cursor, limit));
+    }
+
+    @PutMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResponse> bulkUpdateStatus(
+            @Valid @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(orderService.bulkUpdateOrderStatus(request.getOrderIds(), request.getStatus()));
+    }
+
+    @GetMapping("/checkout-metrics")
+    public ResponseEntity<CheckoutMetricsResponse> getCheckoutMetrics() {
+        return ResponseEntity.ok(checkoutAdmissionService.getMetrics());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatusUpdates() {
+        return statusStreamService.subscribeForAdmin();
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@ModelAttribute OrderSearchCriteria criteria) {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            orderService.exportOrders(criteria, writer);
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+}
@@ -2,17 +2,38 @@ package com.flora.controller;
 
 import com.flora.dto.DeliveryRequest;
 import com.flora.dto.DeliveryResponse;
+import com.flora.dto.DeliverySlotAvailability;
+import com.flora.dto.DriverPosition;
+import com.flora.dto.MessageResponse;
+import com.flora.dto.NearbyStop;
+import com.flora.dto.PositionBatchRequest;
+import com.flora.dto.PositionBatchResponse;
+import com.flora.dto.RoutePlan;
+import com.flora.dto.SlotCapacityRequest;
 import com.flora.model.Delivery;
 import com.flora.service.DeliveryService;
+import com.flora.service.DriverPositionService;
+import com.flora.service.RoutePlannerService;
+import com.flora.service.SlotCapacityService;
+import com.flora.service.StatusStreamService;
+import com.flora.service.TrackingCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/deliveries")
@@ -21,6 +42,10 @@ import java.util.List;
 public class DeliveryController {
 
     private final DeliveryService deliveryService;
+    private final StatusStreamService statusStreamService;
+    private final RoutePlannerService routePlannerService;
+    private final DriverPositionService driverPositionService;
+    private final SlotCapacityService slotCapacityService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -30,15 +55,47 @@ public class DeliveryController {
     }
 
     @GetMapping("/tracking/{trackingNumber}")
-    public ResponseEntity<DeliveryResponse> getDeliveryByTracking(@PathVariable String trackingNumber) {
-        DeliveryResponse delivery = deliveryService.getDeliveryByTracking(trackingNumber);
-        return ResponseEntity.ok(delivery);
+    public ResponseEntity<DeliveryResponse> getDeliveryByTracking(@PathVariable String trackingNumber,
+            WebRequest request) {
+        return cachedResponse(deliveryService.getCachedDeliveryByTracking(trackingNumber), request);
+    }
+
+    @GetMapping(value = "/tracking/{trackingNumber}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDeliveryUpdates(@PathVariable String trackingNumber, HttpServletRequest request) {
+        // Throws 404 for unknown numbers, so guessed numbers cannot hold connections open
+        deliveryService.getCachedDeliveryByTracking(trackingNumber);
+        return statusStreamService.subscribeForTracking(trackingNumber, request.getRemoteAddr());
+    }
+
+    @GetMapping("/tracking/{trackingNumber}/position")
+    public ResponseEntity<DriverPosition> getLatestPosition(@PathVariable String trackingNumber) {
+        return ResponseEntity.ok(driverPositionService.getLatestPosition(trackingNumber));
+    }
+
+    // Batched GPS fixes from driver apps; see PositionBatchResponse for partially accepted batches
+    @PostMapping("/positions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PositionBatchResponse> reportPositions(@Valid @RequestBody PositionBatchRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(driverPositionService.ingest(request.getPositions()));
+    }
+
+    @GetMapping("/positions/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getPositionMetrics() {
+        return ResponseEntity.ok(driverPositionService.getMetrics());
+    }
+
+    @GetMapping("/{id}/positions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<DriverPosition>> getPositionHistory(@PathVariable Long id,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(driverPositionService.getPositionHistory(id, limit));
     }
 
     @GetMapping("/order-number/{orderNumber}")
-    public ResponseEntity<DeliveryResponse> getDeliveryByOrderNumber(@PathVariable String orderNumber) {
-        DeliveryResponse delivery = deliveryService.getDeliveryByOrderNumber(orderNumber);
-        return ResponseEntity.ok(delivery);
+    public ResponseEntity<DeliveryResponse> getDeliveryByOrderNumber(@PathVariable String orderNumber,
+            WebRequest request) {
+        return cachedResponse(deliveryService.getCachedDeliveryByOrderNumber(orderNumber), request);
     }
 
     @GetMapping("/order/{orderId}")
@@ -70,6 +127,62 @@ public class DeliveryController {
         return ResponseEntity.ok(deliveries);
     }
 
+    // Deliveries whose time slot overlaps from-to on the day, e.g. for dispatching one wave
+    @GetMapping("/date/{date}/window")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<DeliveryResponse>> getDeliveriesInWindow(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime to) {
+        return ResponseEntity.ok(deliveryService.getDeliveriesInWindow(date, from, to));
+    }
+
+    // Proposed driver routes for the day's pending and scheduled deliveries
+    @GetMapping("/routes/{date}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RoutePlan> planRoutes(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Integer maxStopsPerRoute) {
+        return ResponseEntity.ok(routePlannerService.planRoutes(date, maxStopsPerRoute));
+    }
+
+    @GetMapping("/slots")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<DeliverySlotAvailability>> getSlotCapacities(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String zone) {
+        return ResponseEntity.ok(slotCapacityService.getCapacities(startDate, endDate, zone));
+    }
+
+    @PutMapping("/slots")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> setSlotCapacities(@Valid @RequestBody SlotCapacityRequest request) {
+        int updated = slotCapacityService.setCapacities(request);
+        return ResponseEntity.ok(new MessageResponse("Updated " + updated + " delivery slots"));
+    }
+
+    @GetMapping("/nearby")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<NearbyStop>> findNearby(@RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "3") double radiusKm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(deliveryService.findNearby(latitude, longitude, radiusKm, date, limit));
+    }
+
+    @GetMapping("/within")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<NearbyStop>> findWithinBox(@RequestParam double south,
+            @RequestParam double west,
+            @RequestParam double north,
+            @RequestParam double east,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(deliveryService.findWithinBox(south, west, north, east, date, limit));
+    }
+
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<DeliveryResponse>> getDeliveriesByStatus(@PathVariable Delivery.DeliveryStatus status) {
@@ -95,4 +208,15 @@ public class DeliveryController {
                 vehicleNumber);
         return ResponseEntity.ok(delivery);
     }
+
+    // 304 when the client already holds this snapshot; no-cache makes browsers revalidate with If-None-Match
+    private static ResponseEntity<DeliveryResponse> cachedResponse(TrackingCache.Entry entry, WebRequest request) {
+        if (request.checkNotModified(entry.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entry.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(entry.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(entry.getResponse());
+    }
 }
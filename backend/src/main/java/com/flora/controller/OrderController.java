@@ -1,17 +1,30 @@
 package com.flora.controller;
 
+import com.flora.dto.CursorPage;
+import com.flora.dto.DeliverySlotAvailability;
 import com.flora.dto.OrderRequest;
+import com.flora.dto.StreamTicketResponse;
 import com.flora.model.Order;
+import com.flora.model.OrderView;
+import com.flora.security.StreamTicketService;
+import com.flora.service.CheckoutAdmissionService;
 import com.flora.service.OrderService;
+import com.flora.service.SlotCapacityService;
+import com.flora.service.StatusStreamService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -21,19 +34,59 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private StatusStreamService statusStreamService;
+
+    @Autowired
+    private CheckoutAdmissionService checkoutAdmissionService;
+
+    @Autowired
+    private SlotCapacityService slotCapacityService;
+
+    @Autowired
+    private StreamTicketService streamTicketService;
+
     @PostMapping
-    public ResponseEntity<Order> createOrder(
+    public CompletableFuture<ResponseEntity<Order>> createOrder(
             @Valid @RequestBody OrderRequest request,
             Authentication authentication) {
         String username = authentication.getName();
-        Order order = orderService.createOrder(username, request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(order);
+        return checkoutAdmissionService.submit(username, request)
+                .thenApply(order -> ResponseEntity.status(HttpStatus.CREATED).body(order));
     }
 
     @GetMapping
-    public ResponseEntity<List<Order>> getUserOrders(Authentication authentication) {
+    public ResponseEntity<CursorPage<?>> getUserOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "full") String view,
+            Authentication authentication) {
         String username = authentication.getName();
-        return ResponseEntity.ok(orderService.getUserOrders(username));
+        if ("summary".equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(orderService.getUserOrderSummaries(username, cursor, limit));
+        }
+        return ResponseEntity.ok(orderService.getUserOrders(username, cursor, limit));
+    }
+
+    // Delivery slots with capacity left for the shipping zip code, offered at checkout
+    @GetMapping("/delivery-slots")
+    public ResponseEntity<List<DeliverySlotAvailability>> getDeliverySlots(
+            @RequestParam String zipCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(slotCapacityService.getAvailableSlots(zipCode, from, days));
+    }
+
+    // Single-use ticket for opening this stream or the admin one, which EventSource can't send a header to
+    @PostMapping("/stream/ticket")
+    public ResponseEntity<StreamTicketResponse> issueStreamTicket(Authentication authentication) {
+        return ResponseEntity.ok(new StreamTicketResponse(streamTicketService.issue(authentication.getName()),
+                streamTicketService.getTtlSeconds()));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderUpdates(Authentication authentication) {
+        return statusStreamService.subscribeForUser(authentication.getName());
     }
 
     @GetMapping("/{id}")
@@ -48,8 +101,10 @@ public class OrderController {
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<CursorPage<OrderView>> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(orderService.getAllOrders(cursor, limit));
     }
 
     @PutMapping("/{id}/status")
@@ -1,14 +1,32 @@
 package com.flora.controller;
 
+import com.flora.dto.AnalyticsResult;
+import com.flora.dto.CursorPage;
+import com.flora.dto.DeliveryReportRow;
+import com.flora.dto.InventoryRow;
+import com.flora.dto.LowStockItem;
+import com.flora.dto.OrderSummaryResponse;
+import com.flora.model.Order;
+import com.flora.service.BestSellerTracker;
+import com.flora.service.DashboardService;
+import com.flora.service.LowStockIndex;
+import com.flora.service.OrderFactStore;
+import com.flora.service.ReportExportService;
 import com.flora.service.ReportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -17,6 +35,11 @@ import java.util.Map;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportExportService reportExportService;
+    private final DashboardService dashboardService;
+    private final OrderFactStore orderFactStore;
+    private final LowStockIndex lowStockIndex;
+    private final BestSellerTracker bestSellerTracker;
 
     @GetMapping("/sales")
     @PreAuthorize("hasRole('ADMIN')")
@@ -27,6 +50,86 @@ public class ReportController {
         return ResponseEntity.ok(report);
     }
 
+    @GetMapping("/sales/orders")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<OrderSummaryResponse>> getSalesReportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(reportService.getSalesReportOrders(startDate, endDate, cursor, limit));
+    }
+
+    // Zero-filled buckets for charts: granularity is hour, day, week or month
+    @GetMapping("/sales/timeseries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSalesTimeSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "day") String granularity) {
+        return ResponseEntity.ok(reportService.getSalesTimeSeries(startDate, endDate, granularity));
+    }
+
+    @GetMapping("/sales/rollup-check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> checkSalesRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(reportService.checkSalesRollups(startDate, endDate));
+    }
+
+    @GetMapping("/top-sellers")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getTopSellers(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(reportService.getTopSellers(startDate, endDate, categoryId, limit));
+    }
+
+    @GetMapping("/top-sellers/period/{period}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getTopSellersByPeriod(
+            @PathVariable String period,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(reportService.getTopSellersByPeriod(period, categoryId, limit));
+    }
+
+    // Real-time view from in-memory heavy hitter sketches; estimates carry their maximum overcount
+    @GetMapping("/top-sellers/today")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getTopSellersToday(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(bestSellerTracker.getToday(limit));
+    }
+
+    // Months as yyyy-MM; defaults to the last 12 cohorts
+    @GetMapping("/cohorts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCohortReport(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth fromMonth,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth toMonth) {
+        YearMonth to = toMonth != null ? toMonth : YearMonth.now();
+        YearMonth from = fromMonth != null ? fromMonth : to.minusMonths(11);
+        return ResponseEntity.ok(reportService.getCohortReport(from, to));
+    }
+
+    // Approximate unique customers and products, see ReportService#getDistinctCounts
+    @GetMapping("/distinct")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getDistinctCounts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(reportService.getDistinctCounts(startDate, endDate));
+    }
+
+    @GetMapping("/distinct/period/{period}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getDistinctCountsByPeriod(@PathVariable String period) {
+        return ResponseEntity.ok(reportService.getDistinctCountsByPeriod(period));
+    }
+
     @GetMapping("/inventory")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getInventoryReport() {
@@ -34,6 +137,23 @@ public class ReportController {
         return ResponseEntity.ok(report);
     }
 
+    @GetMapping("/inventory/rows")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<InventoryRow>> getInventoryRows(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(reportService.getInventoryRows(cursor, limit));
+    }
+
+    // Purchasing feed: products below their reorder threshold, emptiest first
+    @GetMapping("/inventory/low-stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<LowStockItem>> getLowStockFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(lowStockIndex.getFeed(cursor, limit));
+    }
+
     @GetMapping("/deliveries")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getDeliveryReport(
@@ -42,10 +162,30 @@ public class ReportController {
         return ResponseEntity.ok(report);
     }
 
+    @GetMapping("/deliveries/rows")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<DeliveryReportRow>> getDeliveryReportRows(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(reportService.getDeliveryReportRows(startDate, endDate, cursor, limit));
+    }
+
+    // Lateness and fulfillment percentiles; groupBy is driver, zipCode or deliveryType
+    @GetMapping("/deliveries/performance")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getDeliveryPerformance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String groupBy) {
+        return ResponseEntity.ok(reportService.getDeliveryPerformance(startDate, endDate, groupBy));
+    }
+
     @GetMapping("/dashboard")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getDashboardSummary() {
-        Map<String, Object> summary = reportService.getDashboardSummary();
+        Map<String, Object> summary = dashboardService.getDashboardSummary();
         return ResponseEntity.ok(summary);
     }
 
@@ -67,7 +207,87 @@ public class ReportController {
     @GetMapping("/dashboard/{period}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getDashboardSummaryByPeriod(@PathVariable String period) {
-        Map<String, Object> summary = reportService.getDashboardSummaryByPeriod(period);
+        Map<String, Object> summary = dashboardService.getDashboardSummaryByPeriod(period);
         return ResponseEntity.ok(summary);
     }
+
+    // In-memory order analytics, answered from the columnar fact store without touching MySQL
+    @GetMapping("/analytics/revenue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AnalyticsResult> getRevenueAnalytics(
+            @RequestParam(defaultValue = "DAY") OrderFactStore.GroupBy groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<Order.OrderStatus> status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long categoryId) {
+        return ResponseEntity.ok(orderFactStore.aggregate(startDate, endDate, OrderFactStore.statusMask(status),
+                userId, productId, categoryId, groupBy));
+    }
+
+    @GetMapping("/analytics/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAnalyticsStats() {
+        return ResponseEntity.ok(orderFactStore.getStats());
+    }
+
+    // Streaming exports: rows are written as they are read, optionally gzipped
+    @GetMapping("/export/sales")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSalesReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ReportExportService.Format exportFormat = ReportExportService.Format.from(format);
+        return export("sales-" + startDate + "-" + endDate, exportFormat, gzip,
+                out -> reportExportService.exportSales(startDate, endDate, exportFormat, out));
+    }
+
+    @GetMapping("/export/sales/period/{period}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSalesReportByPeriod(
+            @PathVariable String period,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        Map<String, LocalDate> range = reportService.calculateDateRange(period);
+        return exportSalesReport(range.get("startDate"), range.get("endDate"), format, gzip);
+    }
+
+    @GetMapping("/export/inventory")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportInventoryReport(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ReportExportService.Format exportFormat = ReportExportService.Format.from(format);
+        return export("inventory-" + LocalDate.now(), exportFormat, gzip,
+                out -> reportExportService.exportInventory(exportFormat, out));
+    }
+
+    @GetMapping("/export/deliveries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportDeliveryReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ReportExportService.Format exportFormat = ReportExportService.Format.from(format);
+        return export("deliveries-" + startDate + "-" + endDate, exportFormat, gzip,
+                out -> reportExportService.exportDeliveries(startDate, endDate, exportFormat, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> export(String baseName, ReportExportService.Format format,
+            boolean gzip, StreamingResponseBody writer) {
+        String filename = baseName + "." + format.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = !gzip ? writer : outputStream -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(outputStream, 64 * 1024);
+            writer.writeTo(compressed);
+            compressed.finish();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(gzip ? new MediaType("application", "gzip") : format.getMediaType())
+                .body(body);
+    }
 }
@@ -0,0 +1,53 @@
+package com.flora.controller;
+
+import com.flora.dto.ReportJobRequest;
+import com.flora.dto.ReportJobResponse;
+import com.flora.service.ReportJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports/jobs")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", maxAge = 3600)
+@PreAuthorize("hasRole('ADMIN')")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    // Returns immediately; poll the job, then download its result
+    @PostMapping
+    public ResponseEntity<ReportJobResponse> submit(@Valid @RequestBody ReportJobRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submit(request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobResponse> getStatus(@PathVariable String id) {
+        return ResponseEntity.ok(reportJobService.getStatus(id));
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<?> getResult(@PathVariable String id) {
+        Map<String, Object> result = reportJobService.getResult(id);
+        if (result == null) {
+            ReportJobResponse job = reportJobService.getStatus(id);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Report job is " + job.getStatus()));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"report-" + id + ".json\"")
+                .body(result);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ReportJobResponse> cancel(@PathVariable String id) {
+        return ResponseEntity.ok(reportJobService.cancel(id));
+    }
+}
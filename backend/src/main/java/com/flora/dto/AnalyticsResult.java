@@ -0,0 +1,31 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsResult {
+    private String groupBy;
+    private long linesScanned;
+    private long linesMatched;
+    private long tookMicros;
+    private List<Bucket> buckets = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private String key;
+        private BigDecimal revenue;
+        // Distinct orders for order-level groupings; order lines when grouping or filtering by product/category
+        private long orders;
+        private long units;
+    }
+}
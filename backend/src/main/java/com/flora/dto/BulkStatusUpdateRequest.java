@@ -0,0 +1,20 @@
+package com.flora.dto;
+
+import com.flora.model.Order;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty(message = "At least one order id is required")
+    @Size(max = 500, message = "At most 500 orders can be updated at once")
+    private List<Long> orderIds;
+
+    @NotNull(message = "Target status is required")
+    private Order.OrderStatus status;
+}
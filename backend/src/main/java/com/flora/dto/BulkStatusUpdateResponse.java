@@ -0,0 +1,35 @@
+package com.flora.dto;
+
+import com.flora.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResponse {
+
+    private Order.OrderStatus targetStatus;
+    private int updatedCount;
+    private int updatedDeliveries;
+    private List<Result> results;
+
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        INVALID_TRANSITION,
+        CONFLICT
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private Long orderId;
+        private Order.OrderStatus previousStatus;
+        private Outcome outcome;
+    }
+}
@@ -0,0 +1,24 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutMetricsResponse {
+    private int queueDepth;
+    private int queueCapacity;
+    private int activeWorkers;
+    private int inFlight;
+    private long admitted;
+    private long completed;
+    private long failed;
+    private long rejectedSoldOut;
+    private long rejectedBusy;
+    private long rejectedTimedOut;
+    private long waitSamples;
+    private double averageWaitMs;
+    private double maxWaitMs;
+}
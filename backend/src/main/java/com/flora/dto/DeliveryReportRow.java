@@ -0,0 +1,22 @@
+package com.flora.dto;
+
+import com.flora.model.Delivery;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryReportRow {
+    private Long id;
+    private String trackingNumber;
+    private Delivery.DeliveryStatus status;
+    private LocalDate scheduledDate;
+    private String timeSlot;
+    private String recipientName;
+    private String address;
+    private String driverName;
+}
@@ -26,4 +26,6 @@ public class DeliveryRequest {
     private String recipientName;
     private String recipientPhone;
     private String deliveryNotes;
+    private BigDecimal gpsLatitude;
+    private BigDecimal gpsLongitude;
 }
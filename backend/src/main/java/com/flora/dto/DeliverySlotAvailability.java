@@ -0,0 +1,20 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliverySlotAvailability {
+
+    private LocalDate date;
+    private String zone;
+    private String timeSlot;
+    private int capacity;
+    private int reserved;
+    private int available;
+}
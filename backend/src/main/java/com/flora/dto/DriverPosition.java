@@ -0,0 +1,18 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverPosition {
+    private Long deliveryId;
+    private double latitude;
+    private double longitude;
+    private Integer accuracyMeters;
+    private LocalDateTime recordedAt;
+}
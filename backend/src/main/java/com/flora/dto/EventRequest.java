@@ -23,6 +23,8 @@ public class EventRequest {
     private String venueCity;
     private String venueState;
     private String venueZipCode;
+    private BigDecimal venueLatitude;
+    private BigDecimal venueLongitude;
     private Integer guestCount;
     private BigDecimal budget;
     private String specialInstructions;
@@ -26,6 +26,8 @@ public class EventResponse {
     private String venueCity;
     private String venueState;
     private String venueZipCode;
+    private BigDecimal venueLatitude;
+    private BigDecimal venueLongitude;
     private Integer guestCount;
     private BigDecimal budget;
     private String specialInstructions;
@@ -0,0 +1,19 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeavyHitter {
+    private Long productId;
+    private String name;
+    // Units or revenue depending on the ranking; never below the true value
+    private BigDecimal estimate;
+    // The true value is at least estimate - maxOvercount
+    private BigDecimal maxOvercount;
+}
@@ -0,0 +1,26 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryRow {
+    private Long id;
+    private String name;
+    private String sku;
+    private Integer stockQuantity;
+    private Integer reorderThreshold;
+    private BigDecimal price;
+    // IN_STOCK, LOW_STOCK or OUT_OF_STOCK against the effective threshold
+    private String status;
+
+    public InventoryRow(Long id, String name, String sku, Integer stockQuantity, Integer reorderThreshold,
+            BigDecimal price) {
+        this(id, name, sku, stockQuantity, reorderThreshold, price, null);
+    }
+}
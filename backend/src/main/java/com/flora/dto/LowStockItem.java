@@ -0,0 +1,16 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockItem {
+    private Long productId;
+    private String name;
+    private String sku;
+    private int stockQuantity;
+    private int reorderThreshold;
+}
@@ -0,0 +1,30 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyStop {
+    // DELIVERY or EVENT
+    private String type;
+    private Long id;
+    // Tracking number or event number
+    private String reference;
+    // Recipient or venue name
+    private String name;
+    private String address;
+    private String zipCode;
+    private LocalDate date;
+    private String status;
+    private double latitude;
+    private double longitude;
+    // GPS or ZIP (zip code centroid)
+    private String locationSource;
+    // Only set for radius queries
+    private Double distanceKm;
+}
@@ -0,0 +1,24 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One order line with the order attributes analytics filter and group on
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineFact {
+    private Long orderId;
+    private LocalDateTime createdAt;
+    private String status;
+    private String paymentMethod;
+    private Long userId;
+    private Long productId;
+    private Long categoryId;
+    private Integer quantity;
+    private BigDecimal subtotal;
+}
@@ -3,6 +3,7 @@ package com.flora.dto;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Data
@@ -31,4 +32,8 @@ public class OrderRequest {
     
     private String paymentMethod;
     private String notes;
+
+    // Preferred delivery slot; the earliest free slot is used when not given
+    private LocalDate deliveryDate;
+    private String deliveryTimeSlot;
 }
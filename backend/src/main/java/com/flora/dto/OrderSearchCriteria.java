@@ -0,0 +1,31 @@
+package com.flora.dto;
+
+import com.flora.model.Order;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class OrderSearchCriteria {
+
+    private Order.OrderStatus status;
+    private Order.PaymentStatus paymentStatus;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fromDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate toDate;
+
+    private Long customerId;
+    private String customerEmail;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    // createdAt or totalAmount
+    private String sort = "createdAt";
+    // asc or desc
+    private String direction = "desc";
+}
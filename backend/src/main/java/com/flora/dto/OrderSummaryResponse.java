@@ -0,0 +1,24 @@
+package com.flora.dto;
+
+import com.flora.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryResponse {
+    private Long id;
+    private String orderNumber;
+    private Long userId;
+    private String customerEmail;
+    private BigDecimal totalAmount;
+    private Order.OrderStatus status;
+    private Order.PaymentStatus paymentStatus;
+    private String paymentMethod;
+    private LocalDateTime createdAt;
+}
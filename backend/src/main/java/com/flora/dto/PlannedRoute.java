@@ -0,0 +1,18 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlannedRoute {
+    private int routeNumber;
+    private String timeSlot;
+    private int stopCount;
+    private double distanceKm;
+    private List<RouteStop> stops;
+}
@@ -0,0 +1,45 @@
+package com.flora.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class PositionBatchRequest {
+
+    @NotEmpty(message = "At least one position is required")
+    @Size(max = 1000, message = "At most 1000 positions can be sent at once")
+    @Valid
+    private List<Fix> positions;
+
+    @Data
+    public static class Fix {
+
+        @NotNull(message = "Delivery id is required")
+        private Long deliveryId;
+
+        @NotNull(message = "Latitude is required")
+        @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+        @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+        private Double latitude;
+
+        @NotNull(message = "Longitude is required")
+        @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+        @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+        private Double longitude;
+
+        @PositiveOrZero(message = "Accuracy must not be negative")
+        private Integer accuracyMeters;
+
+        // Defaults to the time the batch is received
+        private LocalDateTime recordedAt;
+    }
+}
@@ -0,0 +1,16 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionBatchResponse {
+    // Positions are taken in order; when the buffer is full the rest of the batch is dropped
+    private int accepted;
+    private int dropped;
+    // Positions for unknown or finished deliveries; not worth resending
+    private int rejected;
+}
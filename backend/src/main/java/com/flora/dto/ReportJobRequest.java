@@ -0,0 +1,27 @@
+package com.flora.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class ReportJobRequest {
+
+    @NotNull(message = "Report type is required")
+    private Type type;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    // Sales time series bucket size (hour, day, week, month); day when omitted
+    private String granularity;
+
+    public enum Type {
+        SALES,
+        DELIVERIES
+    }
+}
@@ -0,0 +1,23 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponse {
+    private String id;
+    private ReportJobRequest.Type type;
+    // QUEUED, RUNNING, SUCCEEDED, FAILED or CANCELLED
+    private String status;
+    // 0-100
+    private int progress;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutePlan {
+    private LocalDate date;
+    private Double depotLatitude;
+    private Double depotLongitude;
+    private int plannedStops;
+    private double totalDistanceKm;
+    private double kmPerDrop;
+    private long planningMillis;
+    private List<PlannedRoute> routes;
+    // Deliveries with neither GPS coordinates nor a known zip code centroid
+    private List<DeliveryReportRow> unlocated;
+}
@@ -0,0 +1,23 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteStop {
+    private int sequence;
+    private Long deliveryId;
+    private String trackingNumber;
+    private String recipientName;
+    private String address;
+    private String zipCode;
+    private double latitude;
+    private double longitude;
+    // GPS or ZIP (zip code centroid)
+    private String locationSource;
+    // Distance from the previous stop, or from the depot for the first stop
+    private double legKm;
+}
@@ -0,0 +1,33 @@
+package com.flora.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Sets the same capacity for every time slot in every zone on every day of the range
+@Data
+public class SlotCapacityRequest {
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    @NotEmpty(message = "At least one zone is required")
+    @Size(max = 200, message = "At most 200 zones can be updated at once")
+    private List<String> zones;
+
+    @NotEmpty(message = "At least one time slot is required")
+    @Size(max = 24, message = "At most 24 time slots can be updated at once")
+    private List<String> timeSlots;
+
+    @NotNull(message = "Capacity is required")
+    @Min(value = 0, message = "Capacity must not be negative")
+    private Integer capacity;
+}
@@ -0,0 +1,14 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Pass as ?ticket= when opening /api/orders/stream or /api/admin/orders/stream; valid once
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamTicketResponse {
+    private String ticket;
+    private long expiresInSeconds;
+}
@@ -0,0 +1,18 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesPoint {
+    // Start of the bucket; buckets without orders are present with zero values
+    private LocalDateTime bucketStart;
+    private long orders;
+    private BigDecimal sales;
+}
@@ -0,0 +1,18 @@
+package com.flora.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopSellerEntry {
+    // Product or category id; null for the uncategorized bucket
+    private Long id;
+    private String name;
+    private long units;
+    private BigDecimal revenue;
+}
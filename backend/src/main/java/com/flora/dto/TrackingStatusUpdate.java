@@ -0,0 +1,20 @@
+package com.flora.dto;
+
+import com.flora.model.Delivery;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Delivery status change as sent to public tracking streams; carries nothing that identifies the customer
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackingStatusUpdate {
+    private String trackingNumber;
+    private Delivery.DeliveryStatus previousStatus;
+    private Delivery.DeliveryStatus status;
+    private String driverName;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,29 @@
+package com.flora.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.flora.dto.DeliveryResponse;
+import com.flora.model.Delivery;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryStatusChangedEvent {
+    private Long deliveryId;
+    private String trackingNumber;
+    private Long orderId;
+    private String orderNumber;
+    private Long userId;
+    private Delivery.DeliveryStatus previousStatus;
+    private Delivery.DeliveryStatus status;
+    private String driverName;
+    private LocalDateTime changedAt;
+
+    // Full delivery state after the change; null for set-based bulk updates. Not sent to stream subscribers.
+    @JsonIgnore
+    private DeliveryResponse snapshot;
+}
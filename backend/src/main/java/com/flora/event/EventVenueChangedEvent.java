@@ -0,0 +1,25 @@
+package com.flora.event;
+
+import com.flora.model.Event;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventVenueChangedEvent {
+    private Long eventId;
+    private String eventNumber;
+    private LocalDate eventDate;
+    // Null when the event was deleted
+    private Event.EventStatus status;
+    private String venueName;
+    private String venueAddress;
+    private String venueZipCode;
+    private BigDecimal venueLatitude;
+    private BigDecimal venueLongitude;
+}
@@ -0,0 +1,14 @@
+package com.flora.event;
+
+import com.flora.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCreatedEvent {
+    // Saved order with its items, published inside the creating transaction
+    private Order order;
+}
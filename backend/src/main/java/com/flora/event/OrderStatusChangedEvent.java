@@ -0,0 +1,20 @@
+package com.flora.event;
+
+import com.flora.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+    private Long orderId;
+    private String orderNumber;
+    private Long userId;
+    private Order.OrderStatus previousStatus;
+    private Order.OrderStatus status;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,13 @@
+package com.flora.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Only names the product; listeners re-read its stock, since events from concurrent checkouts can arrive out of order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelChangedEvent {
+    private Long productId;
+}
@@ -0,0 +1,23 @@
+package com.flora.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class CheckoutRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final int retryAfterSeconds;
+
+    public CheckoutRejectedException(String message, HttpStatus status, int retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
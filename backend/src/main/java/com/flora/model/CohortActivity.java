@@ -0,0 +1,43 @@
+package com.flora.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One cell of the cohort matrix: how many customers who first ordered in
+ * cohortMonth ordered again in activityMonth, and what they spent. The cell
+ * where both months are equal holds the cohort size.
+ */
+@Entity
+@Table(name = "cohort_activity", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cohort_activity", columnNames = {"cohortMonth", "activityMonth"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CohortActivity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate cohortMonth;
+
+    @Column(nullable = false)
+    private LocalDate activityMonth;
+
+    @Column(nullable = false)
+    private long activeCustomers;
+
+    @Column(nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+}
@@ -0,0 +1,44 @@
+package com.flora.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Per-customer purchase state behind the cohort report: when the customer first
+ * and last ordered and how much. Maintained by {@link com.flora.service.CohortProjector}.
+ */
+@Entity
+@Table(name = "customer_order_stats", indexes = {
+        @Index(name = "idx_customer_order_stats_cohort", columnList = "cohortMonth")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOrderStats {
+
+    // Same value as users.id
+    @Id
+    private Long userId;
+
+    // First day of the month of the first order
+    @Column(nullable = false)
+    private LocalDate cohortMonth;
+
+    @Column(nullable = false)
+    private LocalDateTime firstOrderAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lastOrderAt;
+
+    @Column(nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalSpent = BigDecimal.ZERO;
+}
@@ -0,0 +1,42 @@
+package com.flora.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Serialized {@link com.flora.service.HyperLogLog} of the distinct customers or
+ * products ordered on one calendar day. Maintained by
+ * {@link com.flora.service.DistinctCountProjector}; ranges are answered by merging
+ * the daily sketches.
+ */
+@Entity
+@Table(name = "daily_distinct_sketches", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_distinct_sketches", columnNames = {"sketchDate", "metric"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyDistinctSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate sketchDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Metric metric;
+
+    @Column(nullable = false, length = 3073)
+    private byte[] registers;
+
+    public enum Metric {
+        CUSTOMERS, PRODUCTS
+    }
+}
@@ -0,0 +1,45 @@
+package com.flora.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Units and revenue per product per calendar day of order creation, excluding
+ * cancelled orders. Rows are only ever adjusted by
+ * {@link com.flora.service.ProductSalesProjector} through atomic upserts.
+ */
+@Entity
+@Table(name = "daily_product_sales", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_product_sales", columnNames = {"salesDate", "productId"})
+}, indexes = {
+        @Index(name = "idx_daily_product_sales_category", columnList = "categoryId, salesDate")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyProductSales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate salesDate;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    // Category at the time of the first sale that day
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+}
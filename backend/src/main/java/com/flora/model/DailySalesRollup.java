@@ -0,0 +1,48 @@
+package com.flora.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Order totals per calendar day (of order creation), order status and payment
+ * method. Rows are only ever adjusted by {@link com.flora.service.SalesRollupProjector}
+ * through atomic upserts, so reports can sum a date range in O(days).
+ */
+@Entity
+@Table(name = "daily_sales_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_sales_rollup", columnNames = {"salesDate", "status", "paymentMethod"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate salesDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Order.OrderStatus status;
+
+    // Empty string rather than NULL so the unique key also dedupes orders without a method
+    @Column(nullable = false, length = 50)
+    private String paymentMethod = "";
+
+    @Column(nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal grossAmount = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private long itemCount;
+}
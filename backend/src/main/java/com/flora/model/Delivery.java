@@ -13,7 +13,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "deliveries")
+@Table(name = "deliveries", indexes = {
+        @Index(name = "idx_deliveries_scheduled", columnList = "scheduledDate, status"),
+        @Index(name = "idx_deliveries_slot", columnList = "scheduledDate, slotStart"),
+        @Index(name = "idx_deliveries_created", columnList = "createdAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -44,6 +48,14 @@ public class Delivery {
     
     private String scheduledTimeSlot;
     
+    // Minutes after midnight parsed from scheduledTimeSlot; null when it has no recognizable time
+    @Column(name = "slot_start")
+    private Integer slotStart;
+    
+    // Above 1440 for slots running past midnight; null when the slot has no end time
+    @Column(name = "slot_end")
+    private Integer slotEnd;
+    
     private LocalDateTime actualDeliveryTime;
     
     @Enumerated(EnumType.STRING)
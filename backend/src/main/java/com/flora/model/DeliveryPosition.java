@@ -0,0 +1,41 @@
+package com.flora.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One GPS fix reported by a driver while carrying a delivery. Append-only and
+ * written in bulk by {@link com.flora.service.DriverPositionService}; coordinates
+ * are kept as degrees x 10^7 in plain ints to keep the rows small.
+ */
+@Entity
+@Table(name = "delivery_positions", indexes = {
+        @Index(name = "idx_delivery_positions_delivery", columnList = "deliveryId, recordedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryPosition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long deliveryId;
+
+    @Column(nullable = false, columnDefinition = "DATETIME(3)")
+    private LocalDateTime recordedAt;
+
+    @Column(nullable = false)
+    private int latitudeE7;
+
+    @Column(nullable = false)
+    private int longitudeE7;
+
+    private Short accuracyMeters;
+}
@@ -0,0 +1,59 @@
+package com.flora.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Serialized {@link com.flora.service.QuantileSketch} of one delivery metric for the
+ * deliveries completed on one day, overall or for one driver, zip code or delivery
+ * type. Maintained by {@link com.flora.service.DeliverySlaProjector}.
+ */
+@Entity
+@Table(name = "delivery_sla_sketches", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_delivery_sla_sketches",
+                columnNames = {"deliveryDate", "dimension", "dimensionValue", "metric"})
+}, indexes = {
+        @Index(name = "idx_delivery_sla_sketches_dimension", columnList = "dimension, deliveryDate")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliverySlaSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate deliveryDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Dimension dimension;
+
+    // Driver name, zip code or delivery type; empty for ALL and for missing values
+    @Column(nullable = false, length = 100)
+    private String dimensionValue = "";
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Metric metric;
+
+    @Column(nullable = false, length = 8192)
+    private byte[] sketch;
+
+    public enum Dimension {
+        ALL, DRIVER, ZIP_CODE, DELIVERY_TYPE
+    }
+
+    public enum Metric {
+        // Minutes after the end of the scheduled slot; negative when early
+        LATENESS,
+        // Minutes from order placement to delivery
+        FULFILLMENT
+    }
+}
@@ -0,0 +1,45 @@
+package com.flora.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Delivery capacity of one time slot on one day in one delivery zone, and how much
+ * of it checkouts have taken. Rows are created on first use with the configured
+ * default capacity; {@code reserved} is only ever changed by conditional
+ * single-statement updates in {@link com.flora.repository.DeliverySlotCapacityRepository}.
+ */
+@Entity
+@Table(name = "delivery_slot_capacities", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_delivery_slot_capacities", columnNames = {"slotDate", "zone", "timeSlot"})
+}, indexes = {
+        @Index(name = "idx_delivery_slot_capacities_zone", columnList = "zone, slotDate")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliverySlotCapacity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate slotDate;
+
+    @Column(nullable = false, length = 20)
+    private String zone;
+
+    @Column(nullable = false, length = 50)
+    private String timeSlot;
+
+    @Column(nullable = false)
+    private int capacity;
+
+    @Column(nullable = false)
+    private int reserved;
+}
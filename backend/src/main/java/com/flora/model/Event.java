@@ -57,6 +57,12 @@ public class Event {
 
     private String venueZipCode;
 
+    @Column(precision = 10, scale = 8)
+    private BigDecimal venueLatitude;
+
+    @Column(precision = 11, scale = 8)
+    private BigDecimal venueLongitude;
+
     private Integer guestCount;
 
     @Column(precision = 10, scale = 2)
@@ -7,6 +7,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -15,12 +17,26 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created", columnList = "createdAt")
+})
+@NamedEntityGraph(name = Order.WITH_ITEMS_GRAPH, attributeNodes = {
+        @NamedAttributeNode(value = "orderItems", subgraph = "items")
+}, subgraphs = {
+        @NamedSubgraph(name = "items", attributeNodes = {
+                @NamedAttributeNode(value = "product", subgraph = "product")
+        }),
+        @NamedSubgraph(name = "product", attributeNodes = {
+                @NamedAttributeNode("category")
+        })
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
 
+    public static final String WITH_ITEMS_GRAPH = "Order.withItems";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -77,7 +93,10 @@ public class Order {
     @Column(nullable = false)
     private PaymentStatus paymentStatus = PaymentStatus.PENDING;
 
+    // Not in WITH_ITEMS_GRAPH (two list fetches in one graph are rejected); the first access loads
+    // the deliveries of every order from the same query at once instead of one query per order
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Fetch(FetchMode.SUBSELECT)
     @JsonIgnoreProperties("order")
     private List<Delivery> deliveries = new ArrayList<>();
 
@@ -86,7 +105,35 @@ public class Order {
         PROCESSING,
         SHIPPED,
         DELIVERED,
-        CANCELLED
+        CANCELLED;
+
+        public boolean canTransitionTo(OrderStatus target) {
+            switch (this) {
+                case PENDING:
+                    return target == PROCESSING || target == CANCELLED;
+                case PROCESSING:
+                    return target == SHIPPED || target == CANCELLED;
+                case SHIPPED:
+                    return target == DELIVERED;
+                default:
+                    // DELIVERED and CANCELLED are terminal
+                    return false;
+            }
+        }
+
+        // Delivery status that follows an order moving into this status, or null if deliveries are unaffected
+        public Delivery.DeliveryStatus deliveryStatus() {
+            switch (this) {
+                case SHIPPED:
+                    return Delivery.DeliveryStatus.OUT_FOR_DELIVERY;
+                case DELIVERED:
+                    return Delivery.DeliveryStatus.DELIVERED;
+                case CANCELLED:
+                    return Delivery.DeliveryStatus.CANCELLED;
+                default:
+                    return null;
+            }
+        }
     }
 
     public enum PaymentStatus {
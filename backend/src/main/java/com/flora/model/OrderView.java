@@ -0,0 +1,104 @@
+package com.flora.model;
+
+import com.flora.dto.DeliveryResponse;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Denormalized, read-only projection of an order with its item lines and current
+ * delivery. Maintained by {@link com.flora.service.OrderViewProjector} from order and
+ * delivery write events; never written by request handlers directly.
+ */
+@Entity
+@Table(name = "order_views", indexes = {
+        @Index(name = "idx_order_views_user", columnList = "userId, id"),
+        @Index(name = "idx_order_views_tracking", columnList = "trackingNumber"),
+        @Index(name = "idx_order_views_created", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderView {
+
+    // Same value as orders.id
+    @Id
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String orderNumber;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private String customerName;
+
+    private String customerEmail;
+
+    private String customerPhone;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Order.OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private Order.PaymentStatus paymentStatus;
+
+    private String paymentMethod;
+
+    private String shippingAddress;
+
+    private String shippingCity;
+
+    private String shippingState;
+
+    private String shippingZipCode;
+
+    private String shippingCountry;
+
+    private int itemCount;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "json")
+    private List<Line> orderItems = new ArrayList<>();
+
+    private String trackingNumber;
+
+    @Enumerated(EnumType.STRING)
+    private Delivery.DeliveryStatus deliveryStatus;
+
+    // Snapshot served as-is by the public tracking endpoints
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "json")
+    private DeliveryResponse delivery;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long id;
+        private Long productId;
+        private String productName;
+        private String productImageUrl;
+        private Integer quantity;
+        private BigDecimal price;
+        private BigDecimal subtotal;
+    }
+}
@@ -3,6 +3,7 @@ package com.flora.model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -41,6 +42,10 @@ public class Product {
     @Column(nullable = false)
     private Integer stockQuantity = 0;
 
+    // Stock level below which the product needs reordering; null uses flora.inventory.default-reorder-threshold
+    @Min(0)
+    private Integer reorderThreshold;
+
     @Column(columnDefinition = "LONGTEXT")
     private String imageUrl;
 
@@ -0,0 +1,27 @@
+package com.flora.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker for the one-time rebuild of a read model from its source tables. The row
+ * is created before the rebuild and {@code completedAt} is set in the rebuild's
+ * own transaction, so it records exactly whether the history has been loaded.
+ */
+@Entity
+@Table(name = "projection_backfills")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionBackfill {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    private LocalDateTime completedAt;
+}
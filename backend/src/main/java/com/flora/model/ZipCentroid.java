@@ -0,0 +1,30 @@
+package com.flora.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Geocoded centre of a postal code, used to place deliveries that have no GPS
+ * coordinates of their own when planning routes.
+ */
+@Entity
+@Table(name = "zip_centroids")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ZipCentroid {
+
+    @Id
+    @Column(length = 20)
+    private String zipCode;
+
+    @Column(nullable = false, precision = 10, scale = 8)
+    private BigDecimal latitude;
+
+    @Column(nullable = false, precision = 11, scale = 8)
+    private BigDecimal longitude;
+}
@@ -2,11 +2,19 @@ package com.flora.repository;
 
 import com.flora.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
+
+    // [productId, quantity] per product in the cart of the user identified by email or username
+    @Query("SELECT ci.product.id, SUM(ci.quantity) FROM CartItem ci JOIN ci.cart c JOIN c.user u " +
+            "WHERE u.email = :username OR u.username = :username GROUP BY ci.product.id")
+    List<Object[]> sumQuantitiesByProductForUser(@Param("username") String username);
 }
@@ -0,0 +1,40 @@
+package com.flora.repository;
+
+import com.flora.model.CohortActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CohortActivityRepository extends JpaRepository<CohortActivity, Long> {
+
+    List<CohortActivity> findByCohortMonthBetweenOrderByCohortMonthAscActivityMonthAsc(LocalDate fromMonth,
+            LocalDate toMonth);
+
+    // Single-statement upsert, as for the daily sales rollups
+    @Modifying
+    @Query(value = "INSERT INTO cohort_activity (cohort_month, activity_month, active_customers, order_count, " +
+            "revenue) VALUES (:cohortMonth, :activityMonth, :customers, 1, :amount) " +
+            "ON DUPLICATE KEY UPDATE active_customers = active_customers + VALUES(active_customers), " +
+            "order_count = order_count + 1, revenue = revenue + VALUES(revenue)",
+            nativeQuery = true)
+    int recordOrder(@Param("cohortMonth") LocalDate cohortMonth, @Param("activityMonth") LocalDate activityMonth,
+            @Param("customers") long newlyActiveCustomers, @Param("amount") BigDecimal amount);
+
+    // Requires customer_order_stats to be rebuilt first
+    @Modifying
+    @Query(value = "INSERT INTO cohort_activity (cohort_month, activity_month, active_customers, order_count, " +
+            "revenue) SELECT s.cohort_month, DATE_FORMAT(o.created_at, '%Y-%m-01'), COUNT(DISTINCT o.user_id), " +
+            "COUNT(*), SUM(o.total_amount) FROM orders o JOIN customer_order_stats s ON s.user_id = o.user_id " +
+            "GROUP BY s.cohort_month, DATE_FORMAT(o.created_at, '%Y-%m-01') " +
+            "ON DUPLICATE KEY UPDATE active_customers = VALUES(active_customers), " +
+            "order_count = VALUES(order_count), revenue = VALUES(revenue)",
+            nativeQuery = true)
+    int rebuildFromOrders();
+}
@@ -0,0 +1,47 @@
+package com.flora.repository;
+
+import com.flora.model.CustomerOrderStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerOrderStatsRepository extends JpaRepository<CustomerOrderStats, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CustomerOrderStats s WHERE s.userId = :userId")
+    Optional<CustomerOrderStats> findForUpdate(@Param("userId") Long userId);
+
+    // Returns 0 when the customer already has a row
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO customer_order_stats (user_id, cohort_month, first_order_at, last_order_at, " +
+            "order_count, total_spent) VALUES (:userId, :cohortMonth, :orderedAt, :orderedAt, 1, :amount)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("cohortMonth") LocalDate cohortMonth,
+            @Param("orderedAt") LocalDateTime orderedAt, @Param("amount") BigDecimal amount);
+
+    // [cohortMonth, customers, repeatCustomers, totalSpent] per cohort in the range
+    @Query("SELECT s.cohortMonth, COUNT(s), SUM(CASE WHEN s.orderCount > 1 THEN 1 ELSE 0 END), SUM(s.totalSpent) " +
+            "FROM CustomerOrderStats s WHERE s.cohortMonth BETWEEN :fromMonth AND :toMonth GROUP BY s.cohortMonth")
+    List<Object[]> summarizeCohortsBetween(@Param("fromMonth") LocalDate fromMonth, @Param("toMonth") LocalDate toMonth);
+
+    @Modifying
+    @Query(value = "INSERT INTO customer_order_stats (user_id, cohort_month, first_order_at, last_order_at, " +
+            "order_count, total_spent) SELECT o.user_id, DATE_FORMAT(MIN(o.created_at), '%Y-%m-01'), " +
+            "MIN(o.created_at), MAX(o.created_at), COUNT(*), SUM(o.total_amount) FROM orders o GROUP BY o.user_id " +
+            "ON DUPLICATE KEY UPDATE cohort_month = VALUES(cohort_month), first_order_at = VALUES(first_order_at), " +
+            "last_order_at = VALUES(last_order_at), order_count = VALUES(order_count), " +
+            "total_spent = VALUES(total_spent)",
+            nativeQuery = true)
+    int rebuildFromOrders();
+}
@@ -0,0 +1,37 @@
+package com.flora.repository;
+
+import com.flora.model.DailyDistinctSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyDistinctSketchRepository extends JpaRepository<DailyDistinctSketch, Long> {
+
+    List<DailyDistinctSketch> findBySketchDateBetweenOrderBySketchDate(LocalDate startDate, LocalDate endDate);
+
+    // Scalar read, so the entity never enters the persistence context unlocked
+    @Query("SELECT s.registers FROM DailyDistinctSketch s WHERE s.sketchDate = :sketchDate AND s.metric = :metric")
+    Optional<byte[]> findRegisters(@Param("sketchDate") LocalDate sketchDate,
+            @Param("metric") DailyDistinctSketch.Metric metric);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DailyDistinctSketch s WHERE s.sketchDate = :sketchDate AND s.metric = :metric")
+    Optional<DailyDistinctSketch> findForUpdate(@Param("sketchDate") LocalDate sketchDate,
+            @Param("metric") DailyDistinctSketch.Metric metric);
+
+    // Returns 0 when a concurrent transaction created the row first
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO daily_distinct_sketches (sketch_date, metric, registers) " +
+            "VALUES (:sketchDate, :metric, :registers)", nativeQuery = true)
+    int insertIfAbsent(@Param("sketchDate") LocalDate sketchDate, @Param("metric") String metric,
+            @Param("registers") byte[] registers);
+}
@@ -0,0 +1,49 @@
+package com.flora.repository;
+
+import com.flora.model.DailyProductSales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, Long> {
+
+    List<DailyProductSales> findBySalesDate(LocalDate salesDate);
+
+    // [productId, categoryId, units, revenue] per product over the range, optionally within one category
+    @Query("SELECT s.productId, MAX(s.categoryId), SUM(s.units), SUM(s.revenue) FROM DailyProductSales s " +
+            "WHERE s.salesDate BETWEEN :startDate AND :endDate " +
+            "AND (:categoryId IS NULL OR s.categoryId = :categoryId) GROUP BY s.productId")
+    List<Object[]> sumByProductBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+            @Param("categoryId") Long categoryId);
+
+    // [categoryId, units, revenue] per category over the range; categoryId is null for uncategorized products
+    @Query("SELECT s.categoryId, SUM(s.units), SUM(s.revenue) FROM DailyProductSales s " +
+            "WHERE s.salesDate BETWEEN :startDate AND :endDate GROUP BY s.categoryId")
+    List<Object[]> sumByCategoryBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Single-statement upsert, as for the daily sales rollups
+    @Modifying
+    @Query(value = "INSERT INTO daily_product_sales (sales_date, product_id, category_id, units, revenue) " +
+            "VALUES (:salesDate, :productId, :categoryId, :units, :revenue) " +
+            "ON DUPLICATE KEY UPDATE units = units + VALUES(units), revenue = revenue + VALUES(revenue)",
+            nativeQuery = true)
+    int applyDelta(@Param("salesDate") LocalDate salesDate, @Param("productId") Long productId,
+            @Param("categoryId") Long categoryId, @Param("units") long units, @Param("revenue") BigDecimal revenue);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_product_sales (sales_date, product_id, category_id, units, revenue) " +
+            "SELECT DATE(o.created_at), i.product_id, MAX(p.category_id), SUM(i.quantity), SUM(i.subtotal) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id LEFT JOIN products p ON p.id = i.product_id " +
+            "WHERE o.status <> 'CANCELLED' GROUP BY DATE(o.created_at), i.product_id " +
+            "ON DUPLICATE KEY UPDATE category_id = VALUES(category_id), units = VALUES(units), " +
+            "revenue = VALUES(revenue)",
+            nativeQuery = true)
+    int rebuildFromOrders();
+}
@@ -0,0 +1,44 @@
+package com.flora.repository;
+
+import com.flora.model.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long> {
+
+    String PAYMENT_METHOD_KEY = "LEFT(TRIM(COALESCE(o.payment_method, '')), 50)";
+
+    List<DailySalesRollup> findBySalesDateBetweenOrderBySalesDate(LocalDate startDate, LocalDate endDate);
+
+    // Single-statement upsert: concurrent checkouts on the same day never lose an increment
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales_rollup (sales_date, status, payment_method, order_count, gross_amount, " +
+            "item_count) VALUES (:salesDate, :status, :paymentMethod, :orders, :gross, :items) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+            "gross_amount = gross_amount + VALUES(gross_amount), item_count = item_count + VALUES(item_count)",
+            nativeQuery = true)
+    int applyDelta(@Param("salesDate") LocalDate salesDate, @Param("status") String status,
+            @Param("paymentMethod") String paymentMethod, @Param("orders") long orders,
+            @Param("gross") BigDecimal gross, @Param("items") long items);
+
+    // Payment methods are trimmed and cut to the column length, as SalesRollupProjector does. Existing rows
+    // take the recomputed totals, so running it again gives the same table.
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales_rollup (sales_date, status, payment_method, order_count, gross_amount, " +
+            "item_count) SELECT DATE(o.created_at), o.status, " + PAYMENT_METHOD_KEY + ", COUNT(*), " +
+            "SUM(o.total_amount), COALESCE(SUM(i.units), 0) FROM orders o " +
+            "LEFT JOIN (SELECT order_id, SUM(quantity) AS units FROM order_items GROUP BY order_id) i " +
+            "ON i.order_id = o.id GROUP BY DATE(o.created_at), o.status, " + PAYMENT_METHOD_KEY + " " +
+            "ON DUPLICATE KEY UPDATE order_count = VALUES(order_count), gross_amount = VALUES(gross_amount), " +
+            "item_count = VALUES(item_count)",
+            nativeQuery = true)
+    int rebuildFromOrders();
+}
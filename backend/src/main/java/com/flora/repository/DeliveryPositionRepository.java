@@ -0,0 +1,65 @@
+package com.flora.repository;
+
+import com.flora.dto.DriverPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk appends to, and reads from, the delivery_positions history. Inserts are
+ * sent as multi-row INSERT statements so a whole buffer drain costs a few round
+ * trips rather than one per fix.
+ */
+@Repository
+public class DeliveryPositionRepository {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+    private static final int COLUMNS = 5;
+    private static final String INSERT_PREFIX = "INSERT INTO delivery_positions " +
+            "(delivery_id, recorded_at, latitude_e7, longitude_e7, accuracy_meters) VALUES ";
+    private static final String FULL_INSERT = insertSql(ROWS_PER_STATEMENT);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeliveryPositionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Rows are flattened column values in insert order, {@code COLUMNS} per fix:
+     * delivery id, recorded-at Timestamp, latitude E7, longitude E7, accuracy or null.
+     */
+    public void insertBatch(Object[] values, int rows) {
+        for (int from = 0; from < rows; from += ROWS_PER_STATEMENT) {
+            int count = Math.min(ROWS_PER_STATEMENT, rows - from);
+            Object[] args = new Object[count * COLUMNS];
+            System.arraycopy(values, from * COLUMNS, args, 0, args.length);
+            jdbcTemplate.update(count == ROWS_PER_STATEMENT ? FULL_INSERT : insertSql(count), args);
+        }
+    }
+
+    // Most recent first
+    public List<DriverPosition> findRecent(Long deliveryId, int limit) {
+        return jdbcTemplate.query("SELECT delivery_id, recorded_at, latitude_e7, longitude_e7, accuracy_meters " +
+                "FROM delivery_positions WHERE delivery_id = ? ORDER BY recorded_at DESC, id DESC LIMIT ?",
+                (rs, rowNum) -> {
+                    int accuracy = rs.getInt("accuracy_meters");
+                    Integer accuracyMeters = rs.wasNull() ? null : accuracy;
+                    Timestamp recordedAt = rs.getTimestamp("recorded_at");
+                    return new DriverPosition(rs.getLong("delivery_id"), rs.getInt("latitude_e7") / 1e7,
+                            rs.getInt("longitude_e7") / 1e7, accuracyMeters, recordedAt.toLocalDateTime());
+                }, deliveryId, limit);
+    }
+
+    private static String insertSql(int rows) {
+        List<String> tuples = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            tuples.add("(?, ?, ?, ?, ?)");
+        }
+        return INSERT_PREFIX + String.join(", ", tuples);
+    }
+}
@@ -1,13 +1,18 @@
 package com.flora.repository;
 
+import com.flora.dto.DeliveryReportRow;
 import com.flora.model.Delivery;
 import com.flora.model.Delivery.DeliveryStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,10 +23,15 @@ public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
 
     List<Delivery> findByOrderId(Long orderId);
 
+    List<Delivery> findByOrderIdIn(Collection<Long> orderIds);
+
     List<Delivery> findByEventId(Long eventId);
 
     List<Delivery> findByStatus(DeliveryStatus status);
 
+    List<Delivery> findByStatusInAndScheduledDateGreaterThanEqual(Collection<DeliveryStatus> statuses,
+            LocalDate date);
+
     List<Delivery> findByScheduledDate(LocalDate date);
 
     List<Delivery> findByScheduledDateBetween(LocalDate startDate, LocalDate endDate);
@@ -29,16 +39,90 @@ public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
     @Query("SELECT d FROM Delivery d WHERE d.order.user.id = :userId ORDER BY d.scheduledDate DESC")
     List<Delivery> findByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT d FROM Delivery d WHERE d.scheduledDate = :date AND d.status IN :statuses ORDER BY d.scheduledTimeSlot")
+    // In slot order; deliveries without a recognizable slot come first
+    @Query("SELECT d FROM Delivery d WHERE d.scheduledDate = :date AND d.status IN :statuses " +
+            "ORDER BY d.slotStart, d.id")
     List<Delivery> findScheduledDeliveries(@Param("date") LocalDate date,
             @Param("statuses") List<DeliveryStatus> statuses);
 
+    // Deliveries of the day whose slot overlaps [from, to) in minutes after midnight; a range scan on idx_deliveries_slot
+    @Query("SELECT d FROM Delivery d WHERE d.scheduledDate = :date AND d.slotStart < :to AND d.slotEnd > :from " +
+            "ORDER BY d.slotStart, d.id")
+    List<Delivery> findOverlappingWindow(@Param("date") LocalDate date, @Param("from") int from,
+            @Param("to") int to);
+
+    @Query("SELECT DISTINCT d.scheduledTimeSlot FROM Delivery d " +
+            "WHERE d.slotStart IS NULL AND d.scheduledTimeSlot IS NOT NULL")
+    List<String> findUnparsedTimeSlots();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Delivery d SET d.slotStart = :slotStart, d.slotEnd = :slotEnd " +
+            "WHERE d.scheduledTimeSlot = :timeSlot AND d.slotStart IS NULL")
+    int setSlotMinutes(@Param("timeSlot") String timeSlot, @Param("slotStart") Integer slotStart,
+            @Param("slotEnd") Integer slotEnd);
+
     @Query("SELECT COUNT(d) FROM Delivery d WHERE d.scheduledDate = :date AND d.status = :status")
     Long countByDateAndStatus(@Param("date") LocalDate date, @Param("status") DeliveryStatus status);
 
+    @Query("SELECT d.id FROM Delivery d WHERE d.id IN :ids AND d.status NOT IN :finished")
+    List<Long> findOpenIdsIn(@Param("ids") Collection<Long> ids,
+            @Param("finished") Collection<DeliveryStatus> finished);
+
     @Query("SELECT d FROM Delivery d WHERE d.order.orderNumber = :orderNumber")
     Optional<Delivery> findByOrderNumber(@Param("orderNumber") String orderNumber);
 
     @Query("SELECT d FROM Delivery d WHERE DATE(d.createdAt) = :date")
     List<Delivery> findByCreatedAtDate(@Param("date") LocalDate date);
+
+    // [scheduledDate, scheduledTimeSlot, deliveryZipCode] of an order's delivery, whose slot was reserved at checkout
+    @Query("SELECT d.scheduledDate, d.scheduledTimeSlot, d.deliveryZipCode FROM Delivery d " +
+            "WHERE d.id = :id AND d.order IS NOT NULL")
+    List<Object[]> findSlotById(@Param("id") Long id);
+
+    @Query("SELECT d.id, d.trackingNumber, d.status, o.id, o.orderNumber, o.user.id, d.driverName " +
+            "FROM Delivery d JOIN d.order o WHERE o.id IN :orderIds AND d.status NOT IN :finalStatuses")
+    List<Object[]> findStatusRowsForOrders(@Param("orderIds") Collection<Long> orderIds,
+            @Param("finalStatuses") Collection<DeliveryStatus> finalStatuses);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Delivery d SET d.status = :status, d.updatedAt = :now " +
+            "WHERE d.order.id IN :orderIds AND d.status NOT IN :finalStatuses")
+    int updateStatusForOrders(@Param("orderIds") Collection<Long> orderIds, @Param("status") DeliveryStatus status,
+            @Param("finalStatuses") Collection<DeliveryStatus> finalStatuses, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Delivery d SET d.status = :status, d.actualDeliveryTime = :now, d.updatedAt = :now " +
+            "WHERE d.order.id IN :orderIds AND d.status NOT IN :finalStatuses")
+    int markDeliveredForOrders(@Param("orderIds") Collection<Long> orderIds, @Param("status") DeliveryStatus status,
+            @Param("finalStatuses") Collection<DeliveryStatus> finalStatuses, @Param("now") LocalDateTime now);
+
+    // [status, count] aggregates for the delivery reports; both predicates hit an index
+
+    @Query("SELECT d.status, COUNT(d) FROM Delivery d WHERE d.scheduledDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY d.status")
+    List<Object[]> countByStatusScheduledBetween(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT d.status, COUNT(d) FROM Delivery d WHERE d.createdAt >= :from AND d.createdAt < :to " +
+            "GROUP BY d.status")
+    List<Object[]> countByStatusCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Keyset page of flat report rows, ascending by id
+    @Query("SELECT new com.flora.dto.DeliveryReportRow(d.id, d.trackingNumber, d.status, d.scheduledDate, " +
+            "d.scheduledTimeSlot, d.recipientName, d.deliveryAddress, d.driverName) FROM Delivery d " +
+            "WHERE d.scheduledDate BETWEEN :startDate AND :endDate AND (:afterId IS NULL OR d.id > :afterId) " +
+            "ORDER BY d.id")
+    List<DeliveryReportRow> findReportRowsScheduledBetween(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate, @Param("afterId") Long afterId, Pageable pageable);
+
+    String SLA_FACTS = "SELECT d.id, d.scheduledDate, d.slotEnd, d.actualDeliveryTime, " +
+            "COALESCE(o.createdAt, d.createdAt), d.driverName, d.deliveryZipCode, d.deliveryType " +
+            "FROM Delivery d LEFT JOIN d.order o";
+
+    // [id, scheduledDate, slotEnd, actualDeliveryTime, orderedAt, driverName, zipCode, deliveryType]
+    @Query(SLA_FACTS + " WHERE d.id = :id")
+    List<Object[]> findSlaFactsById(@Param("id") Long id);
+
+    @Query(SLA_FACTS + " WHERE d.status = :status AND d.actualDeliveryTime IS NOT NULL")
+    List<Object[]> findSlaFactsByStatus(@Param("status") DeliveryStatus status);
 }
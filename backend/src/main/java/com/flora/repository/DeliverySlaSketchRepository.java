@@ -0,0 +1,45 @@
+package com.flora.repository;
+
+import com.flora.model.DeliverySlaSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DeliverySlaSketchRepository extends JpaRepository<DeliverySlaSketch, Long> {
+
+    List<DeliverySlaSketch> findByDimensionAndDeliveryDateBetween(DeliverySlaSketch.Dimension dimension,
+            LocalDate startDate, LocalDate endDate);
+
+    // Plain read, so a missing row is not gap-locked and the entity never enters the persistence context unlocked
+    @Query("SELECT s.id FROM DeliverySlaSketch s WHERE s.deliveryDate = :deliveryDate AND s.dimension = :dimension " +
+            "AND s.dimensionValue = :dimensionValue AND s.metric = :metric")
+    Optional<Long> findId(@Param("deliveryDate") LocalDate deliveryDate,
+            @Param("dimension") DeliverySlaSketch.Dimension dimension,
+            @Param("dimensionValue") String dimensionValue,
+            @Param("metric") DeliverySlaSketch.Metric metric);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DeliverySlaSketch s WHERE s.deliveryDate = :deliveryDate AND s.dimension = :dimension " +
+            "AND s.dimensionValue = :dimensionValue AND s.metric = :metric")
+    Optional<DeliverySlaSketch> findForUpdate(@Param("deliveryDate") LocalDate deliveryDate,
+            @Param("dimension") DeliverySlaSketch.Dimension dimension,
+            @Param("dimensionValue") String dimensionValue,
+            @Param("metric") DeliverySlaSketch.Metric metric);
+
+    // Returns 0 when a concurrent transaction created the row first
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO delivery_sla_sketches (delivery_date, dimension, dimension_value, metric, " +
+            "sketch) VALUES (:deliveryDate, :dimension, :dimensionValue, :metric, :sketch)", nativeQuery = true)
+    int insertIfAbsent(@Param("deliveryDate") LocalDate deliveryDate, @Param("dimension") String dimension,
+            @Param("dimensionValue") String dimensionValue, @Param("metric") String metric,
+            @Param("sketch") byte[] sketch);
+}
@@ -0,0 +1,53 @@
+package com.flora.repository;
+
+import com.flora.model.DeliverySlotCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DeliverySlotCapacityRepository extends JpaRepository<DeliverySlotCapacity, Long> {
+
+    List<DeliverySlotCapacity> findByZoneAndSlotDateBetween(String zone, LocalDate startDate, LocalDate endDate);
+
+    List<DeliverySlotCapacity> findBySlotDateBetweenOrderBySlotDateAscZoneAsc(LocalDate startDate, LocalDate endDate);
+
+    Optional<DeliverySlotCapacity> findBySlotDateAndZoneAndTimeSlot(LocalDate slotDate, String zone, String timeSlot);
+
+    boolean existsBySlotDateAndZoneAndTimeSlot(LocalDate slotDate, String zone, String timeSlot);
+
+    // Returns 0 when the row already exists
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO delivery_slot_capacities (slot_date, zone, time_slot, capacity, reserved) " +
+            "VALUES (:slotDate, :zone, :timeSlot, :capacity, 0)", nativeQuery = true)
+    int insertIfAbsent(@Param("slotDate") LocalDate slotDate, @Param("zone") String zone,
+            @Param("timeSlot") String timeSlot, @Param("capacity") int capacity);
+
+    // Check and increment in one statement, so concurrent checkouts can never overbook the slot
+    @Modifying
+    @Query(value = "UPDATE delivery_slot_capacities SET reserved = reserved + 1 " +
+            "WHERE slot_date = :slotDate AND zone = :zone AND time_slot = :timeSlot AND reserved < capacity",
+            nativeQuery = true)
+    int tryReserve(@Param("slotDate") LocalDate slotDate, @Param("zone") String zone,
+            @Param("timeSlot") String timeSlot);
+
+    // Floored at 0 for deliveries booked before reservations were counted
+    @Modifying
+    @Query(value = "UPDATE delivery_slot_capacities SET reserved = GREATEST(reserved - 1, 0) " +
+            "WHERE slot_date = :slotDate AND zone = :zone AND time_slot = :timeSlot", nativeQuery = true)
+    int release(@Param("slotDate") LocalDate slotDate, @Param("zone") String zone,
+            @Param("timeSlot") String timeSlot);
+
+    @Modifying
+    @Query(value = "INSERT INTO delivery_slot_capacities (slot_date, zone, time_slot, capacity, reserved) " +
+            "VALUES (:slotDate, :zone, :timeSlot, :capacity, 0) ON DUPLICATE KEY UPDATE capacity = VALUES(capacity)",
+            nativeQuery = true)
+    int upsertCapacity(@Param("slotDate") LocalDate slotDate, @Param("zone") String zone,
+            @Param("timeSlot") String timeSlot, @Param("capacity") int capacity);
+}
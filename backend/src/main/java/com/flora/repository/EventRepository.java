@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,8 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findByUserIdOrderByEventDateDesc(Long userId);
     
     List<Event> findByStatus(EventStatus status);
+
+    List<Event> findByStatusInAndEventDateGreaterThanEqual(Collection<EventStatus> statuses, LocalDate date);
     
     List<Event> findByEventType(EventType eventType);
     
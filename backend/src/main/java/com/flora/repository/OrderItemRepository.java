@@ -2,8 +2,17 @@ package com.flora.repository;
 
 import com.flora.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    // [productId, categoryId, quantity, subtotal] of each line of the order
+    @Query("SELECT p.id, c.id, i.quantity, i.subtotal FROM OrderItem i JOIN i.product p LEFT JOIN p.category c " +
+            "WHERE i.order.id = :orderId")
+    List<Object[]> findSalesLinesByOrderId(@Param("orderId") Long orderId);
 }
@@ -1,9 +1,15 @@
 package com.flora.repository;
 
 import com.flora.model.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +22,39 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByStatus(Order.OrderStatus status);
 
     Long countByUserId(Long userId);
+
+    @EntityGraph(Order.WITH_ITEMS_GRAPH)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id DESC")
+    List<Order> findWithItemsByIdIn(@Param("ids") List<Long> ids);
+
+    // [id, status name], locking the rows in id order so the statuses stay current until commit
+    @Query(value = "SELECT id, status FROM orders WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o.id, o.orderNumber, o.user.id FROM Order o WHERE o.id IN :ids")
+    List<Object[]> findNumbersAndUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+    // [day, status, count, gross] straight from the orders table, used to verify the incremental rollups
+    @Query("SELECT CAST(o.createdAt AS LocalDate), o.status, COUNT(o), COALESCE(SUM(o.totalAmount), 0) " +
+            "FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "GROUP BY CAST(o.createdAt AS LocalDate), o.status")
+    List<Object[]> summarizeByDayAndStatusBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // [day, hour, orders, sales] for each hour with at least one order; the range predicate uses idx_orders_created
+    @Query("SELECT CAST(o.createdAt AS LocalDate), HOUR(o.createdAt), COUNT(o), COALESCE(SUM(o.totalAmount), 0) " +
+            "FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "GROUP BY CAST(o.createdAt AS LocalDate), HOUR(o.createdAt)")
+    List<Object[]> summarizeByHourBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // [createdAt, paymentMethod, totalAmount, units, status] - the attributes a status change moves between rollup rows
+    @Query("SELECT o.createdAt, o.paymentMethod, o.totalAmount, " +
+            "(SELECT COALESCE(SUM(i.quantity), 0) FROM OrderItem i WHERE i.order = o), o.status " +
+            "FROM Order o WHERE o.id = :id")
+    List<Object[]> findRollupFactsById(@Param("id") Long id);
+
+    // Guarded by the expected current status so a concurrent change is never overwritten
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.updatedAt = :now WHERE o.id IN :ids AND o.status = :expected")
+    int transitionStatus(@Param("ids") Collection<Long> ids, @Param("expected") Order.OrderStatus expected,
+            @Param("target") Order.OrderStatus target, @Param("now") LocalDateTime now);
 }
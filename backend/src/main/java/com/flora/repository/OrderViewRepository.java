@@ -0,0 +1,39 @@
+package com.flora.repository;
+
+import com.flora.dto.OrderSummaryResponse;
+import com.flora.model.OrderView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+
+    Optional<OrderView> findByOrderNumber(String orderNumber);
+
+    Optional<OrderView> findByTrackingNumber(String trackingNumber);
+
+    // Keyset pages: rows strictly older than the cursor id, newest first
+    @Query("SELECT v FROM OrderView v WHERE (:beforeId IS NULL OR v.id < :beforeId) ORDER BY v.id DESC")
+    List<OrderView> findPage(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT v FROM OrderView v WHERE v.userId = :userId AND (:beforeId IS NULL OR v.id < :beforeId) " +
+            "ORDER BY v.id DESC")
+    List<OrderView> findPageByUserId(@Param("userId") Long userId, @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
+    @Query("SELECT new com.flora.dto.OrderSummaryResponse(v.id, v.orderNumber, v.userId, v.customerEmail, " +
+            "v.totalAmount, v.status, v.paymentStatus, v.paymentMethod, v.createdAt) FROM OrderView v " +
+            "WHERE v.userId = :userId AND (:beforeId IS NULL OR v.id < :beforeId) ORDER BY v.id DESC")
+    List<OrderSummaryResponse> findSummaryPageByUserId(@Param("userId") Long userId, @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE NOT EXISTS (SELECT v.id FROM OrderView v WHERE v.id = o.id) " +
+            "ORDER BY o.id")
+    List<Long> findOrderIdsWithoutView(Pageable pageable);
+}
@@ -1,11 +1,17 @@
 package com.flora.repository;
 
+import com.flora.dto.InventoryRow;
+import com.flora.dto.LowStockItem;
 import com.flora.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -16,4 +22,33 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     @Query("SELECT p FROM Product p WHERE p.active = true AND p.stockQuantity > 0")
     List<Product> findAvailableProducts();
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Integer findStockQuantityById(@Param("id") Long id);
+
+    // [total, outOfStock, lowStock, units, stockValue]; a product is low (out of stock included) below its threshold
+    @Query("SELECT COUNT(p), " +
+            "COALESCE(SUM(CASE WHEN p.stockQuantity = 0 THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN p.stockQuantity < COALESCE(p.reorderThreshold, " +
+            ":defaultThreshold) THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(p.stockQuantity), 0), COALESCE(SUM(p.stockQuantity * p.price), 0) FROM Product p")
+    List<Object[]> summarizeInventory(@Param("defaultThreshold") int defaultThreshold);
+
+    // Keyset page of flat rows, no image or description columns
+    @Query("SELECT new com.flora.dto.InventoryRow(p.id, p.name, p.sku, p.stockQuantity, p.reorderThreshold, p.price) " +
+            "FROM Product p WHERE (:afterId IS NULL OR p.id > :afterId) ORDER BY p.id")
+    List<InventoryRow> findInventoryRows(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.flora.dto.LowStockItem(p.id, p.name, p.sku, p.stockQuantity, " +
+            "COALESCE(p.reorderThreshold, :defaultThreshold)) FROM Product p " +
+            "WHERE p.stockQuantity < COALESCE(p.reorderThreshold, :defaultThreshold)")
+    List<LowStockItem> findLowStockItems(@Param("defaultThreshold") int defaultThreshold);
+
+    @Query("SELECT new com.flora.dto.LowStockItem(p.id, p.name, p.sku, p.stockQuantity, " +
+            "COALESCE(p.reorderThreshold, :defaultThreshold)) FROM Product p WHERE p.id = :id")
+    Optional<LowStockItem> findStockLevelById(@Param("id") Long id, @Param("defaultThreshold") int defaultThreshold);
+
+    // [id, name] only, for labelling report rows
+    @Query("SELECT p.id, p.name FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
 }
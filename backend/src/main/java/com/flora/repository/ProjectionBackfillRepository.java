@@ -0,0 +1,24 @@
+package com.flora.repository;
+
+import com.flora.model.ProjectionBackfill;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProjectionBackfillRepository extends JpaRepository<ProjectionBackfill, String> {
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO projection_backfills (name) VALUES (:name)", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM ProjectionBackfill b WHERE b.name = :name")
+    Optional<ProjectionBackfill> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,106 @@
+package com.flora.repository;
+
+import com.flora.dto.OrderLineFact;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only row streams behind the report exports. Every row is handed to the
+ * consumer as soon as the driver reads it, so an export never holds more than one
+ * row in memory regardless of the range requested.
+ */
+@Repository
+public class ReportQueryRepository {
+
+    public static final String[] INVENTORY_COLUMNS = {
+            "id", "name", "sku", "category", "stockQuantity", "reorderThreshold", "price", "active", "stockStatus"
+    };
+
+    public static final String[] DELIVERY_COLUMNS = {
+            "trackingNumber", "orderNumber", "status", "deliveryType", "scheduledDate", "timeSlot",
+            "recipientName", "address", "city", "zipCode", "driverName", "actualDeliveryTime"
+    };
+
+    // The single parameter is the default reorder threshold for products without their own
+    private static final String INVENTORY_SQL = "SELECT p.id, p.name, p.sku, c.name, p.stock_quantity, " +
+            "p.reorder_threshold, p.price, p.active, CASE WHEN p.stock_quantity = 0 THEN 'OUT_OF_STOCK' " +
+            "WHEN p.stock_quantity < COALESCE(p.reorder_threshold, ?) THEN 'LOW_STOCK' ELSE 'IN_STOCK' END " +
+            "FROM products p LEFT JOIN categories c ON c.id = p.category_id ORDER BY p.id";
+
+    private static final String DELIVERY_SQL = "SELECT d.tracking_number, o.order_number, d.status, " +
+            "d.delivery_type, d.scheduled_date, d.scheduled_time_slot, d.recipient_name, d.delivery_address, " +
+            "d.delivery_city, d.delivery_zip_code, d.driver_name, d.actual_delivery_time " +
+            "FROM deliveries d LEFT JOIN orders o ON o.id = d.order_id " +
+            "WHERE d.scheduled_date BETWEEN ? AND ? ORDER BY d.scheduled_date, d.id";
+
+    private static final String ORDER_LINES_SQL = "SELECT o.id, o.created_at, o.status, o.payment_method, " +
+            "o.user_id, i.product_id, p.category_id, i.quantity, i.subtotal FROM orders o " +
+            "JOIN order_items i ON i.order_id = o.id LEFT JOIN products p ON p.id = i.product_id " +
+            "ORDER BY o.id, i.id";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public ReportQueryRepository(DataSource dataSource) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        // Connector/J only streams row by row (instead of buffering the whole result) with this fetch size
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    // Values are in INVENTORY_COLUMNS order
+    public void streamInventory(int defaultReorderThreshold, Consumer<Object[]> consumer) {
+        streamingJdbcTemplate.query(INVENTORY_SQL, toRows(consumer), defaultReorderThreshold);
+    }
+
+    // Values are in DELIVERY_COLUMNS order
+    public void streamDeliveries(LocalDate startDate, LocalDate endDate, Consumer<Object[]> consumer) {
+        streamingJdbcTemplate.query(DELIVERY_SQL, toRows(consumer), Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    // Lines of one order arrive consecutively
+    public void streamOrderLines(Consumer<OrderLineFact> consumer) {
+        streamingJdbcTemplate.query(ORDER_LINES_SQL, (RowCallbackHandler) rs -> {
+            Timestamp createdAt = rs.getTimestamp(2);
+            long categoryId = rs.getLong(7);
+            boolean uncategorized = rs.wasNull();
+            consumer.accept(new OrderLineFact(
+                    rs.getLong(1),
+                    createdAt != null ? createdAt.toLocalDateTime() : null,
+                    rs.getString(3),
+                    rs.getString(4),
+                    rs.getLong(5),
+                    rs.getLong(6),
+                    uncategorized ? null : categoryId,
+                    rs.getInt(8),
+                    rs.getBigDecimal(9)));
+        });
+    }
+
+    private static RowCallbackHandler toRows(Consumer<Object[]> consumer) {
+        return rs -> consumer.accept(readRow(rs));
+    }
+
+    private static Object[] readRow(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        Object[] values = new Object[meta.getColumnCount()];
+        for (int i = 0; i < values.length; i++) {
+            Object value = rs.getObject(i + 1);
+            if (value instanceof Timestamp timestamp) {
+                value = timestamp.toLocalDateTime();
+            } else if (value instanceof Date date) {
+                value = date.toLocalDate();
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+}
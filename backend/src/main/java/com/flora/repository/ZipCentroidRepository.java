@@ -0,0 +1,14 @@
+package com.flora.repository;
+
+import com.flora.model.ZipCentroid;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ZipCentroidRepository extends JpaRepository<ZipCentroid, String> {
+
+    List<ZipCentroid> findByZipCodeIn(Collection<String> zipCodes);
+}
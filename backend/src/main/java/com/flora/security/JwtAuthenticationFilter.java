@@ -16,17 +16,24 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    // Authenticated SSE endpoints, which take a stream ticket instead of a header
+    private static final Set<String> STREAM_PATHS = Set.of("/api/orders/stream", "/api/admin/orders/stream");
     
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
     
     @Autowired
     private UserDetailsService userDetailsService;
+
+    @Autowired
+    private StreamTicketService streamTicketService;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -41,6 +48,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader("Authorization");
         String token = null;
         String username = null;
+        boolean ticketRedeemed = false;
         
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
@@ -50,6 +58,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             } catch (Exception e) {
                 logger.warn("Failed to extract username from token: {}", e.getMessage());
             }
+        } else if (isEventStreamRequest(request) && request.getParameter("ticket") != null) {
+            // EventSource cannot send headers; a single-use ticket keeps the JWT itself out of URLs and logs
+            username = streamTicketService.redeem(request.getParameter("ticket"));
+            ticketRedeemed = username != null;
+            if (!ticketRedeemed) {
+                logger.warn("Rejected an unknown, used or expired stream ticket");
+            }
         } else {
             logger.debug("No Authorization header found or invalid format for: {}", request.getRequestURI());
         }
@@ -58,7 +73,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             try {
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 
-                if (jwtTokenProvider.validateToken(token, userDetails)) {
+                if (ticketRedeemed || jwtTokenProvider.validateToken(token, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -74,4 +89,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+
+    private boolean isEventStreamRequest(HttpServletRequest request) {
+        return "GET".equalsIgnoreCase(request.getMethod())
+                && STREAM_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
 }
@@ -0,0 +1,67 @@
+package com.flora.security;
+
+import com.flora.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Short-lived, single-use tickets for opening status streams. EventSource cannot
+ * send an Authorization header, so the browser trades its JWT for a ticket and
+ * puts that in the stream URL instead; whatever logs the URL only ever sees a
+ * ticket that has already been spent or is about to expire.
+ */
+@Component
+public class StreamTicketService {
+
+    private static final int TICKET_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentMap<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private final int maxTickets;
+
+    public StreamTicketService(@Value("${flora.stream.ticket-ttl-ms:30000}") long ttlMs,
+            @Value("${flora.stream.max-tickets:10000}") int maxTickets) {
+        this.ttlMs = ttlMs;
+        this.maxTickets = maxTickets;
+    }
+
+    public String issue(String username) {
+        long now = System.currentTimeMillis();
+        tickets.values().removeIf(ticket -> ticket.expiresAt <= now);
+        if (tickets.size() >= maxTickets) {
+            throw new TooManyRequestsException("Too many pending stream tickets, please retry later");
+        }
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, new Ticket(username, now + ttlMs));
+        return ticket;
+    }
+
+    // Username the ticket was issued to, or null; a ticket is gone after its first redemption either way
+    public String redeem(String ticket) {
+        Ticket redeemed = tickets.remove(ticket);
+        return redeemed != null && redeemed.expiresAt > System.currentTimeMillis() ? redeemed.username : null;
+    }
+
+    public long getTtlSeconds() {
+        return ttlMs / 1000;
+    }
+
+    private static final class Ticket {
+
+        private final String username;
+        private final long expiresAt;
+
+        private Ticket(String username, long expiresAt) {
+            this.username = username;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
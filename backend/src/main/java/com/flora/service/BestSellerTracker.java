@@ -0,0 +1,139 @@
+package com.flora.service;
+
+import com.flora.dto.HeavyHitter;
+import com.flora.event.OrderCreatedEvent;
+import com.flora.model.DailyProductSales;
+import com.flora.model.Order;
+import com.flora.model.OrderItem;
+import com.flora.repository.DailyProductSalesRepository;
+import com.flora.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Real-time best sellers for the current day, kept in two fixed-size Space-Saving
+ * sketches (units and revenue in cents) so the "today" view never queries the
+ * database. Counts orders as placed; cancellations are reflected in the
+ * date-range reports but not here.
+ */
+@Service
+public class BestSellerTracker {
+
+    private final DailyProductSalesRepository productSalesRepository;
+    private final ProductRepository productRepository;
+    private final int capacity;
+
+    // Guarded by this
+    private final SpaceSaving units;
+    private final SpaceSaving revenueCents;
+    private LocalDate day = LocalDate.now();
+
+    public BestSellerTracker(DailyProductSalesRepository productSalesRepository, ProductRepository productRepository,
+            @Value("${flora.top-sellers.today-capacity:200}") int capacity) {
+        this.productSalesRepository = productSalesRepository;
+        this.productRepository = productRepository;
+        this.capacity = capacity;
+        this.units = new SpaceSaving(capacity);
+        this.revenueCents = new SpaceSaving(capacity);
+    }
+
+    /**
+     * Loads today's exact counters; the product sales backfill has already run
+     * during context startup. An order committing while this runs may be counted
+     * twice, which the sketch's error bound doesn't cover but which can only
+     * happen during startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void seed() {
+        rollOver(LocalDate.now());
+        for (DailyProductSales row : productSalesRepository.findBySalesDate(day)) {
+            units.offer(row.getProductId(), row.getUnits());
+            revenueCents.offer(row.getProductId(), toCents(row.getRevenue()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        LocalDate orderDay = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+        if (orderDay.isAfter(day)) {
+            rollOver(orderDay);
+        } else if (orderDay.isBefore(day)) {
+            // Created before midnight, committed after
+            return;
+        }
+        for (OrderItem item : order.getOrderItems()) {
+            units.offer(item.getProduct().getId(), item.getQuantity());
+            revenueCents.offer(item.getProduct().getId(), toCents(item.getSubtotal()));
+        }
+    }
+
+    public Map<String, Object> getToday(int limit) {
+        int n = Math.max(1, Math.min(limit, capacity));
+        List<SpaceSaving.Counter> topUnits;
+        List<SpaceSaving.Counter> topRevenue;
+        long totalUnits;
+        long totalRevenueCents;
+        LocalDate date;
+        synchronized (this) {
+            if (LocalDate.now().isAfter(day)) {
+                rollOver(LocalDate.now());
+            }
+            topUnits = units.top(n);
+            topRevenue = revenueCents.top(n);
+            totalUnits = units.getTotal();
+            totalRevenueCents = revenueCents.getTotal();
+            date = day;
+        }
+
+        Set<Long> ids = new HashSet<>();
+        topUnits.forEach(counter -> ids.add(counter.getKey()));
+        topRevenue.forEach(counter -> ids.add(counter.getKey()));
+        Map<Long, String> names = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Object[] row : productRepository.findNamesByIdIn(ids)) {
+                names.put((Long) row[0], (String) row[1]);
+            }
+        }
+
+        Map<String, Object> today = new HashMap<>();
+        today.put("date", date);
+        today.put("byUnits", toHeavyHitters(topUnits, names, 0));
+        today.put("byRevenue", toHeavyHitters(topRevenue, names, 2));
+        today.put("totalUnits", totalUnits);
+        today.put("totalRevenue", BigDecimal.valueOf(totalRevenueCents, 2));
+        return today;
+    }
+
+    private void rollOver(LocalDate newDay) {
+        units.clear();
+        revenueCents.clear();
+        day = newDay;
+    }
+
+    private static List<HeavyHitter> toHeavyHitters(List<SpaceSaving.Counter> counters, Map<Long, String> names,
+            int scale) {
+        List<HeavyHitter> result = new ArrayList<>(counters.size());
+        for (SpaceSaving.Counter counter : counters) {
+            result.add(new HeavyHitter(counter.getKey(), names.get(counter.getKey()),
+                    BigDecimal.valueOf(counter.getCount(), scale), BigDecimal.valueOf(counter.getError(), scale)));
+        }
+        return result;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).longValue() : 0;
+    }
+}
@@ -0,0 +1,296 @@
+package com.flora.service;
+
+import com.flora.dto.CheckoutMetricsResponse;
+import com.flora.dto.OrderRequest;
+import com.flora.exception.CheckoutRejectedException;
+import com.flora.model.Order;
+import com.flora.repository.CartItemRepository;
+import com.flora.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control in front of {@link OrderService#createOrder}. A checkout first
+ * reserves its cart quantities against a per-product gate (a virtual waiting room
+ * holding the stock not yet claimed by in-flight checkouts), so once a product is
+ * sold out further attempts are rejected without touching the order tables. Admitted
+ * checkouts run on a dedicated bounded pool; when its queue is full, or a checkout
+ * waited longer than {@code flora.checkout.max-wait-ms}, the caller gets a 503 with
+ * Retry-After instead of holding a request thread and a database connection.
+ */
+@Service
+public class CheckoutAdmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutAdmissionService.class);
+
+    private final OrderService orderService;
+    private final CartItemRepository cartItemRepository;
+    private final ProductRepository productRepository;
+    private final int queueCapacity;
+    private final int maxWaitingPerProduct;
+    private final long maxWaitNanos;
+    private final int retryAfterSeconds;
+
+    private final ThreadPoolExecutor executor;
+
+    // One gate per catalog product; bounded by the catalog size, so gates are never evicted
+    private final ConcurrentMap<Long, ProductGate> gates = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejectedSoldOut = new AtomicLong();
+    private final AtomicLong rejectedBusy = new AtomicLong();
+    private final AtomicLong rejectedTimedOut = new AtomicLong();
+    private final AtomicLong waitSamples = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanosSeen = new AtomicLong();
+
+    public CheckoutAdmissionService(OrderService orderService,
+            CartItemRepository cartItemRepository,
+            ProductRepository productRepository,
+            @Value("${flora.checkout.workers:8}") int workers,
+            @Value("${flora.checkout.queue-capacity:200}") int queueCapacity,
+            @Value("${flora.checkout.max-waiting-per-product:50}") int maxWaitingPerProduct,
+            @Value("${flora.checkout.max-wait-ms:5000}") long maxWaitMs,
+            @Value("${flora.checkout.retry-after-seconds:2}") int retryAfterSeconds) {
+        this.orderService = orderService;
+        this.cartItemRepository = cartItemRepository;
+        this.productRepository = productRepository;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitingPerProduct = maxWaitingPerProduct;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "checkout-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Reserves the user's cart against the product gates and queues the checkout.
+     * Throws {@link CheckoutRejectedException} straight away when the order cannot be
+     * admitted; otherwise the returned future completes with the created order.
+     */
+    public CompletableFuture<Order> submit(String username, OrderRequest request) {
+        List<Reservation> reservations = reserve(username);
+
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        inFlight.incrementAndGet();
+        try {
+            executor.execute(() -> runCheckout(username, request, reservations, enqueuedAt, result));
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            release(reservations, false);
+            rejectedBusy.incrementAndGet();
+            throw busy("Checkout queue is full, please retry shortly");
+        }
+        admitted.incrementAndGet();
+        return result;
+    }
+
+    public CheckoutMetricsResponse getMetrics() {
+        long samples = waitSamples.get();
+        double averageWaitMs = samples == 0 ? 0 : totalWaitNanos.get() / (double) samples / 1_000_000d;
+        return new CheckoutMetricsResponse(
+                executor.getQueue().size(),
+                queueCapacity,
+                executor.getActiveCount(),
+                inFlight.get(),
+                admitted.get(),
+                completed.get(),
+                failed.get(),
+                rejectedSoldOut.get(),
+                rejectedBusy.get(),
+                rejectedTimedOut.get(),
+                samples,
+                averageWaitMs,
+                maxWaitNanosSeen.get() / 1_000_000d);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runCheckout(String username, OrderRequest request, List<Reservation> reservations,
+            long enqueuedAt, CompletableFuture<Order> result) {
+        boolean committed = false;
+        try {
+            long waited = System.nanoTime() - enqueuedAt;
+            recordWait(waited);
+            if (waited > maxWaitNanos) {
+                rejectedTimedOut.incrementAndGet();
+                result.completeExceptionally(busy("Checkout is taking longer than usual, please retry shortly"));
+                return;
+            }
+
+            Order order = orderService.createOrder(username, request);
+            committed = true;
+            completed.incrementAndGet();
+            result.complete(order);
+        } catch (Throwable e) {
+            failed.incrementAndGet();
+            result.completeExceptionally(e);
+        } finally {
+            // After commit the gate already matches the new stock level; otherwise hand the units back
+            release(reservations, committed);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private List<Reservation> reserve(String username) {
+        // Sorted by product id so concurrent checkouts enter shared gates in the same order
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (Object[] row : cartItemRepository.sumQuantitiesByProductForUser(username)) {
+            quantities.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        List<Reservation> reservations = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            ProductGate gate = gates.computeIfAbsent(entry.getKey(), ProductGate::new);
+            Admission admission = gate.tryEnter(entry.getValue());
+            if (admission != Admission.ADMITTED) {
+                release(reservations, false);
+                if (admission == Admission.SOLD_OUT) {
+                    rejectedSoldOut.incrementAndGet();
+                    throw new CheckoutRejectedException("Insufficient stock for one or more items in your cart",
+                            HttpStatus.CONFLICT, 0);
+                }
+                rejectedBusy.incrementAndGet();
+                throw busy("Too many checkouts in progress for an item in your cart, please retry shortly");
+            }
+            reservations.add(new Reservation(gate, entry.getValue()));
+        }
+        return reservations;
+    }
+
+    private void release(List<Reservation> reservations, boolean committed) {
+        for (Reservation reservation : reservations) {
+            reservation.gate.leave(reservation.quantity, committed);
+        }
+    }
+
+    private void recordWait(long waitedNanos) {
+        waitSamples.incrementAndGet();
+        totalWaitNanos.addAndGet(waitedNanos);
+        maxWaitNanosSeen.accumulateAndGet(waitedNanos, Math::max);
+    }
+
+    private CheckoutRejectedException busy(String message) {
+        return new CheckoutRejectedException(message, HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds);
+    }
+
+    private enum Admission {
+        ADMITTED, SOLD_OUT, BUSY
+    }
+
+    private static final class Reservation {
+
+        private final ProductGate gate;
+        private final int quantity;
+
+        private Reservation(ProductGate gate, int quantity) {
+            this.gate = gate;
+            this.quantity = quantity;
+        }
+    }
+
+    private final class ProductGate {
+
+        private final Long productId;
+        // Units not yet claimed by in-flight checkouts; only trusted while inFlight > 0
+        private long reservable;
+        private int inFlight;
+        // Bumped by every enter and leave, to tell whether a stock read raced with either
+        private long version;
+
+        private ProductGate(Long productId) {
+            this.productId = productId;
+        }
+
+        // The database is read outside the monitor, so checkouts of a hot product never queue behind it
+        Admission tryEnter(int quantity) {
+            while (true) {
+                long readAt;
+                synchronized (this) {
+                    if (inFlight > 0) {
+                        return enter(quantity);
+                    }
+                    readAt = version;
+                }
+                // Nothing pending, so the stored stock is authoritative (admin restocks, other nodes)
+                Integer stock = productRepository.findStockQuantityById(productId);
+                synchronized (this) {
+                    if (inFlight > 0) {
+                        return enter(quantity);
+                    }
+                    if (version == readAt) {
+                        reservable = stock != null ? stock : 0;
+                        return enter(quantity);
+                    }
+                    // A checkout came and went during the read; its commit may be missing from it
+                }
+            }
+        }
+
+        synchronized void leave(int quantity, boolean committed) {
+            if (!committed) {
+                reservable += quantity;
+            }
+            version++;
+            if (--inFlight < 0) {
+                logger.warn("Checkout gate for product {} released more often than entered", productId);
+                inFlight = 0;
+            }
+        }
+
+        // Caller holds the monitor
+        private Admission enter(int quantity) {
+            if (reservable < quantity) {
+                return Admission.SOLD_OUT;
+            }
+            if (inFlight >= maxWaitingPerProduct) {
+                return Admission.BUSY;
+            }
+            reservable -= quantity;
+            inFlight++;
+            version++;
+            return Admission.ADMITTED;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.flora.service;
+
+import com.flora.event.OrderCreatedEvent;
+import com.flora.model.CustomerOrderStats;
+import com.flora.model.Order;
+import com.flora.repository.CohortActivityRepository;
+import com.flora.repository.CustomerOrderStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Maintains customer_order_stats and cohort_activity from order creation, before
+ * commit inside the creating transaction. The customer's last order date is what
+ * tells whether an order makes them newly active in its month, so each order
+ * touches exactly one stats row and one matrix cell. Orders count as placed;
+ * later cancellations don't remove them.
+ */
+@Service
+@RequiredArgsConstructor
+public class CohortProjector implements SmartInitializingSingleton {
+
+    private final CustomerOrderStatsRepository statsRepository;
+    private final CohortActivityRepository cohortActivityRepository;
+    private final ProjectionBackfillService backfillService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        if (order.getUser() == null) {
+            return;
+        }
+        Long userId = order.getUser().getId();
+        LocalDateTime orderedAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+        LocalDate activityMonth = monthOf(orderedAt);
+        BigDecimal amount = order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+
+        if (statsRepository.insertIfAbsent(userId, activityMonth, orderedAt, amount) > 0) {
+            // First order: opens the customer's cohort
+            cohortActivityRepository.recordOrder(activityMonth, activityMonth, 1, amount);
+            return;
+        }
+
+        CustomerOrderStats stats = statsRepository.findForUpdate(userId)
+                .orElseThrow(() -> new RuntimeException("Customer order stats missing for user " + userId));
+        boolean newlyActive = monthOf(stats.getLastOrderAt()).isBefore(activityMonth);
+        cohortActivityRepository.recordOrder(stats.getCohortMonth(), activityMonth, newlyActive ? 1 : 0, amount);
+
+        if (orderedAt.isAfter(stats.getLastOrderAt())) {
+            stats.setLastOrderAt(orderedAt);
+        }
+        stats.setOrderCount(stats.getOrderCount() + 1);
+        stats.setTotalSpent(stats.getTotalSpent().add(amount));
+        statsRepository.save(stats);
+    }
+
+    // Builds both tables from the order history once, as for the sales rollups; the matrix reads the stats
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfillService.runOnce("customer_cohorts", () -> {
+            statsRepository.deleteAllInBatch();
+            cohortActivityRepository.deleteAllInBatch();
+            return statsRepository.rebuildFromOrders() + cohortActivityRepository.rebuildFromOrders();
+        });
+    }
+
+    private static LocalDate monthOf(LocalDateTime time) {
+        return time.toLocalDate().withDayOfMonth(1);
+    }
+}
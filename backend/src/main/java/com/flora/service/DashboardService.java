@@ -0,0 +1,280 @@
+package com.flora.service;
+
+import com.flora.model.Delivery;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Assembles the admin dashboard. The independent sections (sales, inventory,
+ * deliveries, events) run concurrently on a small bounded pool, and the assembled
+ * summary is cached per period for a few seconds: however many admins have the
+ * dashboard open, each period is computed at most once per TTL, and concurrent
+ * requests for an expired entry wait on the single refresh in flight.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final String DEFAULT_KEY = "default";
+    private static final Set<String> PERIODS = Set.of("daily", "weekly", "monthly", "yearly");
+
+    private final ReportService reportService;
+    private final long ttlNanos;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+
+    private final ConcurrentMap<String, CachedSummary> cache = new ConcurrentHashMap<>();
+
+    public DashboardService(ReportService reportService,
+            @Value("${flora.dashboard.threads:4}") int threads,
+            @Value("${flora.dashboard.queue-capacity:64}") int queueCapacity,
+            @Value("${flora.dashboard.cache-ttl-ms:15000}") long ttlMs,
+            @Value("${flora.dashboard.timeout-ms:10000}") long timeoutMs) {
+        this.reportService = reportService;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger counter = new AtomicInteger();
+        // A saturated pool runs the section on the requesting thread instead of queueing without bound
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public Map<String, Object> getDashboardSummary() {
+        return cached(DEFAULT_KEY, this::buildDefaultSummary);
+    }
+
+    public Map<String, Object> getDashboardSummaryByPeriod(String period) {
+        String key = period.toLowerCase();
+        if (!PERIODS.contains(key)) {
+            // Unknown periods fall back to monthly in ReportService; not cached so they cannot grow the map
+            return buildPeriodSummary(period);
+        }
+        return cached(key, () -> buildPeriodSummary(period));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Map<String, Object> buildDefaultSummary() {
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+        Timings timings = new Timings();
+
+        CompletableFuture<Map<String, Object>> sales = section("sales", timings,
+                () -> reportService.getSalesSummary(monthStart, today));
+        CompletableFuture<Map<String, Object>> inventory = section("inventory", timings,
+                reportService::getInventorySummary);
+        // Created today, not scheduled for today
+        CompletableFuture<Map<Delivery.DeliveryStatus, Long>> deliveries = section("deliveries", timings,
+                () -> reportService.countDeliveriesCreatedOn(today));
+        CompletableFuture<Long> events = section("events", timings, () -> reportService.countUpcomingEvents(today));
+        CompletableFuture<Map<String, Object>> distinct = section("distinct", timings,
+                () -> reportService.getDistinctSummary(monthStart, today));
+        await(timings, sales, inventory, deliveries, events, distinct);
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("monthlySales", sales.join().get("totalSales"));
+        summary.put("monthlyOrders", sales.join().get("totalOrders"));
+        summary.putAll(inventory.join());
+        summary.put("todayDeliveries", total(deliveries.join()));
+        summary.put("pendingDeliveries", pendingOrScheduled(deliveries.join()));
+        summary.put("upcomingEvents", events.join());
+        summary.putAll(distinct.join());
+        return finish(summary, timings, DEFAULT_KEY);
+    }
+
+    private Map<String, Object> buildPeriodSummary(String period) {
+        Map<String, LocalDate> range = reportService.calculateDateRange(period);
+        LocalDate startDate = range.get("startDate");
+        LocalDate endDate = range.get("endDate");
+        Timings timings = new Timings();
+
+        CompletableFuture<Map<String, Object>> sales = section("sales", timings,
+                () -> reportService.getSalesSummary(startDate, endDate));
+        // Inventory doesn't change with period
+        CompletableFuture<Map<String, Object>> inventory = section("inventory", timings,
+                reportService::getInventorySummary);
+        CompletableFuture<Map<Delivery.DeliveryStatus, Long>> deliveries = section("deliveries", timings,
+                () -> reportService.countDeliveriesScheduledBetween(startDate, endDate));
+        CompletableFuture<Long> events = section("events", timings,
+                () -> reportService.countUpcomingEvents(LocalDate.now()));
+        CompletableFuture<Map<String, Object>> distinct = section("distinct", timings,
+                () -> reportService.getDistinctSummary(startDate, endDate));
+        await(timings, sales, inventory, deliveries, events, distinct);
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("period", period);
+        summary.put("periodSales", sales.join().get("totalSales"));
+        summary.put("periodOrders", sales.join().get("totalOrders"));
+        summary.putAll(inventory.join());
+        summary.put("periodDeliveries", total(deliveries.join()));
+        summary.put("pendingDeliveries", pendingOrScheduled(deliveries.join()));
+        summary.put("upcomingEvents", events.join());
+        summary.putAll(distinct.join());
+        return finish(summary, timings, period);
+    }
+
+    private Map<String, Object> cached(String key, Supplier<Map<String, Object>> loader) {
+        while (true) {
+            CachedSummary current = cache.get(key);
+            if (current != null && !current.isExpired()) {
+                return current.await(timeoutMs);
+            }
+
+            CachedSummary fresh = new CachedSummary();
+            boolean owner = current == null ? cache.putIfAbsent(key, fresh) == null : cache.replace(key, current, fresh);
+            if (!owner) {
+                // Another request started the refresh first; wait for it instead of computing again
+                continue;
+            }
+
+            try {
+                // Shared by every waiter, so nobody gets a map they could change under the others
+                Map<String, Object> summary = Collections.unmodifiableMap(loader.get());
+                fresh.complete(summary, System.nanoTime() + ttlNanos);
+                return summary;
+            } catch (Throwable e) {
+                // Errors too: a loading entry left behind never expires, so every later request would wait on it
+                cache.remove(key, fresh);
+                fresh.fail(e);
+                throw e;
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> section(String name, Timings timings, Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return supplier.get();
+            } finally {
+                timings.record(name, System.nanoTime() - start);
+            }
+        }, executor);
+    }
+
+    private void await(Timings timings, CompletableFuture<?>... sections) {
+        try {
+            CompletableFuture.allOf(sections).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            for (CompletableFuture<?> section : sections) {
+                section.cancel(true);
+            }
+            throw new RuntimeException("Dashboard timed out after " + timeoutMs + " ms (finished: " + timings + ")");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Dashboard interrupted");
+        }
+    }
+
+    private Map<String, Object> finish(Map<String, Object> summary, Timings timings, String key) {
+        Map<String, Long> sectionMs = timings.toMillis();
+        summary.put("timings", sectionMs);
+        summary.put("generatedAt", LocalDateTime.now());
+        logger.debug("Dashboard '{}' built in {} ms, sections {}", key, timings.elapsedMillis(), sectionMs);
+        return summary;
+    }
+
+    private static long total(Map<Delivery.DeliveryStatus, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static long pendingOrScheduled(Map<Delivery.DeliveryStatus, Long> counts) {
+        return counts.getOrDefault(Delivery.DeliveryStatus.PENDING, 0L)
+                + counts.getOrDefault(Delivery.DeliveryStatus.SCHEDULED, 0L);
+    }
+
+    private static final class Timings {
+
+        private final long startedAt = System.nanoTime();
+        private final ConcurrentMap<String, Long> sections = new ConcurrentHashMap<>();
+
+        void record(String section, long nanos) {
+            sections.put(section, nanos);
+        }
+
+        long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        }
+
+        Map<String, Long> toMillis() {
+            Map<String, Long> millis = new LinkedHashMap<>();
+            sections.forEach((section, nanos) -> millis.put(section, TimeUnit.NANOSECONDS.toMillis(nanos)));
+            millis.put("total", elapsedMillis());
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return sections.keySet().toString();
+        }
+    }
+
+    private static final class CachedSummary {
+
+        private final CompletableFuture<Map<String, Object>> value = new CompletableFuture<>();
+        // Loading entries never expire; they are replaced only once their value is in
+        private volatile long expiresAtNanos = Long.MAX_VALUE;
+
+        boolean isExpired() {
+            return value.isDone() && System.nanoTime() - expiresAtNanos > 0;
+        }
+
+        void complete(Map<String, Object> summary, long expiresAt) {
+            expiresAtNanos = expiresAt;
+            value.complete(summary);
+        }
+
+        void fail(Throwable e) {
+            value.completeExceptionally(e);
+        }
+
+        Map<String, Object> await(long timeoutMs) {
+            try {
+                return value.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new RuntimeException("Dashboard refresh is taking too long, please retry");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Dashboard interrupted");
+            }
+        }
+    }
+}
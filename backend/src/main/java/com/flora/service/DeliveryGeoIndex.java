@@ -0,0 +1,378 @@
+package com.flora.service;
+
+import com.flora.dto.DeliveryResponse;
+import com.flora.dto.NearbyStop;
+import com.flora.event.DeliveryStatusChangedEvent;
+import com.flora.event.EventVenueChangedEvent;
+import com.flora.model.Delivery;
+import com.flora.model.Event;
+import com.flora.model.ZipCentroid;
+import com.flora.repository.DeliveryRepository;
+import com.flora.repository.EventRepository;
+import com.flora.repository.ZipCentroidRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Open deliveries and upcoming event venues keyed by date and geohash, for "what
+ * is near this point" and "what is in this zone" on a given day. Each day keeps
+ * its stops sorted by full-precision geohash, so a query covers its box with a
+ * handful of coarser cells and reads each cell as one contiguous range, without
+ * touching the database. Stops are placed by their own coordinates, or else by
+ * their zip code centroid. Seeded at startup and maintained from delivery and
+ * event venue changes once they have committed. Days before today are dropped
+ * once a day, on the first query after midnight.
+ */
+@Service
+public class DeliveryGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryGeoIndex.class);
+
+    private static final Set<Delivery.DeliveryStatus> OPEN_DELIVERY_STATUSES = EnumSet.of(
+            Delivery.DeliveryStatus.PENDING, Delivery.DeliveryStatus.SCHEDULED,
+            Delivery.DeliveryStatus.OUT_FOR_DELIVERY);
+    private static final Set<Event.EventStatus> OPEN_EVENT_STATUSES = EnumSet.of(
+            Event.EventStatus.PENDING, Event.EventStatus.APPROVED, Event.EventStatus.CONFIRMED,
+            Event.EventStatus.IN_PROGRESS);
+
+    // Coarse cells per axis a query may cover before dropping to a coarser level
+    private static final int MAX_CELLS_PER_AXIS = 4;
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final Comparator<Entry> BY_HASH = Comparator.comparingLong((Entry entry) -> entry.hash)
+            .thenComparing(entry -> entry.key);
+
+    private final DeliveryRepository deliveryRepository;
+    private final EventRepository eventRepository;
+    private final ZipCentroidRepository zipCentroidRepository;
+
+    private final ConcurrentMap<LocalDate, NavigableSet<Entry>> byDate = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Entry> byKey = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, double[]> zipCentroids = new ConcurrentHashMap<>();
+    private final AtomicReference<LocalDate> prunedBefore = new AtomicReference<>(LocalDate.MIN);
+
+    public DeliveryGeoIndex(DeliveryRepository deliveryRepository, EventRepository eventRepository,
+            ZipCentroidRepository zipCentroidRepository) {
+        this.deliveryRepository = deliveryRepository;
+        this.eventRepository = eventRepository;
+        this.zipCentroidRepository = zipCentroidRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        for (ZipCentroid centroid : zipCentroidRepository.findAll()) {
+            zipCentroids.put(centroid.getZipCode(), new double[] {centroid.getLatitude().doubleValue(),
+                    centroid.getLongitude().doubleValue()});
+        }
+        LocalDate today = LocalDate.now();
+        for (Delivery delivery : deliveryRepository.findByStatusInAndScheduledDateGreaterThanEqual(
+                OPEN_DELIVERY_STATUSES, today)) {
+            put(deliveryKey(delivery.getId()), toEntry(delivery.getId(), delivery.getTrackingNumber(),
+                    delivery.getRecipientName(), delivery.getDeliveryAddress(), delivery.getDeliveryZipCode(),
+                    delivery.getScheduledDate(), delivery.getStatus().name(), delivery.getGpsLatitude(),
+                    delivery.getGpsLongitude()));
+        }
+        for (Event event : eventRepository.findByStatusInAndEventDateGreaterThanEqual(OPEN_EVENT_STATUSES, today)) {
+            put(eventKey(event.getId()), toEventEntry(event.getId(), event.getEventNumber(), event.getVenueName(),
+                    event.getVenueAddress(), event.getVenueZipCode(), event.getEventDate(), event.getStatus(),
+                    event.getVenueLatitude(), event.getVenueLongitude()));
+        }
+        logger.info("Geo index seeded with {} deliveries and event venues over {} days", byKey.size(),
+                byDate.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeliveryStatusChanged(DeliveryStatusChangedEvent event) {
+        String key = deliveryKey(event.getDeliveryId());
+        if (!OPEN_DELIVERY_STATUSES.contains(event.getStatus())) {
+            put(key, null);
+            return;
+        }
+        DeliveryResponse snapshot = event.getSnapshot();
+        if (snapshot != null) {
+            put(key, toEntry(snapshot.getId(), snapshot.getTrackingNumber(), snapshot.getRecipientName(),
+                    snapshot.getDeliveryAddress(), snapshot.getDeliveryZipCode(), snapshot.getScheduledDate(),
+                    event.getStatus().name(), snapshot.getGpsLatitude(), snapshot.getGpsLongitude()));
+        } else {
+            // Bulk updates carry no snapshot; only the status moved
+            update(key, previous -> previous != null ? previous.withStatus(event.getStatus().name()) : null);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventVenueChanged(EventVenueChangedEvent event) {
+        String key = eventKey(event.getEventId());
+        if (event.getStatus() == null || !OPEN_EVENT_STATUSES.contains(event.getStatus())) {
+            put(key, null);
+            return;
+        }
+        put(key, toEventEntry(event.getEventId(), event.getEventNumber(), event.getVenueName(),
+                event.getVenueAddress(), event.getVenueZipCode(), event.getEventDate(), event.getStatus(),
+                event.getVenueLatitude(), event.getVenueLongitude()));
+    }
+
+    /**
+     * Stops within {@code radiusKm} of the point, nearest first. A null date
+     * searches every indexed day.
+     */
+    public List<NearbyStop> findWithinRadius(double latitude, double longitude, double radiusKm, LocalDate date,
+            int limit) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double longitudeDelta = radiusKm / (KM_PER_DEGREE_LATITUDE
+                * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+        List<NearbyStop> matches = new ArrayList<>();
+        scan(date, latitude - latitudeDelta, longitude - longitudeDelta, latitude + latitudeDelta,
+                longitude + longitudeDelta, entry -> {
+                    double distance = haversineKm(latitude, longitude, entry.latitude, entry.longitude);
+                    if (distance <= radiusKm) {
+                        matches.add(entry.toStop(Math.round(distance * 1000) / 1000.0));
+                    }
+                });
+        matches.sort(Comparator.comparing(NearbyStop::getDistanceKm));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    // Stops inside the box, in geohash order. A null date searches every indexed day.
+    public List<NearbyStop> findWithinBox(double south, double west, double north, double east, LocalDate date,
+            int limit) {
+        List<NearbyStop> matches = new ArrayList<>();
+        scan(date, south, west, north, east, entry -> {
+            if (matches.size() < limit) {
+                matches.add(entry.toStop(null));
+            }
+        });
+        return matches;
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    private void scan(LocalDate date, double south, double west, double north, double east,
+            Consumer<Entry> consumer) {
+        pruneExpired();
+        south = Math.max(-90, south);
+        north = Math.min(90, north);
+        west = Math.max(-180, west);
+        east = Math.min(180, east);
+
+        // Coarsest useful level: the finest one at which the box spans only a few cells per axis
+        int bits = GeoHash.MAX_BITS;
+        while (bits > 0 && (GeoHash.latitudeCell(north, bits) - GeoHash.latitudeCell(south, bits) >= MAX_CELLS_PER_AXIS
+                || GeoHash.longitudeCell(east, bits) - GeoHash.longitudeCell(west, bits) >= MAX_CELLS_PER_AXIS)) {
+            bits--;
+        }
+
+        Collection<NavigableSet<Entry>> days = date != null
+                ? (byDate.containsKey(date) ? List.of(byDate.get(date)) : List.of())
+                : byDate.values();
+        for (NavigableSet<Entry> day : days) {
+            for (int latitudeCell = GeoHash.latitudeCell(south, bits);
+                    latitudeCell <= GeoHash.latitudeCell(north, bits); latitudeCell++) {
+                for (int longitudeCell = GeoHash.longitudeCell(west, bits);
+                        longitudeCell <= GeoHash.longitudeCell(east, bits); longitudeCell++) {
+                    long cell = GeoHash.interleave(latitudeCell, longitudeCell, bits);
+                    for (Entry entry : day.subSet(Entry.bound(GeoHash.rangeStart(cell, bits)), true,
+                            Entry.bound(GeoHash.rangeEnd(cell, bits)), false)) {
+                        if (entry.latitude >= south && entry.latitude <= north
+                                && entry.longitude >= west && entry.longitude <= east) {
+                            consumer.accept(entry);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Past stops are never finished through an event if the delivery is simply left open, so they age out here
+    private void pruneExpired() {
+        LocalDate today = LocalDate.now();
+        LocalDate pruned = prunedBefore.get();
+        if (!pruned.isBefore(today) || !prunedBefore.compareAndSet(pruned, today)) {
+            return;
+        }
+        for (LocalDate date : byDate.keySet()) {
+            NavigableSet<Entry> day = date.isBefore(today) ? byDate.get(date) : null;
+            if (day == null) {
+                continue;
+            }
+            for (Entry entry : day) {
+                // Through update, so an entry a concurrent change just moved to a later day is kept
+                update(entry.key, previous -> previous != null && previous.date.isBefore(today) ? null : previous);
+            }
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        update(key, previous -> entry);
+    }
+
+    // Per-key compute keeps byKey and the per-day sets in step under concurrent updates
+    private void update(String key, UnaryOperator<Entry> change) {
+        byKey.compute(key, (k, previous) -> {
+            Entry entry = change.apply(previous);
+            if (previous != null) {
+                byDate.computeIfPresent(previous.date, (date, day) -> {
+                    day.remove(previous);
+                    return day.isEmpty() ? null : day;
+                });
+            }
+            if (entry != null) {
+                byDate.compute(entry.date, (date, day) -> {
+                    NavigableSet<Entry> set = day != null ? day : new ConcurrentSkipListSet<>(BY_HASH);
+                    set.add(entry);
+                    return set;
+                });
+            }
+            return entry;
+        });
+    }
+
+    private Entry toEntry(Long id, String reference, String name, String address, String zipCode, LocalDate date,
+            String status, BigDecimal latitude, BigDecimal longitude) {
+        return locate(deliveryKey(id), "DELIVERY", id, reference, name, address, zipCode, date, status, latitude,
+                longitude);
+    }
+
+    private Entry toEventEntry(Long id, String reference, String name, String address, String zipCode,
+            LocalDate date, Event.EventStatus status, BigDecimal latitude, BigDecimal longitude) {
+        return locate(eventKey(id), "EVENT", id, reference, name, address, zipCode, date, status.name(), latitude,
+                longitude);
+    }
+
+    // Null (not indexed) without a date or any way to place the stop
+    private Entry locate(String key, String type, Long id, String reference, String name, String address,
+            String zipCode, LocalDate date, String status, BigDecimal latitude, BigDecimal longitude) {
+        if (date == null) {
+            return null;
+        }
+        if (latitude != null && longitude != null) {
+            return new Entry(key, type, id, reference, name, address, zipCode, date, status,
+                    latitude.doubleValue(), longitude.doubleValue(), "GPS");
+        }
+        double[] centroid = zipCentroid(zipCode);
+        return centroid != null ? new Entry(key, type, id, reference, name, address, zipCode, date, status,
+                centroid[0], centroid[1], "ZIP") : null;
+    }
+
+    private double[] zipCentroid(String zipCode) {
+        if (zipCode == null || zipCode.isBlank()) {
+            return null;
+        }
+        String zip = zipCode.trim();
+        double[] centroid = zipCentroids.get(zip);
+        if (centroid == null) {
+            // Centroids added after startup; misses are not cached
+            centroid = zipCentroidRepository.findById(zip)
+                    .map(found -> new double[] {found.getLatitude().doubleValue(), found.getLongitude().doubleValue()})
+                    .orElse(null);
+            if (centroid != null) {
+                zipCentroids.put(zip, centroid);
+            }
+        }
+        return centroid;
+    }
+
+    private static String deliveryKey(Long id) {
+        return "D" + id;
+    }
+
+    private static String eventKey(Long id) {
+        return "E" + id;
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2)
+                * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final long hash;
+        private final String type;
+        private final Long id;
+        private final String reference;
+        private final String name;
+        private final String address;
+        private final String zipCode;
+        private final LocalDate date;
+        private final String status;
+        private final double latitude;
+        private final double longitude;
+        private final String source;
+
+        private Entry(String key, String type, Long id, String reference, String name, String address,
+                String zipCode, LocalDate date, String status, double latitude, double longitude, String source) {
+            this.key = key;
+            this.hash = GeoHash.encode(latitude, longitude);
+            this.type = type;
+            this.id = id;
+            this.reference = reference;
+            this.name = name;
+            this.address = address;
+            this.zipCode = zipCode;
+            this.date = date;
+            this.status = status;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.source = source;
+        }
+
+        // Search bound: sorts before every real entry with the same hash
+        private Entry(long hash) {
+            this.key = "";
+            this.hash = hash;
+            this.type = null;
+            this.id = null;
+            this.reference = null;
+            this.name = null;
+            this.address = null;
+            this.zipCode = null;
+            this.date = null;
+            this.status = null;
+            this.latitude = 0;
+            this.longitude = 0;
+            this.source = null;
+        }
+
+        static Entry bound(long hash) {
+            return new Entry(hash);
+        }
+
+        Entry withStatus(String newStatus) {
+            return new Entry(key, type, id, reference, name, address, zipCode, date, newStatus, latitude, longitude,
+                    source);
+        }
+
+        NearbyStop toStop(Double distanceKm) {
+            return new NearbyStop(type, id, reference, name, address, zipCode, date, status, latitude, longitude,
+                    source, distanceKm);
+        }
+    }
+}
@@ -2,20 +2,33 @@ package com.flora.service;
 
 import com.flora.dto.DeliveryRequest;
 import com.flora.dto.DeliveryResponse;
+import com.flora.dto.NearbyStop;
+import com.flora.event.DeliveryStatusChangedEvent;
+import com.flora.exception.ConflictException;
 import com.flora.exception.ResourceNotFoundException;
 import com.flora.model.Delivery;
 import com.flora.model.Event;
 import com.flora.model.Order;
+import com.flora.model.OrderView;
 import com.flora.repository.DeliveryRepository;
 import com.flora.repository.EventRepository;
 import com.flora.repository.OrderRepository;
+import com.flora.repository.OrderViewRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,14 +36,25 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DeliveryService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryService.class);
+
+    private static final int MAX_GEO_RESULTS = 500;
+    private static final double MAX_RADIUS_KM = 100;
+
     private final DeliveryRepository deliveryRepository;
     private final OrderRepository orderRepository;
     private final EventRepository eventRepository;
+    private final IdGeneratorService idGeneratorService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderViewRepository orderViewRepository;
+    private final DeliveryGeoIndex geoIndex;
+    private final TrackingCache trackingCache;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional
     public DeliveryResponse createDelivery(DeliveryRequest request) {
         Delivery delivery = new Delivery();
-        delivery.setTrackingNumber(generateTrackingNumber());
+        delivery.setTrackingNumber(idGeneratorService.nextTrackingNumber());
 
         if (request.getOrderId() != null) {
             Order order = orderRepository.findById(request.getOrderId())
@@ -47,6 +71,8 @@ public class DeliveryService {
         delivery.setDeliveryType(request.getDeliveryType());
         delivery.setScheduledDate(request.getScheduledDate());
         delivery.setScheduledTimeSlot(request.getScheduledTimeSlot());
+        delivery.setSlotStart(TimeSlot.startMinute(request.getScheduledTimeSlot()));
+        delivery.setSlotEnd(TimeSlot.endMinute(request.getScheduledTimeSlot()));
         delivery.setDeliveryAddress(request.getDeliveryAddress());
         delivery.setDeliveryCity(request.getDeliveryCity());
         delivery.setDeliveryState(request.getDeliveryState());
@@ -54,22 +80,49 @@ public class DeliveryService {
         delivery.setRecipientName(request.getRecipientName());
         delivery.setRecipientPhone(request.getRecipientPhone());
         delivery.setDeliveryNotes(request.getDeliveryNotes());
+        delivery.setGpsLatitude(request.getGpsLatitude());
+        delivery.setGpsLongitude(request.getGpsLongitude());
         delivery.setStatus(Delivery.DeliveryStatus.PENDING);
 
         Delivery savedDelivery = deliveryRepository.save(delivery);
-        return convertToResponse(savedDelivery);
+        DeliveryResponse response = convertToResponse(savedDelivery);
+        publishStatusChange(savedDelivery, null, response);
+        return response;
     }
 
     public DeliveryResponse getDeliveryByTracking(String trackingNumber) {
-        Delivery delivery = deliveryRepository.findByTrackingNumber(trackingNumber)
-                .orElseThrow(() -> new ResourceNotFoundException("Delivery not found"));
-        return convertToResponse(delivery);
+        // Order deliveries are served from the order read model; event deliveries fall back to the entity
+        return orderViewRepository.findByTrackingNumber(trackingNumber)
+                .map(OrderView::getDelivery)
+                .orElseGet(() -> convertToResponse(deliveryRepository.findByTrackingNumber(trackingNumber)
+                        .orElseThrow(() -> new ResourceNotFoundException("Delivery not found"))));
     }
 
     public DeliveryResponse getDeliveryByOrderNumber(String orderNumber) {
-        Delivery delivery = deliveryRepository.findByOrderNumber(orderNumber)
-                .orElseThrow(() -> new ResourceNotFoundException("Delivery not found for order: " + orderNumber));
-        return convertToResponse(delivery);
+        return orderViewRepository.findByOrderNumber(orderNumber)
+                .map(OrderView::getDelivery)
+                .orElseGet(() -> convertToResponse(deliveryRepository.findByOrderNumber(orderNumber)
+                        .orElseThrow(() -> new ResourceNotFoundException(
+                                "Delivery not found for order: " + orderNumber))));
+    }
+
+    // Public tracking reads; repeated lookups of the same number are answered from the cache
+    public TrackingCache.Entry getCachedDeliveryByTracking(String trackingNumber) {
+        TrackingCache.Entry entry = trackingCache.get(TrackingCache.trackingKey(trackingNumber),
+                () -> getDeliveryByTracking(trackingNumber));
+        if (!entry.isFound()) {
+            throw new ResourceNotFoundException("Delivery not found");
+        }
+        return entry;
+    }
+
+    public TrackingCache.Entry getCachedDeliveryByOrderNumber(String orderNumber) {
+        TrackingCache.Entry entry = trackingCache.get(TrackingCache.orderNumberKey(orderNumber),
+                () -> getDeliveryByOrderNumber(orderNumber));
+        if (!entry.isFound()) {
+            throw new ResourceNotFoundException("Delivery not found for order: " + orderNumber);
+        }
+        return entry;
     }
 
     public List<DeliveryResponse> getDeliveriesByOrder(Long orderId) {
@@ -99,6 +152,76 @@ public class DeliveryService {
                 .collect(Collectors.toList());
     }
 
+    // Deliveries of the day whose time slot overlaps the window, in slot order
+    public List<DeliveryResponse> getDeliveriesInWindow(LocalDate date, LocalTime from, LocalTime to) {
+        if (!to.isAfter(from)) {
+            throw new RuntimeException("Window end must be after its start");
+        }
+        return deliveryRepository.findOverlappingWindow(date, from.toSecondOfDay() / 60, to.toSecondOfDay() / 60)
+                .stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parses the slot minutes of deliveries stored before they existed, once per
+     * distinct slot text. Slots without a recognizable time stay unparsed and are
+     * simply looked at again on the next start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillSlotMinutes() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer updated = transaction.execute(status -> {
+            int rows = 0;
+            for (String timeSlot : deliveryRepository.findUnparsedTimeSlots()) {
+                Integer slotStart = TimeSlot.startMinute(timeSlot);
+                if (slotStart != null) {
+                    rows += deliveryRepository.setSlotMinutes(timeSlot, slotStart, TimeSlot.endMinute(timeSlot));
+                }
+            }
+            return rows;
+        });
+        if (updated != null && updated > 0) {
+            logger.info("Parsed time slots of {} existing deliveries", updated);
+        }
+    }
+
+    /**
+     * Open deliveries and event venues within {@code radiusKm} of a point, nearest
+     * first, served from the in-memory geo index. Without a date every indexed day
+     * is searched.
+     */
+    public List<NearbyStop> findNearby(double latitude, double longitude, double radiusKm, LocalDate date,
+            int limit) {
+        validateCoordinates(latitude, longitude);
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new RuntimeException("radiusKm must be greater than 0 and at most " + MAX_RADIUS_KM);
+        }
+        return geoIndex.findWithinRadius(latitude, longitude, radiusKm, date, clampGeoLimit(limit));
+    }
+
+    // Open deliveries and event venues inside a south-west / north-east bounding box
+    public List<NearbyStop> findWithinBox(double south, double west, double north, double east, LocalDate date,
+            int limit) {
+        validateCoordinates(south, west);
+        validateCoordinates(north, east);
+        if (south > north || west > east) {
+            throw new RuntimeException("Bounding box must have south <= north and west <= east");
+        }
+        return geoIndex.findWithinBox(south, west, north, east, date, clampGeoLimit(limit));
+    }
+
+    private static void validateCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+            throw new RuntimeException("Invalid coordinates: " + latitude + ", " + longitude);
+        }
+    }
+
+    private static int clampGeoLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_GEO_RESULTS));
+    }
+
     public List<DeliveryResponse> getDeliveriesByStatus(Delivery.DeliveryStatus status) {
         List<Delivery> deliveries = deliveryRepository.findByStatus(status);
         return deliveries.stream()
@@ -111,6 +234,19 @@ public class DeliveryService {
         Delivery delivery = deliveryRepository.findByTrackingNumber(trackingNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Delivery not found"));
 
+        Delivery.DeliveryStatus previousStatus = delivery.getStatus();
+        if (previousStatus == status) {
+            return convertToResponse(delivery);
+        }
+        // A cancelled delivery has given its slot back, so it can't be revived without booking a new one
+        if (previousStatus == Delivery.DeliveryStatus.CANCELLED) {
+            throw new ConflictException("Delivery " + trackingNumber + " was cancelled and cannot be reopened");
+        }
+        // Once delivered only a return can follow, so a delivery is delivered (and sampled for SLAs) once
+        if (delivery.getActualDeliveryTime() != null && status != Delivery.DeliveryStatus.RETURNED) {
+            throw new ConflictException("Delivery " + trackingNumber + " was already delivered and can only be "
+                    + "marked as returned");
+        }
         delivery.setStatus(status);
 
         if (status == Delivery.DeliveryStatus.DELIVERED) {
@@ -118,7 +254,9 @@ public class DeliveryService {
         }
 
         Delivery updatedDelivery = deliveryRepository.save(delivery);
-        return convertToResponse(updatedDelivery);
+        DeliveryResponse response = convertToResponse(updatedDelivery);
+        publishStatusChange(updatedDelivery, previousStatus, response);
+        return response;
     }
 
     @Transactional
@@ -127,23 +265,35 @@ public class DeliveryService {
         Delivery delivery = deliveryRepository.findByTrackingNumber(trackingNumber)
                 .orElseThrow(() -> new RuntimeException("Delivery not found"));
 
+        Delivery.DeliveryStatus previousStatus = delivery.getStatus();
         delivery.setDriverName(driverName);
         delivery.setDriverPhone(driverPhone);
         delivery.setVehicleNumber(vehicleNumber);
         delivery.setStatus(Delivery.DeliveryStatus.SCHEDULED);
 
         Delivery updatedDelivery = deliveryRepository.save(delivery);
-        return convertToResponse(updatedDelivery);
+        DeliveryResponse response = convertToResponse(updatedDelivery);
+        publishStatusChange(updatedDelivery, previousStatus, response);
+        return response;
     }
 
-    private String generateTrackingNumber() {
-        String datePart = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        // Use a random 6-digit number to ensure uniqueness and avoid count() issues
-        int randomPart = (int) (Math.random() * 900000) + 100000;
-        return String.format("TRK-%s-%d", datePart, randomPart);
+    private void publishStatusChange(Delivery delivery, Delivery.DeliveryStatus previousStatus,
+            DeliveryResponse snapshot) {
+        Order order = delivery.getOrder();
+        eventPublisher.publishEvent(new DeliveryStatusChangedEvent(
+                delivery.getId(),
+                delivery.getTrackingNumber(),
+                order != null ? order.getId() : null,
+                order != null ? order.getOrderNumber() : null,
+                order != null ? order.getUser().getId() : null,
+                previousStatus,
+                delivery.getStatus(),
+                delivery.getDriverName(),
+                LocalDateTime.now(),
+                snapshot));
     }
 
-    private DeliveryResponse convertToResponse(Delivery delivery) {
+    public DeliveryResponse convertToResponse(Delivery delivery) {
         DeliveryResponse response = new DeliveryResponse();
         response.setId(delivery.getId());
         response.setTrackingNumber(delivery.getTrackingNumber());
@@ -0,0 +1,214 @@
+package com.flora.service;
+
+import com.flora.event.DeliveryStatusChangedEvent;
+import com.flora.model.Delivery;
+import com.flora.model.DeliverySlaSketch;
+import com.flora.repository.DeliveryRepository;
+import com.flora.repository.DeliverySlaSketchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds delivery lateness and fulfillment time into the per-day quantile sketches
+ * when a delivery reaches DELIVERED, whether through
+ * {@link DeliveryService#updateDeliveryStatus} or a bulk order update. Each
+ * delivery lands in the overall, driver, zip code and delivery type sketches of
+ * its delivery day, before commit inside the same transaction. A delivery can
+ * only be delivered once (afterwards the only move is to RETURNED, and bulk
+ * updates leave delivered ones alone), so it is never sampled twice.
+ */
+@Service
+@RequiredArgsConstructor
+public class DeliverySlaProjector implements SmartInitializingSingleton {
+
+    private static final int MAX_DIMENSION_VALUE_LENGTH = 100;
+
+    private final DeliverySlaSketchRepository sketchRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final ProjectionBackfillService backfillService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDeliveryStatusChanged(DeliveryStatusChangedEvent event) {
+        if (event.getStatus() != Delivery.DeliveryStatus.DELIVERED
+                || event.getPreviousStatus() == Delivery.DeliveryStatus.DELIVERED) {
+            return;
+        }
+        for (Object[] facts : deliveryRepository.findSlaFactsById(event.getDeliveryId())) {
+            Sample sample = Sample.of(facts);
+            if (sample == null) {
+                continue;
+            }
+            for (Map.Entry<SketchKey, QuantileSketch> delta : sample.toSketches().entrySet()) {
+                apply(delta.getKey(), delta.getValue());
+            }
+        }
+    }
+
+    // Builds the sketches from completed deliveries once, as for the sales rollups. Sketches can't tell a
+    // repeated sample apart, so the table is cleared first.
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfillService.runOnce("delivery_sla_sketches", () -> {
+            sketchRepository.deleteAllInBatch();
+            Map<SketchKey, QuantileSketch> sketches = new HashMap<>();
+            for (Object[] facts : deliveryRepository.findSlaFactsByStatus(Delivery.DeliveryStatus.DELIVERED)) {
+                Sample sample = Sample.of(facts);
+                if (sample != null) {
+                    sample.toSketches().forEach((key, delta) ->
+                            sketches.computeIfAbsent(key, k -> new QuantileSketch()).merge(delta));
+                }
+            }
+            sketches.forEach((key, sketch) -> sketchRepository.save(new DeliverySlaSketch(null, key.day,
+                    key.dimension, key.value, key.metric, sketch.toBytes())));
+            return sketches.size();
+        });
+    }
+
+    // Lock an existing row directly; INSERT IGNORE on it would take a shared lock that concurrent deliveries
+    // of the same day then both try to upgrade, deadlocking on the busy overall sketch
+    private void apply(SketchKey key, QuantileSketch delta) {
+        if (sketchRepository.findId(key.day, key.dimension, key.value, key.metric).isEmpty()
+                && sketchRepository.insertIfAbsent(key.day, key.dimension.name(), key.value, key.metric.name(),
+                        delta.toBytes()) > 0) {
+            return;
+        }
+        DeliverySlaSketch row = sketchRepository.findForUpdate(key.day, key.dimension, key.value, key.metric)
+                .orElseThrow(() -> new RuntimeException("Delivery SLA sketch missing for " + key));
+        QuantileSketch sketch = QuantileSketch.fromBytes(row.getSketch());
+        sketch.merge(delta);
+        row.setSketch(sketch.toBytes());
+        sketchRepository.save(row);
+    }
+
+    /**
+     * End of the scheduled slot on the scheduled day, given in minutes after midnight
+     * as stored in {@code Delivery.slotEnd}; the end of that day when the slot has no
+     * end time. Null without a scheduled date.
+     */
+    static LocalDateTime deadline(LocalDate scheduledDate, Integer slotEnd) {
+        if (scheduledDate == null) {
+            return null;
+        }
+        return slotEnd != null ? scheduledDate.atStartOfDay().plusMinutes(slotEnd)
+                : scheduledDate.plusDays(1).atStartOfDay();
+    }
+
+    private static String dimensionValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        String trimmed = value.trim();
+        return trimmed.length() > MAX_DIMENSION_VALUE_LENGTH ? trimmed.substring(0, MAX_DIMENSION_VALUE_LENGTH)
+                : trimmed;
+    }
+
+    private static final class Sample {
+
+        private final LocalDate day;
+        private final Double latenessMinutes;
+        private final Double fulfillmentMinutes;
+        private final String driver;
+        private final String zipCode;
+        private final String deliveryType;
+
+        private Sample(LocalDate day, Double latenessMinutes, Double fulfillmentMinutes, String driver,
+                String zipCode, String deliveryType) {
+            this.day = day;
+            this.latenessMinutes = latenessMinutes;
+            this.fulfillmentMinutes = fulfillmentMinutes;
+            this.driver = driver;
+            this.zipCode = zipCode;
+            this.deliveryType = deliveryType;
+        }
+
+        // From a DeliveryRepository SLA facts row; null when the delivery time is unknown
+        static Sample of(Object[] facts) {
+            LocalDateTime deliveredAt = (LocalDateTime) facts[3];
+            if (deliveredAt == null) {
+                return null;
+            }
+            LocalDateTime deadline = deadline((LocalDate) facts[1], (Integer) facts[2]);
+            LocalDateTime orderedAt = (LocalDateTime) facts[4];
+            Delivery.DeliveryType type = (Delivery.DeliveryType) facts[7];
+            return new Sample(deliveredAt.toLocalDate(),
+                    deadline != null ? minutesBetween(deadline, deliveredAt) : null,
+                    orderedAt != null ? minutesBetween(orderedAt, deliveredAt) : null,
+                    dimensionValue((String) facts[5]),
+                    dimensionValue((String) facts[6]),
+                    type != null ? type.name() : "");
+        }
+
+        Map<SketchKey, QuantileSketch> toSketches() {
+            Map<SketchKey, QuantileSketch> sketches = new HashMap<>();
+            List<SketchKey> groups = new ArrayList<>();
+            for (DeliverySlaSketch.Metric metric : DeliverySlaSketch.Metric.values()) {
+                Double value = metric == DeliverySlaSketch.Metric.LATENESS ? latenessMinutes : fulfillmentMinutes;
+                if (value == null) {
+                    continue;
+                }
+                groups.clear();
+                groups.add(new SketchKey(day, DeliverySlaSketch.Dimension.ALL, "", metric));
+                groups.add(new SketchKey(day, DeliverySlaSketch.Dimension.DRIVER, driver, metric));
+                groups.add(new SketchKey(day, DeliverySlaSketch.Dimension.ZIP_CODE, zipCode, metric));
+                groups.add(new SketchKey(day, DeliverySlaSketch.Dimension.DELIVERY_TYPE, deliveryType, metric));
+                for (SketchKey key : groups) {
+                    QuantileSketch sketch = new QuantileSketch();
+                    sketch.add(value);
+                    sketches.put(key, sketch);
+                }
+            }
+            return sketches;
+        }
+
+        private static double minutesBetween(LocalDateTime from, LocalDateTime to) {
+            return Duration.between(from, to).getSeconds() / 60.0;
+        }
+    }
+
+    private static final class SketchKey {
+
+        private final LocalDate day;
+        private final DeliverySlaSketch.Dimension dimension;
+        private final String value;
+        private final DeliverySlaSketch.Metric metric;
+
+        private SketchKey(LocalDate day, DeliverySlaSketch.Dimension dimension, String value,
+                DeliverySlaSketch.Metric metric) {
+            this.day = day;
+            this.dimension = dimension;
+            this.value = value;
+            this.metric = metric;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SketchKey)) {
+                return false;
+            }
+            SketchKey other = (SketchKey) o;
+            return day.equals(other.day) && dimension == other.dimension && value.equals(other.value)
+                    && metric == other.metric;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((day.hashCode() * 31 + dimension.hashCode()) * 31 + value.hashCode()) * 31 + metric.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return day + " " + dimension + "=" + value + " " + metric;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.flora.service;
+
+import com.flora.event.OrderCreatedEvent;
+import com.flora.model.DailyDistinctSketch;
+import com.flora.model.Order;
+import com.flora.model.OrderItem;
+import com.flora.repository.DailyDistinctSketchRepository;
+import com.flora.repository.ReportQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the per-day distinct customer and product sketches up to date as orders
+ * are created. Updates run before commit in the creating transaction, like the
+ * sales rollups. Registers only ever grow, so an order whose customer and
+ * products are already reflected in the day's sketch (the usual case for repeat
+ * buyers and popular products) is detected without taking the row lock.
+ */
+@Service
+@RequiredArgsConstructor
+public class DistinctCountProjector implements SmartInitializingSingleton {
+
+    private final DailyDistinctSketchRepository sketchRepository;
+    private final ReportQueryRepository reportQueryRepository;
+    private final ProjectionBackfillService backfillService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        LocalDate day = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+
+        HyperLogLog customers = new HyperLogLog();
+        if (order.getUser() != null) {
+            customers.offer(order.getUser().getId());
+        }
+        HyperLogLog products = new HyperLogLog();
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getProduct() != null) {
+                products.offer(item.getProduct().getId());
+            }
+        }
+
+        apply(day, DailyDistinctSketch.Metric.CUSTOMERS, customers);
+        apply(day, DailyDistinctSketch.Metric.PRODUCTS, products);
+    }
+
+    /**
+     * Builds the sketches from the order history once, e.g. on the first start
+     * after the table was introduced. The history is merged into whatever rows
+     * exist, and a union with the same orders changes nothing, so a repeat is
+     * harmless.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfillService.runOnce("daily_distinct_sketches", () -> {
+            Map<LocalDate, HyperLogLog> customers = new HashMap<>();
+            Map<LocalDate, HyperLogLog> products = new HashMap<>();
+            reportQueryRepository.streamOrderLines(line -> {
+                LocalDate day = line.getCreatedAt() != null ? line.getCreatedAt().toLocalDate() : LocalDate.now();
+                customers.computeIfAbsent(day, d -> new HyperLogLog()).offer(line.getUserId());
+                products.computeIfAbsent(day, d -> new HyperLogLog()).offer(line.getProductId());
+            });
+
+            customers.forEach((day, sketch) -> apply(day, DailyDistinctSketch.Metric.CUSTOMERS, sketch));
+            products.forEach((day, sketch) -> apply(day, DailyDistinctSketch.Metric.PRODUCTS, sketch));
+            return customers.size() + products.size();
+        });
+    }
+
+    private void apply(LocalDate day, DailyDistinctSketch.Metric metric, HyperLogLog delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        Optional<byte[]> current = sketchRepository.findRegisters(day, metric);
+        if (current.isPresent() && HyperLogLog.fromBytes(current.get()).covers(delta)) {
+            return;
+        }
+
+        if (current.isEmpty() && sketchRepository.insertIfAbsent(day, metric.name(), delta.toBytes()) > 0) {
+            return;
+        }
+
+        DailyDistinctSketch row = sketchRepository.findForUpdate(day, metric)
+                .orElseThrow(() -> new RuntimeException("Distinct count sketch missing for " + day + " " + metric));
+        HyperLogLog sketch = HyperLogLog.fromBytes(row.getRegisters());
+        if (sketch.merge(delta)) {
+            row.setRegisters(sketch.toBytes());
+            sketchRepository.save(row);
+        }
+    }
+}
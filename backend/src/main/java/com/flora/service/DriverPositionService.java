@@ -0,0 +1,261 @@
+package com.flora.service;
+
+import com.flora.dto.DriverPosition;
+import com.flora.dto.PositionBatchRequest;
+import com.flora.dto.PositionBatchResponse;
+import com.flora.event.DeliveryStatusChangedEvent;
+import com.flora.exception.ResourceNotFoundException;
+import com.flora.model.Delivery;
+import com.flora.repository.DeliveryPositionRepository;
+import com.flora.repository.DeliveryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ingests GPS fixes reported by driver apps. Request threads only update the
+ * latest position per delivery in memory and append the fix to a lock-free ring
+ * buffer; a single writer thread drains the buffer every few hundred milliseconds
+ * and appends the fixes to the position history in multi-row inserts. Fixes that
+ * arrive while the buffer is full are refused so the client can resend them.
+ * Fixes are only taken for deliveries that exist and are not finished; that check
+ * is cached per delivery for a short while. The latest positions are dropped once
+ * a delivery is finished, or once they are older than the configured maximum age.
+ */
+@Service
+public class DriverPositionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverPositionService.class);
+
+    private static final Set<Delivery.DeliveryStatus> FINISHED_STATUSES = EnumSet.of(
+            Delivery.DeliveryStatus.DELIVERED, Delivery.DeliveryStatus.FAILED, Delivery.DeliveryStatus.RETURNED,
+            Delivery.DeliveryStatus.CANCELLED);
+    private static final int MAX_HISTORY = 5000;
+
+    private final DeliveryPositionRepository positionRepository;
+    private final DeliveryService deliveryService;
+    private final DeliveryRepository deliveryRepository;
+    private final PositionRingBuffer buffer;
+    private final int batchSize;
+    private final int maxTracked;
+    private final long openCheckTtlNanos;
+    private final long maxAgeMinutes;
+
+    private final ConcurrentMap<Long, DriverPosition> latest = new ConcurrentHashMap<>();
+    // Deliveries recently confirmed open, with the nanoTime the confirmation lapses
+    private final ConcurrentMap<Long, Long> openUntil = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writer;
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // Drain target, reused by the single writer
+    private final Object[] pending;
+    private int pendingRows;
+    // Only touched by the writer thread
+    private long lastSweepNanos = System.nanoTime();
+
+    public DriverPositionService(DeliveryPositionRepository positionRepository,
+            DeliveryService deliveryService,
+            DeliveryRepository deliveryRepository,
+            @Value("${flora.positions.buffer-capacity:65536}") int bufferCapacity,
+            @Value("${flora.positions.batch-size:2000}") int batchSize,
+            @Value("${flora.positions.flush-interval-ms:250}") long flushIntervalMs,
+            @Value("${flora.positions.max-tracked:50000}") int maxTracked,
+            @Value("${flora.positions.open-check-ttl-ms:60000}") long openCheckTtlMs,
+            @Value("${flora.positions.max-age-minutes:30}") long maxAgeMinutes) {
+        this.positionRepository = positionRepository;
+        this.deliveryService = deliveryService;
+        this.deliveryRepository = deliveryRepository;
+        this.buffer = new PositionRingBuffer(bufferCapacity);
+        this.batchSize = batchSize;
+        this.maxTracked = maxTracked;
+        this.openCheckTtlNanos = TimeUnit.MILLISECONDS.toNanos(openCheckTtlMs);
+        this.maxAgeMinutes = maxAgeMinutes;
+        this.pending = new Object[batchSize * 5];
+        this.writer = Executors.newSingleThreadScheduledExecutor(namedThreads("position-writer-"));
+        this.writer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    public PositionBatchResponse ingest(List<PositionBatchRequest.Fix> fixes) {
+        LocalDateTime receivedAt = LocalDateTime.now();
+        Set<Long> open = openDeliveries(fixes);
+        int accepted = 0;
+        int unknown = 0;
+        for (PositionBatchRequest.Fix fix : fixes) {
+            if (!open.contains(fix.getDeliveryId())) {
+                unknown++;
+                continue;
+            }
+            // A device clock running ahead must not keep its position from ageing out
+            LocalDateTime recordedAt = fix.getRecordedAt() != null && !fix.getRecordedAt().isAfter(receivedAt)
+                    ? fix.getRecordedAt() : receivedAt;
+            Integer accuracy = fix.getAccuracyMeters();
+            short storedAccuracy = accuracy != null ? (short) Math.min(accuracy, Short.MAX_VALUE)
+                    : PositionRingBuffer.NO_ACCURACY;
+            if (!buffer.offer(fix.getDeliveryId(), Timestamp.valueOf(recordedAt).getTime(),
+                    (int) Math.round(fix.getLatitude() * 1e7), (int) Math.round(fix.getLongitude() * 1e7),
+                    storedAccuracy)) {
+                break;
+            }
+            accepted++;
+            updateLatest(new DriverPosition(fix.getDeliveryId(), fix.getLatitude(), fix.getLongitude(), accuracy,
+                    recordedAt));
+        }
+        int refused = fixes.size() - accepted - unknown;
+        if (refused > 0) {
+            dropped.addAndGet(refused);
+        }
+        if (unknown > 0) {
+            rejected.addAndGet(unknown);
+        }
+        return new PositionBatchResponse(accepted, refused, unknown);
+    }
+
+    // Latest reported position of an in-progress delivery; resolved through the tracking cache, so from memory
+    public DriverPosition getLatestPosition(String trackingNumber) {
+        Long deliveryId = deliveryService.getCachedDeliveryByTracking(trackingNumber).getResponse().getId();
+        DriverPosition position = latest.get(deliveryId);
+        if (position == null) {
+            throw new ResourceNotFoundException("No position reported for this delivery");
+        }
+        return position;
+    }
+
+    public List<DriverPosition> getPositionHistory(Long deliveryId, int limit) {
+        return positionRepository.findRecent(deliveryId, Math.max(1, Math.min(limit, MAX_HISTORY)));
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("buffered", buffer.size());
+        metrics.put("bufferCapacity", buffer.capacity());
+        metrics.put("persisted", persisted.get());
+        metrics.put("dropped", dropped.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("trackedDeliveries", latest.size());
+        return metrics;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeliveryStatusChanged(DeliveryStatusChangedEvent event) {
+        if (FINISHED_STATUSES.contains(event.getStatus())) {
+            openUntil.remove(event.getDeliveryId());
+            latest.remove(event.getDeliveryId());
+        }
+    }
+
+    // One query per batch for deliveries not confirmed open recently; unknown ids are not cached
+    private Set<Long> openDeliveries(List<PositionBatchRequest.Fix> fixes) {
+        long now = System.nanoTime();
+        Set<Long> open = new HashSet<>();
+        Set<Long> unconfirmed = new HashSet<>();
+        for (PositionBatchRequest.Fix fix : fixes) {
+            Long deliveryId = fix.getDeliveryId();
+            Long until = openUntil.get(deliveryId);
+            if (until != null && until - now > 0) {
+                open.add(deliveryId);
+            } else {
+                unconfirmed.add(deliveryId);
+            }
+        }
+        if (!unconfirmed.isEmpty()) {
+            for (Long deliveryId : deliveryRepository.findOpenIdsIn(unconfirmed, FINISHED_STATUSES)) {
+                open.add(deliveryId);
+                if (openUntil.size() < maxTracked || openUntil.containsKey(deliveryId)) {
+                    openUntil.put(deliveryId, now + openCheckTtlNanos);
+                }
+            }
+        }
+        return open;
+    }
+
+    // Deliveries that stop reporting without reaching a finished status would otherwise stay tracked
+    private void sweepStale() {
+        long now = System.nanoTime();
+        if (now - lastSweepNanos < TimeUnit.MINUTES.toNanos(1)) {
+            return;
+        }
+        lastSweepNanos = now;
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(maxAgeMinutes);
+        latest.values().removeIf(position -> position.getRecordedAt().isBefore(cutoff));
+        openUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    private void updateLatest(DriverPosition position) {
+        // New deliveries stop being tracked in memory at the cap; their fixes are still stored
+        if (latest.size() >= maxTracked && !latest.containsKey(position.getDeliveryId())) {
+            return;
+        }
+        latest.merge(position.getDeliveryId(), position,
+                (current, update) -> update.getRecordedAt().isBefore(current.getRecordedAt()) ? current : update);
+    }
+
+    private synchronized void flush() {
+        try {
+            sweepStale();
+            int drained;
+            do {
+                pendingRows = 0;
+                drained = buffer.drain(this::stage, batchSize);
+                if (drained > 0) {
+                    positionRepository.insertBatch(pending, pendingRows);
+                    persisted.addAndGet(drained);
+                }
+            } while (drained == batchSize);
+        } catch (RuntimeException e) {
+            // The drained fixes are lost; the latest positions in memory are unaffected
+            logger.error("Failed to persist {} driver positions", pendingRows, e);
+        }
+    }
+
+    private void stage(long deliveryId, long recordedAt, int latitudeE7, int longitudeE7, short accuracy) {
+        int offset = pendingRows * 5;
+        pending[offset] = deliveryId;
+        pending[offset + 1] = new Timestamp(recordedAt);
+        pending[offset + 2] = latitudeE7;
+        pending[offset + 3] = longitudeE7;
+        pending[offset + 4] = accuracy == PositionRingBuffer.NO_ACCURACY ? null : accuracy;
+        pendingRows++;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.flora.service;
 
 import com.flora.dto.EventRequest;
 import com.flora.dto.EventResponse;
+import com.flora.event.EventVenueChangedEvent;
 import com.flora.model.Event;
 import com.flora.model.EventItem;
 import com.flora.model.Product;
@@ -10,13 +11,13 @@ import com.flora.repository.EventRepository;
 import com.flora.repository.ProductRepository;
 import com.flora.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,6 +28,8 @@ public class EventService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final IdGeneratorService idGeneratorService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public EventResponse createEvent(EventRequest request, String username) {
@@ -35,7 +38,7 @@ public class EventService {
                         .orElseThrow(() -> new RuntimeException("User not found")));
 
         Event event = new Event();
-        event.setEventNumber(generateEventNumber());
+        event.setEventNumber(idGeneratorService.nextEventNumber());
         event.setUser(user);
         event.setEventType(request.getEventType());
         event.setEventDate(request.getEventDate());
@@ -45,6 +48,8 @@ public class EventService {
         event.setVenueCity(request.getVenueCity());
         event.setVenueState(request.getVenueState());
         event.setVenueZipCode(request.getVenueZipCode());
+        event.setVenueLatitude(request.getVenueLatitude());
+        event.setVenueLongitude(request.getVenueLongitude());
         event.setGuestCount(request.getGuestCount());
         event.setBudget(request.getBudget());
         event.setSpecialInstructions(request.getSpecialInstructions());
@@ -78,6 +83,7 @@ public class EventService {
         event.setTotalAmount(totalAmount);
 
         Event savedEvent = eventRepository.save(event);
+        publishVenueChange(savedEvent, false);
         return convertToResponse(savedEvent);
     }
 
@@ -133,6 +139,7 @@ public class EventService {
 
         event.setStatus(status);
         Event updatedEvent = eventRepository.save(event);
+        publishVenueChange(updatedEvent, false);
 
         return convertToResponse(updatedEvent);
     }
@@ -151,6 +158,7 @@ public class EventService {
         }
 
         eventRepository.delete(event);
+        publishVenueChange(event, true);
     }
 
     @Transactional
@@ -168,6 +176,7 @@ public class EventService {
         event.setAdminNotes(notes);
 
         Event updatedEvent = eventRepository.save(event);
+        publishVenueChange(updatedEvent, false);
         return convertToResponse(updatedEvent);
     }
 
@@ -187,6 +196,7 @@ public class EventService {
         event.setAdminNotes(notes);
 
         Event updatedEvent = eventRepository.save(event);
+        publishVenueChange(updatedEvent, false);
         return convertToResponse(updatedEvent);
     }
 
@@ -204,10 +214,17 @@ public class EventService {
                 .collect(Collectors.toList());
     }
 
-    private String generateEventNumber() {
-        String datePart = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = eventRepository.count() + 1;
-        return String.format("EVT-%s-%04d", datePart, count);
+    private void publishVenueChange(Event event, boolean deleted) {
+        eventPublisher.publishEvent(new EventVenueChangedEvent(
+                event.getId(),
+                event.getEventNumber(),
+                event.getEventDate(),
+                deleted ? null : event.getStatus(),
+                event.getVenueName(),
+                event.getVenueAddress(),
+                event.getVenueZipCode(),
+                event.getVenueLatitude(),
+                event.getVenueLongitude()));
     }
 
     private EventResponse convertToResponse(Event event) {
@@ -222,6 +239,8 @@ public class EventService {
         response.setVenueCity(event.getVenueCity());
         response.setVenueState(event.getVenueState());
         response.setVenueZipCode(event.getVenueZipCode());
+        response.setVenueLatitude(event.getVenueLatitude());
+        response.setVenueLongitude(event.getVenueLongitude());
         response.setGuestCount(event.getGuestCount());
         response.setBudget(event.getBudget());
         response.setSpecialInstructions(event.getSpecialInstructions());
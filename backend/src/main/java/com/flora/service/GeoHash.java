@@ -0,0 +1,53 @@
+package com.flora.service;
+
+/**
+ * Integer geohashes: latitude and longitude are each cut into 2^bits cells and
+ * the two cell numbers are bit-interleaved, longitude first, as in the textual
+ * geohash. A hash at fewer bits is a prefix of the full-precision hash, so all
+ * points inside a coarse cell form one contiguous range of full-precision keys.
+ */
+public final class GeoHash {
+
+    // Per axis; 2 x 26 bits resolve to well under a metre
+    public static final int MAX_BITS = 26;
+
+    private GeoHash() {
+    }
+
+    public static long encode(double latitude, double longitude) {
+        return interleave(latitudeCell(latitude, MAX_BITS), longitudeCell(longitude, MAX_BITS), MAX_BITS);
+    }
+
+    public static int latitudeCell(double latitude, int bits) {
+        return cell((latitude + 90) / 180, bits);
+    }
+
+    public static int longitudeCell(double longitude, int bits) {
+        return cell((longitude + 180) / 360, bits);
+    }
+
+    // Hash of a cell at the given precision
+    public static long interleave(int latitudeCell, int longitudeCell, int bits) {
+        long hash = 0;
+        for (int bit = bits - 1; bit >= 0; bit--) {
+            hash = (hash << 1) | ((longitudeCell >>> bit) & 1);
+            hash = (hash << 1) | ((latitudeCell >>> bit) & 1);
+        }
+        return hash;
+    }
+
+    // First full-precision hash inside the cell
+    public static long rangeStart(long cellHash, int bits) {
+        return cellHash << (2 * (MAX_BITS - bits));
+    }
+
+    // First full-precision hash after the cell
+    public static long rangeEnd(long cellHash, int bits) {
+        return (cellHash + 1) << (2 * (MAX_BITS - bits));
+    }
+
+    private static int cell(double fraction, int bits) {
+        int cells = 1 << bits;
+        return (int) Math.max(0, Math.min(cells - 1, Math.floor(fraction * cells)));
+    }
+}
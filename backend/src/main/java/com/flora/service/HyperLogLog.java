@@ -0,0 +1,171 @@
+package com.flora.service;
+
+/**
+ * HyperLogLog distinct-count sketch over long ids with 2^12 registers, giving a
+ * relative standard error of about 1.6% in at most 3 KB. Sketches of the same
+ * precision merge by taking the register-wise maximum, so per-day sketches can be
+ * combined into any date range, and merging the same values twice is harmless.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+    public static final double RELATIVE_STANDARD_ERROR = 1.04 / Math.sqrt(REGISTERS);
+
+    // Encoding byte followed by 6-bit packed registers
+    public static final int MAX_SERIALIZED_BYTES = 1 + REGISTERS * 6 / 8;
+
+    private static final byte SPARSE = 1;
+    private static final byte DENSE = 2;
+    private static final int SPARSE_ENTRY_BYTES = 3;
+    private static final int MAX_RANK = 64 - PRECISION + 1;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(new byte[REGISTERS]);
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * Adds a value; returns whether any register changed, i.e. whether the
+     * value can have moved the estimate.
+     */
+    public boolean offer(long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION) + 1, MAX_RANK);
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+            return true;
+        }
+        return false;
+    }
+
+    // Returns whether this sketch changed
+    public boolean merge(HyperLogLog other) {
+        boolean changed = false;
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // Whether merging other into this sketch would change nothing
+    public boolean covers(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // Linear counting is far more accurate while many registers are still empty
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Sparse (index, rank) entries while few registers are set, which is the common
+     * case for a single day, otherwise all registers packed into 6 bits each.
+     */
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                nonZero++;
+            }
+        }
+
+        if (1 + nonZero * SPARSE_ENTRY_BYTES < MAX_SERIALIZED_BYTES) {
+            byte[] bytes = new byte[1 + nonZero * SPARSE_ENTRY_BYTES];
+            bytes[0] = SPARSE;
+            int offset = 1;
+            for (int i = 0; i < REGISTERS; i++) {
+                if (registers[i] != 0) {
+                    bytes[offset++] = (byte) (i >>> 8);
+                    bytes[offset++] = (byte) i;
+                    bytes[offset++] = registers[i];
+                }
+            }
+            return bytes;
+        }
+
+        byte[] bytes = new byte[MAX_SERIALIZED_BYTES];
+        bytes[0] = DENSE;
+        for (int i = 0; i < REGISTERS; i += 4) {
+            int packed = registers[i] << 18 | registers[i + 1] << 12 | registers[i + 2] << 6 | registers[i + 3];
+            int offset = 1 + i / 4 * 3;
+            bytes[offset] = (byte) (packed >>> 16);
+            bytes[offset + 1] = (byte) (packed >>> 8);
+            bytes[offset + 2] = (byte) packed;
+        }
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return new HyperLogLog();
+        }
+
+        byte[] registers = new byte[REGISTERS];
+        if (bytes[0] == SPARSE && (bytes.length - 1) % SPARSE_ENTRY_BYTES == 0) {
+            for (int offset = 1; offset < bytes.length; offset += SPARSE_ENTRY_BYTES) {
+                int index = (bytes[offset] & 0xff) << 8 | (bytes[offset + 1] & 0xff);
+                if (index >= REGISTERS) {
+                    throw new IllegalArgumentException("Corrupt HyperLogLog register index " + index);
+                }
+                registers[index] = bytes[offset + 2];
+            }
+        } else if (bytes[0] == DENSE && bytes.length == MAX_SERIALIZED_BYTES) {
+            for (int i = 0; i < REGISTERS; i += 4) {
+                int offset = 1 + i / 4 * 3;
+                int packed = (bytes[offset] & 0xff) << 16 | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff);
+                registers[i] = (byte) (packed >>> 18 & 0x3f);
+                registers[i + 1] = (byte) (packed >>> 12 & 0x3f);
+                registers[i + 2] = (byte) (packed >>> 6 & 0x3f);
+                registers[i + 3] = (byte) (packed & 0x3f);
+            }
+        } else {
+            throw new IllegalArgumentException("Unrecognized HyperLogLog encoding");
+        }
+        return new HyperLogLog(registers);
+    }
+
+    // SplitMix64 finalizer: sequential ids spread uniformly over all 64 bits
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
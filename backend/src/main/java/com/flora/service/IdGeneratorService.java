@@ -0,0 +1,122 @@
+package com.flora.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style generator for business identifiers (order, event and tracking
+ * numbers). Ids are 63-bit longs laid out as
+ * {@code [41 bits millis since EPOCH][10 bits node id][12 bits sequence]}, so
+ * they are unique across nodes without touching the database and strictly
+ * increasing on each node. Each running instance must be given its own node id;
+ * ids never run ahead of the wall clock, so they also stay unique across restarts.
+ */
+@Service
+public class IdGeneratorService {
+
+    // 2024-01-01T00:00:00Z, leaves ~69 years of 41-bit timestamps
+    static final long EPOCH = 1704067200000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // Longer clock steps backwards fail instead of stalling every request
+    private static final long MAX_CLOCK_WAIT_MS = 5000;
+
+    // Fixed width keeps the textual form sortable in the same order as the ids
+    private static final int ENCODED_LENGTH = 13;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final long nodeId;
+
+    // Packed (timestamp << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong lastState = new AtomicLong();
+
+    public IdGeneratorService(@Value("${flora.id.node-id:-1}") long configuredNodeId) {
+        if (configuredNodeId < 0 || configuredNodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("flora.id.node-id (FLORA_NODE_ID) must be set to a value between 0 and "
+                    + MAX_NODE_ID + " that is unique to this instance");
+        }
+        this.nodeId = configuredNodeId;
+    }
+
+    public long nextId() {
+        while (true) {
+            long last = lastState.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+            long nowMillis = System.currentTimeMillis() - EPOCH;
+            long next;
+            if (nowMillis > lastMillis) {
+                next = nowMillis << SEQUENCE_BITS;
+            } else if (nowMillis == lastMillis && (last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = last + 1;
+            } else {
+                // Sequence exhausted or the clock stepped back: wait for the wall clock
+                // rather than borrowing future milliseconds that a restart could reissue
+                awaitMillisAfter(lastMillis);
+                continue;
+            }
+            if (lastState.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public String nextOrderNumber() {
+        return format("ORD", nextId());
+    }
+
+    public String nextEventNumber() {
+        return format("EVT", nextId());
+    }
+
+    public String nextTrackingNumber() {
+        return format("TRK", nextId());
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH);
+    }
+
+    private static String format(String prefix, long id) {
+        String datePart = timestampOf(id).atZone(ZoneId.systemDefault()).format(DATE_FORMAT);
+        StringBuilder encoded = new StringBuilder(Long.toString(id, 36).toUpperCase());
+        while (encoded.length() < ENCODED_LENGTH) {
+            encoded.insert(0, '0');
+        }
+        return prefix + "-" + datePart + "-" + encoded;
+    }
+
+    private static void awaitMillisAfter(long lastMillis) {
+        long behind = lastMillis - (System.currentTimeMillis() - EPOCH);
+        if (behind > MAX_CLOCK_WAIT_MS) {
+            throw new IllegalStateException("System clock moved back " + behind + " ms; refusing to issue ids");
+        }
+        while (System.currentTimeMillis() - EPOCH <= lastMillis) {
+            if (behind > 1) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the clock", e);
+                }
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
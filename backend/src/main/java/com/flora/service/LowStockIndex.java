@@ -0,0 +1,138 @@
+package com.flora.service;
+
+import com.flora.dto.CursorPage;
+import com.flora.dto.LowStockItem;
+import com.flora.event.StockLevelChangedEvent;
+import com.flora.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Products currently below their reorder threshold, kept sorted by stock level
+ * (emptiest first) so the purchasing feed is a range read instead of a scan over
+ * the catalog. Seeded from the database at startup and maintained from
+ * {@link StockLevelChangedEvent}s once the stock change has committed. Events
+ * from concurrent checkouts can arrive out of order, so each one only names the
+ * product; its current level is re-read from the database.
+ */
+@Service
+public class LowStockIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockIndex.class);
+
+    private static final Comparator<LowStockItem> ORDER = Comparator
+            .comparingInt(LowStockItem::getStockQuantity)
+            .thenComparing(LowStockItem::getProductId);
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int LOCK_STRIPES = 64;
+
+    private final ProductRepository productRepository;
+    private final int defaultThreshold;
+
+    private final NavigableSet<LowStockItem> sorted = new ConcurrentSkipListSet<>(ORDER);
+    private final ConcurrentMap<Long, LowStockItem> byProduct = new ConcurrentHashMap<>();
+    // Re-read and update under the product's stripe, so the last update applied comes from the last read
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public LowStockIndex(ProductRepository productRepository,
+            @Value("${flora.inventory.default-reorder-threshold:10}") int defaultThreshold) {
+        this.productRepository = productRepository;
+        this.defaultThreshold = defaultThreshold;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public int getDefaultThreshold() {
+        return defaultThreshold;
+    }
+
+    public int effectiveThreshold(Integer reorderThreshold) {
+        return reorderThreshold != null ? reorderThreshold : defaultThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        for (LowStockItem item : productRepository.findLowStockItems(defaultThreshold)) {
+            put(item.getProductId(), item);
+        }
+        logger.info("Low-stock index seeded with {} products", byProduct.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        Long productId = event.getProductId();
+        synchronized (locks[Math.floorMod(productId.hashCode(), LOCK_STRIPES)]) {
+            // Empty once the product is deleted
+            LowStockItem current = productRepository.findStockLevelById(productId, defaultThreshold)
+                    .filter(item -> item.getStockQuantity() < item.getReorderThreshold())
+                    .orElse(null);
+            put(productId, current);
+        }
+    }
+
+    /**
+     * Page of low-stock products, emptiest first. The cursor is the
+     * "stockQuantity:productId" of the last item of the previous page.
+     */
+    public CursorPage<LowStockItem> getFeed(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        NavigableSet<LowStockItem> view = sorted;
+        if (cursor != null && !cursor.isBlank()) {
+            LowStockItem after;
+            try {
+                int separator = cursor.indexOf(':');
+                after = new LowStockItem(Long.valueOf(cursor.substring(separator + 1)), null, null,
+                        Integer.parseInt(cursor.substring(0, separator)), 0);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
+            }
+            view = sorted.tailSet(after, false);
+        }
+
+        List<LowStockItem> items = new ArrayList<>(pageSize);
+        Iterator<LowStockItem> iterator = view.iterator();
+        while (iterator.hasNext() && items.size() < pageSize) {
+            items.add(iterator.next());
+        }
+        boolean hasMore = iterator.hasNext();
+        String nextCursor = null;
+        if (hasMore) {
+            LowStockItem last = items.get(items.size() - 1);
+            nextCursor = last.getStockQuantity() + ":" + last.getProductId();
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    public int size() {
+        return byProduct.size();
+    }
+
+    // Per-product compute keeps the map and the sorted set in step under concurrent updates
+    private void put(Long productId, LowStockItem item) {
+        byProduct.compute(productId, (id, previous) -> {
+            if (previous != null) {
+                sorted.remove(previous);
+            }
+            if (item != null) {
+                sorted.add(item);
+            }
+            return item;
+        });
+    }
+}
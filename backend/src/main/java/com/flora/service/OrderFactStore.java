@@ -0,0 +1,597 @@
+package com.flora.service;
+
+import com.flora.dto.AnalyticsResult;
+import com.flora.dto.OrderLineFact;
+import com.flora.event.OrderCreatedEvent;
+import com.flora.event.OrderStatusChangedEvent;
+import com.flora.model.Order;
+import com.flora.model.OrderItem;
+import com.flora.repository.ReportQueryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Append-only, column-oriented copy of every order line for ad-hoc analytics.
+ * Each attribute lives in its own primitive array, split into fixed-size chunks so
+ * growing never copies existing rows. A query is a filter kernel that fills a
+ * selection vector per chunk followed by a tight group-by loop over that vector,
+ * so scanning millions of lines touches only the columns involved and never MySQL.
+ *
+ * <p>Writers (startup load, order creation, status changes) serialize on the store
+ * monitor; readers take no lock and see every row up to the published size.
+ */
+@Service
+public class OrderFactStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderFactStore.class);
+
+    static final int CHUNK_BITS = 16;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+    public static final int ALL_STATUSES = (1 << STATUSES.length) - 1;
+
+    // Approximate heap per line across all columns, for the stats endpoint:
+    // six long, two int, four byte and one boolean column
+    private static final int BYTES_PER_LINE = 6 * Long.BYTES + 2 * Integer.BYTES + 4 + 1;
+
+    public enum GroupBy {
+        NONE, DAY, HOUR, DAY_OF_WEEK, STATUS, PAYMENT_METHOD, CATEGORY, PRODUCT, USER
+    }
+
+    private final ReportQueryRepository reportQueryRepository;
+    private final boolean enabled;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private volatile Chunk[] chunks = new Chunk[0];
+    // Rows [0, size) are fully written; published after each append
+    private volatile int size;
+    private volatile boolean loaded;
+    private int minEpochDay = Integer.MAX_VALUE;
+    private int maxEpochDay = Integer.MIN_VALUE;
+
+    // orderId -> (firstRow << 16 | lineCount), guarded by this
+    private final LongLongMap orderRows = new LongLongMap();
+
+    // Payment methods are dictionary-encoded; code 0 is "unknown", guarded by this
+    private final Map<String, Integer> paymentCodes = new HashMap<>();
+    private volatile String[] paymentNames = { "UNKNOWN" };
+
+    // Status changes for orders the startup load has not reached yet, guarded by this
+    private final Map<Long, Order.OrderStatus> pendingStatuses = new HashMap<>();
+
+    public OrderFactStore(ReportQueryRepository reportQueryRepository,
+            @Value("${flora.analytics.enabled:true}") boolean enabled) {
+        this.reportQueryRepository = reportQueryRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<OrderLineFact> pending = new ArrayList<>();
+        reportQueryRepository.streamOrderLines(line -> {
+            if (!pending.isEmpty() && !pending.get(0).getOrderId().equals(line.getOrderId())) {
+                append(pending);
+                pending.clear();
+            }
+            pending.add(line);
+        });
+        if (!pending.isEmpty()) {
+            append(pending);
+        }
+        synchronized (this) {
+            loaded = true;
+            pendingStatuses.forEach(this::updateStatus);
+            pendingStatuses.clear();
+        }
+        logger.info("Loaded {} order lines into the analytics store in {} ms", size,
+                System.currentTimeMillis() - start);
+    }
+
+    // Lines are captured inside the transaction (entities still attached) and appended only once it commits
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<OrderLineFact> lines = toLines(event.getOrder());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(lines);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(lines);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        applyStatus(event.getOrderId(), event.getStatus());
+    }
+
+    public AnalyticsResult aggregate(LocalDate startDate, LocalDate endDate, int statusMask, Long userId,
+            Long productId, Long categoryId, GroupBy groupBy) {
+        if (!enabled) {
+            throw new RuntimeException("Order analytics are disabled");
+        }
+        long started = System.nanoTime();
+
+        // size before chunks: a published size always has its chunks visible
+        int rows = size;
+        Chunk[] snapshot = chunks;
+
+        Filter filter = new Filter();
+        filter.fromMillis = startDate != null ? startDate.atStartOfDay(zone).toInstant().toEpochMilli() : Long.MIN_VALUE;
+        filter.toMillis = endDate != null ? endDate.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli()
+                : Long.MAX_VALUE;
+        filter.statusMask = statusMask;
+        filter.userId = userId != null ? userId : -1;
+        filter.productId = productId != null ? productId : -1;
+        filter.categoryId = categoryId != null ? categoryId : -1;
+        // With a line-level grouping or filter, each matching line counts as an order containing it
+        boolean countLines = groupBy == GroupBy.PRODUCT || groupBy == GroupBy.CATEGORY
+                || filter.productId >= 0 || filter.categoryId >= 0;
+
+        Accumulator accumulator = newAccumulator(groupBy, startDate, endDate);
+        int[] selection = new int[CHUNK_SIZE];
+        long matched = 0;
+        for (int c = 0; c * CHUNK_SIZE < rows; c++) {
+            Chunk chunk = snapshot[c];
+            int limit = Math.min(CHUNK_SIZE, rows - c * CHUNK_SIZE);
+            int selected = select(chunk, limit, filter, selection);
+            accumulator.add(chunk, selection, selected, countLines);
+            matched += selected;
+        }
+
+        List<AnalyticsResult.Bucket> buckets = accumulator.buckets();
+        long tookMicros = (System.nanoTime() - started) / 1000;
+        return new AnalyticsResult(groupBy.name(), rows, matched, tookMicros, buckets);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        int rows = size;
+        stats.put("enabled", enabled);
+        stats.put("loaded", loaded);
+        stats.put("lines", rows);
+        stats.put("chunks", chunks.length);
+        stats.put("approximateBytes", (long) chunks.length * CHUNK_SIZE * BYTES_PER_LINE);
+        stats.put("paymentMethods", paymentNames.length - 1);
+        return stats;
+    }
+
+    public static int statusMask(List<Order.OrderStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return ALL_STATUSES;
+        }
+        int mask = 0;
+        for (Order.OrderStatus status : statuses) {
+            mask |= 1 << status.ordinal();
+        }
+        return mask;
+    }
+
+    // ---- write path -------------------------------------------------------------------------
+
+    private synchronized void append(List<OrderLineFact> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        long orderId = lines.get(0).getOrderId();
+        if (orderRows.get(orderId) >= 0) {
+            // Already present: the startup load and a live event raced for the same order
+            return;
+        }
+
+        int first = size;
+        int count = lines.size();
+        ensureCapacity(first + count);
+
+        Chunk[] current = chunks;
+        for (int n = 0; n < count; n++) {
+            OrderLineFact line = lines.get(n);
+            int row = first + n;
+            Chunk chunk = current[row >>> CHUNK_BITS];
+            int i = row & CHUNK_MASK;
+
+            LocalDateTime createdAt = line.getCreatedAt() != null ? line.getCreatedAt() : LocalDateTime.now();
+            int epochDay = (int) createdAt.toLocalDate().toEpochDay();
+            minEpochDay = Math.min(minEpochDay, epochDay);
+            maxEpochDay = Math.max(maxEpochDay, epochDay);
+
+            chunk.orderId[i] = orderId;
+            chunk.timestamp[i] = createdAt.atZone(zone).toInstant().toEpochMilli();
+            chunk.epochDay[i] = epochDay;
+            chunk.hour[i] = (byte) createdAt.getHour();
+            chunk.dayOfWeek[i] = (byte) (createdAt.getDayOfWeek().getValue() - 1);
+            chunk.cents[i] = toCents(line.getSubtotal());
+            chunk.quantity[i] = line.getQuantity() != null ? line.getQuantity() : 0;
+            chunk.status[i] = (byte) Order.OrderStatus.valueOf(line.getStatus()).ordinal();
+            chunk.paymentMethod[i] = (byte) paymentCode(line.getPaymentMethod());
+            chunk.userId[i] = line.getUserId() != null ? line.getUserId() : -1;
+            chunk.productId[i] = line.getProductId() != null ? line.getProductId() : -1;
+            chunk.categoryId[i] = line.getCategoryId() != null ? line.getCategoryId() : -1;
+            chunk.firstLine[i] = n == 0;
+        }
+
+        orderRows.put(orderId, ((long) first << 16) | Math.min(count, 0xFFFF));
+        size = first + count;
+    }
+
+    private synchronized void applyStatus(Long orderId, Order.OrderStatus status) {
+        if (!updateStatus(orderId, status) && !loaded) {
+            pendingStatuses.put(orderId, status);
+        }
+    }
+
+    private synchronized boolean updateStatus(Long orderId, Order.OrderStatus status) {
+        long packed = orderRows.get(orderId);
+        if (packed < 0) {
+            return false;
+        }
+        int first = (int) (packed >>> 16);
+        int count = (int) (packed & 0xFFFF);
+        Chunk[] current = chunks;
+        for (int row = first; row < first + count; row++) {
+            current[row >>> CHUNK_BITS].status[row & CHUNK_MASK] = (byte) status.ordinal();
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int rows) {
+        int needed = (rows + CHUNK_MASK) >>> CHUNK_BITS;
+        Chunk[] current = chunks;
+        if (needed <= current.length) {
+            return;
+        }
+        Chunk[] grown = Arrays.copyOf(current, needed);
+        for (int c = current.length; c < needed; c++) {
+            grown[c] = new Chunk();
+        }
+        chunks = grown;
+    }
+
+    private int paymentCode(String paymentMethod) {
+        if (paymentMethod == null || paymentMethod.isBlank()) {
+            return 0;
+        }
+        Integer code = paymentCodes.get(paymentMethod);
+        if (code != null) {
+            return code;
+        }
+        String[] names = paymentNames;
+        if (names.length > Byte.MAX_VALUE) {
+            return 0;
+        }
+        int next = names.length;
+        String[] grown = Arrays.copyOf(names, next + 1);
+        grown[next] = paymentMethod;
+        paymentNames = grown;
+        paymentCodes.put(paymentMethod, next);
+        return next;
+    }
+
+    private static List<OrderLineFact> toLines(Order order) {
+        List<OrderLineFact> lines = new ArrayList<>(order.getOrderItems().size());
+        for (OrderItem item : order.getOrderItems()) {
+            Long categoryId = item.getProduct().getCategory() != null ? item.getProduct().getCategory().getId() : null;
+            lines.add(new OrderLineFact(order.getId(), order.getCreatedAt(), order.getStatus().name(),
+                    order.getPaymentMethod(), order.getUser().getId(), item.getProduct().getId(), categoryId,
+                    item.getQuantity(), item.getSubtotal()));
+        }
+        return lines;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValue();
+    }
+
+    // ---- read path --------------------------------------------------------------------------
+
+    // Filter kernel: writes the indexes of matching rows into selection and returns how many matched
+    private static int select(Chunk chunk, int limit, Filter filter, int[] selection) {
+        long[] timestamp = chunk.timestamp;
+        byte[] status = chunk.status;
+        long from = filter.fromMillis;
+        long to = filter.toMillis;
+        int mask = filter.statusMask;
+        int selected = 0;
+        for (int i = 0; i < limit; i++) {
+            long ts = timestamp[i];
+            boolean keep = ts >= from & ts < to & ((mask >>> status[i]) & 1) != 0;
+            selection[selected] = i;
+            selected += keep ? 1 : 0;
+        }
+        if (filter.userId >= 0) {
+            selected = refine(chunk.userId, filter.userId, selection, selected);
+        }
+        if (filter.productId >= 0) {
+            selected = refine(chunk.productId, filter.productId, selection, selected);
+        }
+        if (filter.categoryId >= 0) {
+            selected = refine(chunk.categoryId, filter.categoryId, selection, selected);
+        }
+        return selected;
+    }
+
+    private static int refine(long[] column, long value, int[] selection, int selected) {
+        int kept = 0;
+        for (int s = 0; s < selected; s++) {
+            int i = selection[s];
+            selection[kept] = i;
+            kept += column[i] == value ? 1 : 0;
+        }
+        return kept;
+    }
+
+    private Accumulator newAccumulator(GroupBy groupBy, LocalDate startDate, LocalDate endDate) {
+        switch (groupBy) {
+            case DAY: {
+                int low;
+                int high;
+                // Only days holding data get a slot, whatever range the caller asked for
+                synchronized (this) {
+                    low = startDate != null ? (int) Math.max(startDate.toEpochDay(), minEpochDay) : minEpochDay;
+                    high = endDate != null ? (int) Math.min(endDate.toEpochDay(), maxEpochDay) : maxEpochDay;
+                }
+                if (high < low) {
+                    return new DenseAccumulator(0, 0, chunk -> null, key -> "");
+                }
+                int base = low;
+                return new DenseAccumulator(high - low + 1, -base, chunk -> chunk.epochDay,
+                        key -> LocalDate.ofEpochDay(key + base).toString());
+            }
+            case HOUR:
+                return new DenseAccumulator(24, 0, chunk -> chunk.hour, key -> String.format("%02d:00", key));
+            case DAY_OF_WEEK:
+                return new DenseAccumulator(7, 0, chunk -> chunk.dayOfWeek, key -> DayOfWeek.of(key + 1).name());
+            case STATUS:
+                return new DenseAccumulator(STATUSES.length, 0, chunk -> chunk.status, key -> STATUSES[key].name());
+            case PAYMENT_METHOD: {
+                String[] names = paymentNames;
+                return new DenseAccumulator(Byte.MAX_VALUE + 1, 0, chunk -> chunk.paymentMethod,
+                        key -> key < names.length ? names[key] : "UNKNOWN");
+            }
+            case CATEGORY:
+                return new SparseAccumulator(chunk -> chunk.categoryId);
+            case PRODUCT:
+                return new SparseAccumulator(chunk -> chunk.productId);
+            case USER:
+                return new SparseAccumulator(chunk -> chunk.userId);
+            case NONE:
+            default:
+                return new DenseAccumulator(1, 0, chunk -> null, key -> "ALL");
+        }
+    }
+
+    private static final class Filter {
+        long fromMillis;
+        long toMillis;
+        int statusMask;
+        long userId;
+        long productId;
+        long categoryId;
+    }
+
+    private interface Accumulator {
+
+        void add(Chunk chunk, int[] selection, int selected, boolean countLines);
+
+        List<AnalyticsResult.Bucket> buckets();
+    }
+
+    /**
+     * Group-by over a small integer key domain (days in range, hours, statuses...):
+     * sums land in flat arrays indexed by key, no hashing or boxing per row.
+     */
+    private static final class DenseAccumulator implements Accumulator {
+
+        private final long[] cents;
+        private final long[] orders;
+        private final long[] units;
+        private final int offset;
+        private final Function<Chunk, Object> keyColumn;
+        private final IntFunction<String> label;
+
+        DenseAccumulator(int domain, int offset, Function<Chunk, Object> keyColumn,
+                IntFunction<String> label) {
+            this.cents = new long[domain];
+            this.orders = new long[domain];
+            this.units = new long[domain];
+            this.offset = offset;
+            this.keyColumn = keyColumn;
+            this.label = label;
+        }
+
+        @Override
+        public void add(Chunk chunk, int[] selection, int selected, boolean countLines) {
+            if (cents.length == 0) {
+                return;
+            }
+            // Resolve the key column once per chunk so the per-row loops stay monomorphic
+            Object column = keyColumn.apply(chunk);
+            if (column instanceof byte[] keys) {
+                for (int s = 0; s < selected; s++) {
+                    int i = selection[s];
+                    accumulate(keys[i] + offset, chunk, i, countLines);
+                }
+            } else if (column instanceof int[] keys) {
+                for (int s = 0; s < selected; s++) {
+                    int i = selection[s];
+                    accumulate(keys[i] + offset, chunk, i, countLines);
+                }
+            } else {
+                for (int s = 0; s < selected; s++) {
+                    accumulate(offset, chunk, selection[s], countLines);
+                }
+            }
+        }
+
+        private void accumulate(int key, Chunk chunk, int i, boolean countLines) {
+            if (key < 0 || key >= cents.length) {
+                return;
+            }
+            cents[key] += chunk.cents[i];
+            units[key] += chunk.quantity[i];
+            orders[key] += countLines || chunk.firstLine[i] ? 1 : 0;
+        }
+
+        @Override
+        public List<AnalyticsResult.Bucket> buckets() {
+            List<AnalyticsResult.Bucket> buckets = new ArrayList<>();
+            for (int key = 0; key < cents.length; key++) {
+                if (orders[key] == 0 && units[key] == 0) {
+                    continue;
+                }
+                buckets.add(new AnalyticsResult.Bucket(label.apply(key - offset), BigDecimal.valueOf(cents[key], 2),
+                        orders[key], units[key]));
+            }
+            return buckets;
+        }
+    }
+
+    // Group-by over id columns with unbounded cardinality
+    private static final class SparseAccumulator implements Accumulator {
+
+        private final Function<Chunk, long[]> keyColumn;
+        private final Map<Long, long[]> sums = new HashMap<>();
+
+        SparseAccumulator(Function<Chunk, long[]> keyColumn) {
+            this.keyColumn = keyColumn;
+        }
+
+        @Override
+        public void add(Chunk chunk, int[] selection, int selected, boolean countLines) {
+            long[] keys = keyColumn.apply(chunk);
+            for (int s = 0; s < selected; s++) {
+                int i = selection[s];
+                long[] sum = sums.computeIfAbsent(keys[i], k -> new long[3]);
+                sum[0] += chunk.cents[i];
+                sum[1] += countLines || chunk.firstLine[i] ? 1 : 0;
+                sum[2] += chunk.quantity[i];
+            }
+        }
+
+        @Override
+        public List<AnalyticsResult.Bucket> buckets() {
+            List<AnalyticsResult.Bucket> buckets = new ArrayList<>(sums.size());
+            sums.forEach((key, sum) -> buckets.add(new AnalyticsResult.Bucket(
+                    key < 0 ? "UNKNOWN" : String.valueOf(key), BigDecimal.valueOf(sum[0], 2), sum[1], sum[2])));
+            buckets.sort((a, b) -> b.getRevenue().compareTo(a.getRevenue()));
+            return buckets;
+        }
+    }
+
+    private static final class Chunk {
+        final long[] orderId = new long[CHUNK_SIZE];
+        final long[] timestamp = new long[CHUNK_SIZE];
+        final int[] epochDay = new int[CHUNK_SIZE];
+        final byte[] hour = new byte[CHUNK_SIZE];
+        final byte[] dayOfWeek = new byte[CHUNK_SIZE];
+        final long[] cents = new long[CHUNK_SIZE];
+        final int[] quantity = new int[CHUNK_SIZE];
+        final byte[] status = new byte[CHUNK_SIZE];
+        final byte[] paymentMethod = new byte[CHUNK_SIZE];
+        final long[] userId = new long[CHUNK_SIZE];
+        final long[] productId = new long[CHUNK_SIZE];
+        final long[] categoryId = new long[CHUNK_SIZE];
+        final boolean[] firstLine = new boolean[CHUNK_SIZE];
+    }
+
+    // Open-addressing long -> long map (values >= 0, -1 means absent); avoids a boxed entry per order
+    private static final class LongLongMap {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys = newKeys(1 << 12);
+        private long[] values = new long[1 << 12];
+        private int count;
+
+        long get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+                long existing = keys[slot];
+                if (existing == EMPTY) {
+                    return -1;
+                }
+                if (existing == key) {
+                    return values[slot];
+                }
+            }
+        }
+
+        void put(long key, long value) {
+            if ((count + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+                long existing = keys[slot];
+                if (existing == EMPTY || existing == key) {
+                    if (existing == EMPTY) {
+                        count++;
+                    }
+                    keys[slot] = key;
+                    values[slot] = value;
+                    return;
+                }
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new long[oldKeys.length * 2];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
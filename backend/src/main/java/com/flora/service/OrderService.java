@@ -1,23 +1,46 @@
 package com.flora.service;
 
+import com.flora.dto.BulkStatusUpdateResponse;
+import com.flora.dto.CursorPage;
 import com.flora.dto.OrderRequest;
+import com.flora.dto.OrderSearchCriteria;
 import com.flora.dto.DeliveryRequest;
+import com.flora.dto.OrderSummaryResponse;
+import com.flora.event.DeliveryStatusChangedEvent;
+import com.flora.event.OrderCreatedEvent;
+import com.flora.event.OrderStatusChangedEvent;
+import com.flora.event.StockLevelChangedEvent;
+import com.flora.exception.ConflictException;
 import com.flora.model.*;
 import com.flora.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -36,6 +59,24 @@ public class OrderService {
     @Autowired
     private DeliveryService deliveryService;
 
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private IdGeneratorService idGeneratorService;
+
+    @Autowired
+    private OrderQueryRepository orderQueryRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private SlotCapacityService slotCapacityService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Order createOrder(String username, OrderRequest request) {
         User user = userRepository.findByEmail(username)
                 .orElseGet(() -> userRepository.findByUsername(username)
@@ -49,7 +90,7 @@ public class OrderService {
         }
 
         Order order = new Order();
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(idGeneratorService.nextOrderNumber());
         order.setUser(user);
         order.setShippingAddress(request.getShippingAddress());
         order.setShippingCity(request.getShippingCity());
@@ -94,13 +135,19 @@ public class OrderService {
             // Update product stock
             product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
             productRepository.save(product);
+            eventPublisher.publishEvent(new StockLevelChangedEvent(product.getId()));
         }
 
         order.setTotalAmount(totalAmount);
         Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderCreatedEvent(savedOrder));
+
+        // Claim a delivery slot; it is booked when this transaction commits, or the order fails
+        SlotCapacityService.Reservation slot = slotCapacityService.reserve(savedOrder.getShippingZipCode(),
+                request.getDeliveryDate(), request.getDeliveryTimeSlot());
 
         // Automatically create delivery for the order
-        createDeliveryForOrder(savedOrder);
+        createDeliveryForOrder(savedOrder, slot);
 
         // Clear cart after order
         cart.getItems().clear();
@@ -109,15 +156,14 @@ public class OrderService {
         return savedOrder;
     }
 
-    private void createDeliveryForOrder(Order order) {
+    private void createDeliveryForOrder(Order order, SlotCapacityService.Reservation slot) {
         try {
             DeliveryRequest deliveryRequest = new DeliveryRequest();
             deliveryRequest.setOrderId(order.getId());
             deliveryRequest.setDeliveryType(Delivery.DeliveryType.STANDARD);
 
-            // Schedule delivery for next day by default
-            deliveryRequest.setScheduledDate(LocalDate.now().plusDays(1));
-            deliveryRequest.setScheduledTimeSlot("9:00 AM - 5:00 PM");
+            deliveryRequest.setScheduledDate(slot.getDate());
+            deliveryRequest.setScheduledTimeSlot(slot.getTimeSlot());
 
             // Use order shipping details
             deliveryRequest.setDeliveryAddress(order.getShippingAddress());
@@ -145,12 +191,40 @@ public class OrderService {
         }
     }
 
-    public List<Order> getUserOrders(String username) {
+    @Transactional(readOnly = true)
+    public CursorPage<OrderView> getUserOrders(String username, String cursor, int limit) {
+        User user = userRepository.findByEmail(username)
+                .orElseGet(() -> userRepository.findByUsername(username)
+                        .orElseThrow(() -> new RuntimeException("User not found")));
+
+        int pageSize = clampPageSize(limit);
+        List<OrderView> views = orderViewRepository.findPageByUserId(user.getId(), parseCursor(cursor),
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = views.size() > pageSize;
+        if (hasMore) {
+            views = views.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore ? String.valueOf(views.get(views.size() - 1).getId()) : null;
+        return new CursorPage<>(views, nextCursor, hasMore);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummaryResponse> getUserOrderSummaries(String username, String cursor, int limit) {
         User user = userRepository.findByEmail(username)
                 .orElseGet(() -> userRepository.findByUsername(username)
                         .orElseThrow(() -> new RuntimeException("User not found")));
 
-        return orderRepository.findByUserId(user.getId());
+        int pageSize = clampPageSize(limit);
+        List<OrderSummaryResponse> summaries = orderViewRepository.findSummaryPageByUserId(user.getId(),
+                parseCursor(cursor), PageRequest.of(0, pageSize + 1));
+        boolean hasMore = summaries.size() > pageSize;
+        if (hasMore) {
+            summaries = summaries.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore ? String.valueOf(summaries.get(summaries.size() - 1).getId()) : null;
+        return new CursorPage<>(summaries, nextCursor, hasMore);
     }
 
     public Order getOrderById(Long id) {
@@ -163,17 +237,205 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Order not found with order number: " + orderNumber));
     }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<OrderView> getAllOrders(String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        List<OrderView> views = orderViewRepository.findPage(parseCursor(cursor), PageRequest.of(0, pageSize + 1));
+        boolean hasMore = views.size() > pageSize;
+        if (hasMore) {
+            views = views.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore ? String.valueOf(views.get(views.size() - 1).getId()) : null;
+        return new CursorPage<>(views, nextCursor, hasMore);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummaryResponse> searchOrders(OrderSearchCriteria criteria, String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        Object afterValue = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('|');
+                afterValue = OrderQueryRepository.parseSortValue(criteria, decoded.substring(0, separator));
+                afterId = Long.valueOf(decoded.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
+            }
+        }
+
+        List<OrderSummaryResponse> rows = orderQueryRepository.findPage(criteria, afterValue, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummaryResponse last = rows.get(rows.size() - 1);
+            Object sortValue = OrderQueryRepository.isAmountSort(criteria) ? last.getTotalAmount().toPlainString()
+                    : last.getCreatedAt().toString();
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((sortValue + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new CursorPage<>(rows, nextCursor, hasMore);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportOrders(OrderSearchCriteria criteria, Writer writer) throws IOException {
+        writer.write("orderNumber,customerId,customerEmail,totalAmount,status,paymentStatus,paymentMethod,createdAt\n");
+        try {
+            orderQueryRepository.stream(criteria, row -> {
+                try {
+                    writer.write(String.join(",",
+                            csv(row.getOrderNumber()),
+                            csv(row.getUserId()),
+                            csv(row.getCustomerEmail()),
+                            csv(row.getTotalAmount()),
+                            csv(row.getStatus()),
+                            csv(row.getPaymentStatus()),
+                            csv(row.getPaymentMethod()),
+                            csv(row.getCreatedAt())));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
     }
 
     public Order updateOrderStatus(Long id, Order.OrderStatus status) {
         Order order = getOrderById(id);
-        order.setStatus(status);
-        return orderRepository.save(order);
+        Order.OrderStatus previousStatus = order.getStatus();
+        if (previousStatus == status) {
+            return order;
+        }
+        if (!previousStatus.canTransitionTo(status)) {
+            throw new ConflictException("Order " + order.getOrderNumber() + " cannot move from " + previousStatus
+                    + " to " + status);
+        }
+
+        // Guarded by the status read above, so the event's previousStatus is the one actually replaced
+        // and two racing updates can't both move the order out of the same status
+        LocalDateTime now = LocalDateTime.now();
+        if (orderRepository.transitionStatus(List.of(id), previousStatus, status, now) == 0) {
+            throw new ConflictException("Order " + order.getOrderNumber() + " was changed by someone else, "
+                    + "please reload and retry");
+        }
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(id, order.getOrderNumber(), order.getUser().getId(),
+                previousStatus, status, now));
+        // As in the bulk update, so a cancelled order's deliveries are cancelled and give back their slots
+        moveDeliveries(Set.of(id), status, now);
+        return getOrderById(id);
     }
 
-    private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    public BulkStatusUpdateResponse bulkUpdateOrderStatus(List<Long> orderIds, Order.OrderStatus target) {
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        // Read under row locks, so the guarded UPDATEs below replace exactly these statuses
+        // and the events report the status each order really left
+        Map<Long, Order.OrderStatus> currentStatuses = new HashMap<>();
+        for (Object[] row : orderRepository.lockStatusesByIdIn(ids)) {
+            currentStatuses.put(((Number) row[0]).longValue(), Order.OrderStatus.valueOf((String) row[1]));
+        }
+
+        // One guarded UPDATE per distinct source status instead of a load/save per order
+        Map<Order.OrderStatus, List<Long>> bySourceStatus = new EnumMap<>(Order.OrderStatus.class);
+        for (Long id : ids) {
+            Order.OrderStatus current = currentStatuses.get(id);
+            if (current != null && current.canTransitionTo(target)) {
+                bySourceStatus.computeIfAbsent(current, k -> new ArrayList<>()).add(id);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> updated = new HashSet<>();
+        for (Map.Entry<Order.OrderStatus, List<Long>> group : bySourceStatus.entrySet()) {
+            int count = orderRepository.transitionStatus(group.getValue(), group.getKey(), target, now);
+            if (count != group.getValue().size()) {
+                // Can't tell which rows matched; roll the whole batch back rather than misreport
+                throw new ConflictException("Orders changed while being updated, please retry");
+            }
+            updated.addAll(group.getValue());
+        }
+
+        if (!updated.isEmpty()) {
+            for (Object[] row : orderRepository.findNumbersAndUsersByIdIn(updated)) {
+                Long orderId = (Long) row[0];
+                eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, (String) row[1], (Long) row[2],
+                        currentStatuses.get(orderId), target, now));
+            }
+        }
+
+        int updatedDeliveries = updated.isEmpty() ? 0 : moveDeliveries(updated, target, now);
+
+        List<BulkStatusUpdateResponse.Result> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Order.OrderStatus previous = currentStatuses.get(id);
+            BulkStatusUpdateResponse.Outcome outcome;
+            if (previous == null) {
+                outcome = BulkStatusUpdateResponse.Outcome.NOT_FOUND;
+            } else if (updated.contains(id)) {
+                outcome = BulkStatusUpdateResponse.Outcome.UPDATED;
+            } else if (!previous.canTransitionTo(target)) {
+                outcome = BulkStatusUpdateResponse.Outcome.INVALID_TRANSITION;
+            } else {
+                outcome = BulkStatusUpdateResponse.Outcome.CONFLICT;
+            }
+            results.add(new BulkStatusUpdateResponse.Result(id, previous, outcome));
+        }
+
+        return new BulkStatusUpdateResponse(target, updated.size(), updatedDeliveries, results);
+    }
+
+    // Moves the open deliveries of orders that just moved to the status along with them; returns how many moved
+    private int moveDeliveries(Set<Long> orderIds, Order.OrderStatus target, LocalDateTime now) {
+        Delivery.DeliveryStatus deliveryStatus = target.deliveryStatus();
+        if (deliveryStatus == null) {
+            return 0;
+        }
+        List<Delivery.DeliveryStatus> finalStatuses = List.of(Delivery.DeliveryStatus.DELIVERED,
+                Delivery.DeliveryStatus.CANCELLED, Delivery.DeliveryStatus.RETURNED);
+        // Captured before the set-based UPDATE so subscribers still get one event per delivery
+        List<Object[]> affectedDeliveries = deliveryRepository.findStatusRowsForOrders(orderIds, finalStatuses);
+        int moved = deliveryStatus == Delivery.DeliveryStatus.DELIVERED
+                ? deliveryRepository.markDeliveredForOrders(orderIds, deliveryStatus, finalStatuses, now)
+                : deliveryRepository.updateStatusForOrders(orderIds, deliveryStatus, finalStatuses, now);
+        for (Object[] row : affectedDeliveries) {
+            eventPublisher.publishEvent(new DeliveryStatusChangedEvent((Long) row[0], (String) row[1],
+                    (Long) row[3], (String) row[4], (Long) row[5], (Delivery.DeliveryStatus) row[2],
+                    deliveryStatus, (String) row[6], now, null));
+        }
+        return moved;
+    }
+
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private Long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
     }
 }
@@ -0,0 +1,178 @@
+package com.flora.service;
+
+import com.flora.dto.DeliveryResponse;
+import com.flora.event.DeliveryStatusChangedEvent;
+import com.flora.event.OrderCreatedEvent;
+import com.flora.event.OrderStatusChangedEvent;
+import com.flora.model.Delivery;
+import com.flora.model.Order;
+import com.flora.model.OrderItem;
+import com.flora.model.OrderView;
+import com.flora.model.Product;
+import com.flora.model.User;
+import com.flora.repository.DeliveryRepository;
+import com.flora.repository.OrderRepository;
+import com.flora.repository.OrderViewRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the order_views read model in step with the normalized tables. Listeners
+ * run before commit, inside the writing transaction, so a view never disagrees
+ * with a committed order.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderViewProjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderViewProjector.class);
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    // Inline data: URIs can be megabytes; only plain links are copied into the view
+    private static final int MAX_IMAGE_URL_LENGTH = 2048;
+
+    private final OrderViewRepository orderViewRepository;
+    private final OrderRepository orderRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final DeliveryService deliveryService;
+    private final PlatformTransactionManager transactionManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        orderViewRepository.save(buildView(event.getOrder(), null));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        orderViewRepository.findById(event.getOrderId()).ifPresent(view -> {
+            view.setStatus(event.getStatus());
+            view.setUpdatedAt(event.getChangedAt());
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDeliveryStatusChanged(DeliveryStatusChangedEvent event) {
+        if (event.getOrderId() == null) {
+            return;
+        }
+        orderViewRepository.findById(event.getOrderId()).ifPresent(view -> {
+            DeliveryResponse delivery = event.getSnapshot();
+            if (delivery == null) {
+                // Set-based bulk update: patch the stored snapshot instead of reloading the delivery
+                delivery = view.getDelivery();
+                if (delivery == null || !event.getTrackingNumber().equals(delivery.getTrackingNumber())) {
+                    return;
+                }
+                delivery.setStatus(event.getStatus());
+                delivery.setUpdatedAt(event.getChangedAt());
+                if (event.getStatus() == Delivery.DeliveryStatus.DELIVERED) {
+                    delivery.setActualDeliveryTime(event.getChangedAt());
+                }
+            }
+            applyDelivery(view, delivery);
+            view.setUpdatedAt(event.getChangedAt());
+            orderViewRepository.save(view);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingViews() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int total = 0;
+        while (true) {
+            Integer built = transaction.execute(status -> {
+                List<Long> ids = orderViewRepository.findOrderIdsWithoutView(PageRequest.of(0, BACKFILL_BATCH_SIZE));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                Map<Long, Delivery> latestDeliveries = deliveryRepository.findByOrderIdIn(ids).stream()
+                        .collect(Collectors.toMap(d -> d.getOrder().getId(), d -> d,
+                                (a, b) -> a.getId() > b.getId() ? a : b));
+                List<OrderView> views = new ArrayList<>(ids.size());
+                for (Order order : orderRepository.findWithItemsByIdIn(ids)) {
+                    Delivery delivery = latestDeliveries.get(order.getId());
+                    views.add(buildView(order, delivery != null ? deliveryService.convertToResponse(delivery) : null));
+                }
+                orderViewRepository.saveAll(views);
+                return views.size();
+            });
+            if (built == null || built == 0) {
+                break;
+            }
+            total += built;
+        }
+        if (total > 0) {
+            logger.info("Backfilled {} order views", total);
+        }
+    }
+
+    private OrderView buildView(Order order, DeliveryResponse delivery) {
+        OrderView view = new OrderView();
+        view.setId(order.getId());
+        view.setOrderNumber(order.getOrderNumber());
+
+        User user = order.getUser();
+        view.setUserId(user.getId());
+        view.setCustomerName(user.getFirstName() != null && user.getLastName() != null
+                ? user.getFirstName() + " " + user.getLastName()
+                : user.getUsername());
+        view.setCustomerEmail(order.getCustomerEmail());
+        view.setCustomerPhone(order.getCustomerPhone());
+
+        view.setTotalAmount(order.getTotalAmount());
+        view.setStatus(order.getStatus());
+        view.setPaymentStatus(order.getPaymentStatus());
+        view.setPaymentMethod(order.getPaymentMethod());
+        view.setShippingAddress(order.getShippingAddress());
+        view.setShippingCity(order.getShippingCity());
+        view.setShippingState(order.getShippingState());
+        view.setShippingZipCode(order.getShippingZipCode());
+        view.setShippingCountry(order.getShippingCountry());
+
+        List<OrderView.Line> lines = order.getOrderItems().stream()
+                .sorted(Comparator.comparing(OrderItem::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(this::toLine)
+                .collect(Collectors.toList());
+        view.setOrderItems(lines);
+        view.setItemCount(lines.stream().mapToInt(OrderView.Line::getQuantity).sum());
+
+        applyDelivery(view, delivery);
+
+        LocalDateTime now = LocalDateTime.now();
+        view.setCreatedAt(order.getCreatedAt() != null ? order.getCreatedAt() : now);
+        view.setUpdatedAt(order.getUpdatedAt() != null ? order.getUpdatedAt() : now);
+        return view;
+    }
+
+    private OrderView.Line toLine(OrderItem item) {
+        Product product = item.getProduct();
+        String imageUrl = product.getImageUrl();
+        if (imageUrl != null && imageUrl.length() > MAX_IMAGE_URL_LENGTH) {
+            imageUrl = null;
+        }
+        return new OrderView.Line(item.getId(), product.getId(), product.getName(), imageUrl,
+                item.getQuantity(), item.getPrice(), item.getSubtotal());
+    }
+
+    private void applyDelivery(OrderView view, DeliveryResponse delivery) {
+        view.setDelivery(delivery);
+        view.setTrackingNumber(delivery != null ? delivery.getTrackingNumber() : null);
+        view.setDeliveryStatus(delivery != null ? delivery.getStatus() : null);
+    }
+}
@@ -0,0 +1,99 @@
+package com.flora.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring of GPS fixes stored column-wise in
+ * preallocated primitive arrays. Producers claim a slot with one CAS on the claim
+ * counter and publish it by writing the slot's sequence number; they never block
+ * and {@link #offer} fails instead when the ring is full. The consumer reads slots
+ * in sequence order and stops at the first one not yet published.
+ */
+final class PositionRingBuffer {
+
+    // Marks an absent accuracy
+    static final short NO_ACCURACY = -1;
+
+    private final int capacity;
+    private final int mask;
+    private final long[] deliveryIds;
+    private final long[] recordedAtMillis;
+    private final int[] latitudesE7;
+    private final int[] longitudesE7;
+    private final short[] accuracies;
+    // Sequence number last published into each slot, -1 before first use
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed = new AtomicLong();
+    // Next sequence to consume; written only by the consumer
+    private volatile long consumed;
+
+    PositionRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1) << 1);
+        this.mask = capacity - 1;
+        this.deliveryIds = new long[capacity];
+        this.recordedAtMillis = new long[capacity];
+        this.latitudesE7 = new int[capacity];
+        this.longitudesE7 = new int[capacity];
+        this.accuracies = new short[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    boolean offer(long deliveryId, long recordedAt, int latitudeE7, int longitudeE7, short accuracy) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        deliveryIds[index] = deliveryId;
+        recordedAtMillis[index] = recordedAt;
+        latitudesE7[index] = latitudeE7;
+        longitudesE7[index] = longitudeE7;
+        accuracies[index] = accuracy;
+        // Release: the field writes above become visible before the slot reads as published
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} published fixes to the sink in order and frees their
+     * slots; returns how many were drained. Callers must not drain concurrently.
+     */
+    int drain(Sink sink, int max) {
+        long next = consumed;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (next & mask);
+            if (published.get(index) != next) {
+                break;
+            }
+            sink.accept(deliveryIds[index], recordedAtMillis[index], latitudesE7[index], longitudesE7[index],
+                    accuracies[index]);
+            next++;
+            drained++;
+        }
+        consumed = next;
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, claimed.get() - consumed);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    @FunctionalInterface
+    interface Sink {
+        void accept(long deliveryId, long recordedAt, int latitudeE7, int longitudeE7, short accuracy);
+    }
+}
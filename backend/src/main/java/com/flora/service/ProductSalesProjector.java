@@ -0,0 +1,97 @@
+package com.flora.service;
+
+import com.flora.event.OrderCreatedEvent;
+import com.flora.event.OrderStatusChangedEvent;
+import com.flora.model.Order;
+import com.flora.model.OrderItem;
+import com.flora.repository.DailyProductSalesRepository;
+import com.flora.repository.OrderItemRepository;
+import com.flora.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintains daily_product_sales, the per-day per-product counters behind the
+ * best seller reports. Like the sales rollups, deltas are applied before commit
+ * inside the writing transaction. Cancelled orders don't count, so a
+ * cancellation takes its lines back out of their creation day. Status changes
+ * are guarded transitions in {@link OrderService}, so two racing cancellations
+ * produce one event and the lines are taken out once.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSalesProjector implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSalesProjector.class);
+
+    private final DailyProductSalesRepository productSalesRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProjectionBackfillService backfillService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+            return;
+        }
+        LocalDate day = salesDay(order.getCreatedAt());
+        for (OrderItem item : order.getOrderItems()) {
+            Long categoryId = item.getProduct().getCategory() != null ? item.getProduct().getCategory().getId() : null;
+            productSalesRepository.applyDelta(day, item.getProduct().getId(), categoryId, item.getQuantity(),
+                    item.getSubtotal());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        boolean wasCancelled = event.getPreviousStatus() == Order.OrderStatus.CANCELLED;
+        boolean isCancelled = event.getStatus() == Order.OrderStatus.CANCELLED;
+        if (event.getPreviousStatus() == null || wasCancelled == isCancelled) {
+            return;
+        }
+        List<Object[]> facts = orderRepository.findRollupFactsById(event.getOrderId());
+        if (facts.isEmpty()) {
+            return;
+        }
+        // The transition is a guarded UPDATE in this transaction, so the row must show the new status;
+        // anything else means the event does not describe what this transaction wrote
+        if (facts.get(0)[4] != event.getStatus()) {
+            logger.warn("Ignoring status change of order {} to {}; the order is {}", event.getOrderId(),
+                    event.getStatus(), facts.get(0)[4]);
+            return;
+        }
+
+        LocalDate day = salesDay((LocalDateTime) facts.get(0)[0]);
+        int sign = isCancelled ? -1 : 1;
+        for (Object[] line : orderItemRepository.findSalesLinesByOrderId(event.getOrderId())) {
+            BigDecimal subtotal = (BigDecimal) line[3];
+            productSalesRepository.applyDelta(day, (Long) line[0], (Long) line[1],
+                    sign * ((Number) line[2]).longValue(), isCancelled ? subtotal.negate() : subtotal);
+        }
+    }
+
+    // Loads the counters from the order history once, as for the sales rollups. Runs before the
+    // ApplicationReadyEvent on which BestSellerTracker loads today's counters.
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfillService.runOnce("daily_product_sales", () -> {
+            productSalesRepository.deleteAllInBatch();
+            return productSalesRepository.rebuildFromOrders();
+        });
+    }
+
+    private static LocalDate salesDay(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt.toLocalDate() : LocalDate.now();
+    }
+}
@@ -1,8 +1,10 @@
 package com.flora.service;
 
+import com.flora.event.StockLevelChangedEvent;
 import com.flora.model.Product;
 import com.flora.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +16,9 @@ public class ProductService {
     
     @Autowired
     private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     public List<Product> getAllProducts() {
         return productRepository.findAll();
@@ -45,7 +50,9 @@ public class ProductService {
     }
     
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        publishStockLevel(savedProduct);
+        return savedProduct;
     }
     
     public Product updateProduct(Long id, Product productDetails) {
@@ -55,6 +62,7 @@ public class ProductService {
         product.setDescription(productDetails.getDescription());
         product.setPrice(productDetails.getPrice());
         product.setStockQuantity(productDetails.getStockQuantity());
+        product.setReorderThreshold(productDetails.getReorderThreshold());
         product.setImageUrl(productDetails.getImageUrl());
         product.setCategory(productDetails.getCategory());
         product.setSku(productDetails.getSku());
@@ -62,11 +70,18 @@ public class ProductService {
         product.setFeatured(productDetails.getFeatured());
         product.setDiscount(productDetails.getDiscount());
         
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        publishStockLevel(savedProduct);
+        return savedProduct;
     }
     
     public void deleteProduct(Long id) {
         Product product = getProductById(id);
         productRepository.delete(product);
+        eventPublisher.publishEvent(new StockLevelChangedEvent(id));
+    }
+
+    private void publishStockLevel(Product product) {
+        eventPublisher.publishEvent(new StockLevelChangedEvent(product.getId()));
     }
 }
@@ -0,0 +1,52 @@
+package com.flora.service;
+
+import com.flora.model.ProjectionBackfill;
+import com.flora.repository.ProjectionBackfillRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs each read model's rebuild from its source tables once per database. The
+ * projectors call it from {@code afterSingletonsInstantiated}, before the web
+ * server accepts requests, so no live write can land in the table first. Whether
+ * a rebuild happened is recorded in projection_backfills rather than guessed from
+ * the table being empty; its marker row stays locked while the rebuild runs, so
+ * nodes starting together rebuild once. A rebuild must replace whatever the table
+ * holds, so one interrupted or repeated is harmless.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProjectionBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectionBackfillService.class);
+
+    private final ProjectionBackfillRepository backfillRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    public void runOnce(String name, IntSupplier rebuild) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Committed on its own, so the locking read below never has to upgrade the insert's shared lock
+        transaction.executeWithoutResult(status -> backfillRepository.insertIfAbsent(name));
+        Integer rows = transaction.execute(status -> {
+            ProjectionBackfill marker = backfillRepository.findForUpdate(name)
+                    .orElseThrow(() -> new IllegalStateException("Backfill marker missing for " + name));
+            if (marker.getCompletedAt() != null) {
+                return null;
+            }
+            int rebuilt = rebuild.getAsInt();
+            marker.setCompletedAt(LocalDateTime.now());
+            backfillRepository.save(marker);
+            return rebuilt;
+        });
+        if (rows != null) {
+            logger.info("Backfilled {} rows of {}", rows, name);
+        }
+    }
+}
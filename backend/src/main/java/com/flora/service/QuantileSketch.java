@@ -0,0 +1,201 @@
+package com.flora.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Mergeable quantile sketch in the style of DDSketch: values are counted in
+ * logarithmically sized buckets, so any quantile comes back within 1% relative
+ * error of a value actually seen, whatever the distribution. Two sketches merge
+ * exactly by adding bucket counts, which lets per-day sketches answer any range.
+ * Values with magnitude below 1 (here: less than a minute) share a single zero
+ * bucket. Not thread-safe.
+ */
+public final class QuantileSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final double MIN_INDEXABLE = 1.0;
+    private static final byte FORMAT = 1;
+
+    // Bucket index -> count, for values >= MIN_INDEXABLE and <= -MIN_INDEXABLE respectively
+    private final NavigableMap<Integer, Long> positive = new TreeMap<>();
+    private final NavigableMap<Integer, Long> negative = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        if (value >= MIN_INDEXABLE) {
+            positive.merge(index(value), 1L, Long::sum);
+        } else if (value <= -MIN_INDEXABLE) {
+            negative.merge(index(-value), 1L, Long::sum);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(QuantileSketch other) {
+        other.positive.forEach((index, n) -> positive.merge(index, n, Long::sum));
+        other.negative.forEach((index, n) -> negative.merge(index, n, Long::sum));
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // NaN when empty
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(Math.max(0, Math.min(1, q)) * (count - 1));
+
+        // Ascending value order: most negative first, then zero, then positive
+        long seen = 0;
+        Iterator<Map.Entry<Integer, Long>> negatives = negative.descendingMap().entrySet().iterator();
+        while (negatives.hasNext()) {
+            Map.Entry<Integer, Long> bucket = negatives.next();
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return clamp(-value(bucket.getKey()));
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return clamp(0);
+        }
+        for (Map.Entry<Integer, Long> bucket : positive.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return clamp(value(bucket.getKey()));
+            }
+        }
+        return max;
+    }
+
+    // Share of values that are <= 0, counting the zero bucket as 0; NaN when empty
+    public double fractionAtMostZero() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long atMostZero = zeroCount;
+        for (long n : negative.values()) {
+            atMostZero += n;
+        }
+        return (double) atMostZero / count;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 + 4 * (positive.size() + negative.size()));
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(FORMAT);
+            writeVarLong(out, zeroCount);
+            out.writeDouble(min);
+            out.writeDouble(max);
+            writeBuckets(out, positive);
+            writeBuckets(out, negative);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        QuantileSketch sketch = new QuantileSketch();
+        if (bytes == null || bytes.length == 0) {
+            return sketch;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != FORMAT) {
+                throw new IllegalArgumentException("Unrecognized quantile sketch format");
+            }
+            sketch.zeroCount = readVarLong(in);
+            sketch.min = in.readDouble();
+            sketch.max = in.readDouble();
+            sketch.count = sketch.zeroCount + readBuckets(in, sketch.positive) + readBuckets(in, sketch.negative);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt quantile sketch", e);
+        }
+        return sketch;
+    }
+
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA);
+    }
+
+    // Midpoint of the bucket in relative terms, which is what bounds the error by RELATIVE_ACCURACY
+    private static double value(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    // Bucket count, then (index delta, count) pairs in ascending index order
+    private static void writeBuckets(DataOutputStream out, NavigableMap<Integer, Long> buckets) throws IOException {
+        writeVarLong(out, buckets.size());
+        int previous = 0;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            int delta = bucket.getKey() - previous;
+            // Zigzag, as the first index may be negative
+            writeVarLong(out, ((delta << 1) ^ (delta >> 31)) & 0xFFFFFFFFL);
+            writeVarLong(out, bucket.getValue());
+            previous = bucket.getKey();
+        }
+    }
+
+    private static long readBuckets(DataInputStream in, NavigableMap<Integer, Long> buckets) throws IOException {
+        long size = readVarLong(in);
+        long total = 0;
+        int previous = 0;
+        for (long i = 0; i < size; i++) {
+            int zigzag = (int) readVarLong(in);
+            int index = previous + ((zigzag >>> 1) ^ -(zigzag & 1));
+            long n = readVarLong(in);
+            buckets.put(index, n);
+            total += n;
+            previous = index;
+        }
+        return total;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,199 @@
+package com.flora.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flora.dto.OrderSearchCriteria;
+import com.flora.repository.OrderQueryRepository;
+import com.flora.repository.ReportQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Writes sales, inventory and delivery reports row by row as CSV or NDJSON. Rows
+ * come straight off a forward-only JDBC stream and go straight to the response,
+ * so memory use stays flat no matter how large the range is.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportExportService {
+
+    private static final String[] SALES_COLUMNS = {
+            "orderNumber", "createdAt", "customerId", "customerEmail", "status", "paymentStatus",
+            "paymentMethod", "totalAmount"
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OrderQueryRepository orderQueryRepository;
+    private final ReportQueryRepository reportQueryRepository;
+    private final ObjectMapper objectMapper;
+    private final LowStockIndex lowStockIndex;
+
+    public enum Format {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON("ndjson", new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public static Format from(String value) {
+            if (value == null || value.isBlank() || "csv".equalsIgnoreCase(value)) {
+                return CSV;
+            }
+            if ("ndjson".equalsIgnoreCase(value) || "jsonl".equalsIgnoreCase(value)) {
+                return NDJSON;
+            }
+            throw new RuntimeException("Unsupported export format: " + value);
+        }
+    }
+
+    public void exportSales(LocalDate startDate, LocalDate endDate, Format format, OutputStream out)
+            throws IOException {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setFromDate(startDate);
+        criteria.setToDate(endDate);
+        criteria.setDirection("asc");
+        write(out, format, SALES_COLUMNS, sink -> orderQueryRepository.stream(criteria, row -> sink.accept(
+                new Object[] { row.getOrderNumber(), row.getCreatedAt(), row.getUserId(), row.getCustomerEmail(),
+                        row.getStatus(), row.getPaymentStatus(), row.getPaymentMethod(), row.getTotalAmount() })));
+    }
+
+    public void exportInventory(Format format, OutputStream out) throws IOException {
+        write(out, format, ReportQueryRepository.INVENTORY_COLUMNS,
+                sink -> reportQueryRepository.streamInventory(lowStockIndex.getDefaultThreshold(), sink));
+    }
+
+    public void exportDeliveries(LocalDate startDate, LocalDate endDate, Format format, OutputStream out)
+            throws IOException {
+        write(out, format, ReportQueryRepository.DELIVERY_COLUMNS,
+                sink -> reportQueryRepository.streamDeliveries(startDate, endDate, sink));
+    }
+
+    private void write(OutputStream out, Format format, String[] columns, Consumer<Consumer<Object[]>> source)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rowWriter = format == Format.NDJSON ? new NdjsonRowWriter(writer, columns)
+                : new CsvRowWriter(writer, columns);
+        try {
+            source.accept(values -> {
+                try {
+                    rowWriter.write(values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.finish();
+    }
+
+    private interface RowWriter {
+
+        void write(Object[] values) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer, String[] columns) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(OrderService.csv(values[i]));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+        private final String[] columns;
+        private boolean empty = true;
+
+        private NdjsonRowWriter(Writer writer, String[] columns) throws IOException {
+            this.writer = writer;
+            this.columns = columns;
+            // Streaming generator: one object per line, nothing retained between rows
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                generator.writeFieldName(columns[i]);
+                if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Long || value instanceof Integer) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Boolean flag) {
+                    generator.writeBoolean(flag);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+            if (!empty) {
+                writer.write('\n');
+            }
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.flora.service;
+
+import com.flora.dto.CursorPage;
+import com.flora.dto.ReportJobRequest;
+import com.flora.dto.ReportJobResponse;
+import com.flora.event.DeliveryStatusChangedEvent;
+import com.flora.event.OrderCreatedEvent;
+import com.flora.event.OrderStatusChangedEvent;
+import com.flora.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs large custom-range reports in the background so they never hold a request
+ * thread. A job assembles the same {@link ReportService} figures as the interactive
+ * endpoints plus every detail row, fetched page by page, which is also what its
+ * progress counts. Jobs are keyed by report type, parameters and a data version
+ * bumped on every committed order or delivery change, so an identical submission
+ * reuses the queued, running or finished job until the data moves on or the
+ * result expires. Detail rows held by all jobs together are capped; the oldest
+ * finished jobs are dropped to make room, and a job that still cannot fit fails.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final int PAGE_SIZE = 200;
+
+    private final ReportService reportService;
+    private final long resultTtlNanos;
+    private final int maxRows;
+    private final int maxJobs;
+    private final long maxRetainedRows;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ConcurrentMap<String, Job> jobsById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Job> jobsByKey = new ConcurrentHashMap<>();
+
+    private final AtomicLong salesVersion = new AtomicLong();
+    private final AtomicLong deliveryVersion = new AtomicLong();
+    private final AtomicLong retainedRows = new AtomicLong();
+
+    public ReportJobService(ReportService reportService,
+            @Value("${flora.report-jobs.workers:2}") int workers,
+            @Value("${flora.report-jobs.queue-capacity:20}") int queueCapacity,
+            @Value("${flora.report-jobs.result-ttl-ms:600000}") long resultTtlMs,
+            @Value("${flora.report-jobs.max-rows:100000}") int maxRows,
+            @Value("${flora.report-jobs.max-jobs:100}") int maxJobs,
+            @Value("${flora.report-jobs.max-retained-rows:500000}") long maxRetainedRows) {
+        this.reportService = reportService;
+        this.resultTtlNanos = TimeUnit.MILLISECONDS.toNanos(resultTtlMs);
+        this.maxRows = maxRows;
+        this.maxJobs = maxJobs;
+        this.maxRetainedRows = maxRetainedRows;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads("report-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public ReportJobResponse submit(ReportJobRequest request) {
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new RuntimeException("endDate must not be before startDate");
+        }
+        purgeExpired();
+
+        String key = cacheKey(request);
+        Job[] created = new Job[1];
+        Job job = jobsByKey.compute(key, (k, existing) -> {
+            if (existing != null && existing.isReusable(resultTtlNanos)) {
+                return existing;
+            }
+            created[0] = new Job(UUID.randomUUID().toString(), key, request);
+            return created[0];
+        });
+
+        if (job == created[0]) {
+            if (jobsById.size() >= maxJobs) {
+                jobsByKey.remove(key, job);
+                throw new RuntimeException("Too many report jobs, please retry later");
+            }
+            jobsById.put(job.id, job);
+            try {
+                job.future = executor.submit(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobsByKey.remove(key, job);
+                jobsById.remove(job.id);
+                throw new RuntimeException("Too many report jobs queued, please retry later");
+            }
+        }
+        return job.toResponse();
+    }
+
+    public ReportJobResponse getStatus(String id) {
+        return find(id).toResponse();
+    }
+
+    // Null until the job has succeeded
+    public Map<String, Object> getResult(String id) {
+        Job job = find(id);
+        return job.status == Status.SUCCEEDED ? job.result : null;
+    }
+
+    public ReportJobResponse cancel(String id) {
+        Job job = find(id);
+        if (job.finish(Status.CANCELLED, null, null)) {
+            Future<?> future = job.future;
+            if (future != null) {
+                // Drops it from the queue, or interrupts the worker between pages
+                future.cancel(true);
+            }
+        }
+        jobsByKey.remove(job.key, job);
+        return job.toResponse();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        salesVersion.incrementAndGet();
+        // Checkout also creates the order's delivery
+        deliveryVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        salesVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeliveryStatusChanged(DeliveryStatusChangedEvent event) {
+        deliveryVersion.incrementAndGet();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            ReportJobRequest request = job.request;
+            Map<String, Object> result = new HashMap<>();
+            if (request.getType() == ReportJobRequest.Type.SALES) {
+                Map<String, Object> summary = reportService.getSalesReport(request.getStartDate(),
+                        request.getEndDate());
+                long orders = ((Number) summary.get("totalOrders")).longValue();
+                job.plan(2 + Math.min(orders, maxRows));
+                result.put("summary", summary);
+                result.put("timeSeries", reportService.getSalesTimeSeries(request.getStartDate(),
+                        request.getEndDate(), request.getGranularity() != null ? request.getGranularity() : "day"));
+                job.advance(1);
+                result.put("topSellers", reportService.getTopSellers(request.getStartDate(), request.getEndDate(),
+                        null, 10));
+                job.advance(1);
+                collectRows(job, result, "orders", (cursor, limit) -> reportService.getSalesReportOrders(
+                        request.getStartDate(), request.getEndDate(), cursor, limit));
+            } else {
+                Map<String, Object> summary = reportService.getDeliveryReport(request.getStartDate(),
+                        request.getEndDate());
+                long deliveries = ((Number) summary.get("totalDeliveries")).longValue();
+                job.plan(Math.min(deliveries, maxRows));
+                result.put("summary", summary);
+                collectRows(job, result, "deliveries", (cursor, limit) -> reportService.getDeliveryReportRows(
+                        request.getStartDate(), request.getEndDate(), cursor, limit));
+            }
+            job.finish(Status.SUCCEEDED, result, null);
+        } catch (CancellationException e) {
+            job.finish(Status.CANCELLED, null, null);
+        } catch (RuntimeException e) {
+            if (job.status != Status.CANCELLED) {
+                logger.warn("Report job {} failed: {}", job.id, e.getMessage());
+            }
+            job.finish(Status.FAILED, null, e.getMessage());
+        } finally {
+            // Errors skip the catches; a job left RUNNING would keep being handed out as reusable
+            job.finish(Status.FAILED, null, "Report job stopped unexpectedly");
+            if (job.status != Status.SUCCEEDED) {
+                release(job);
+            }
+        }
+    }
+
+    private <T> void collectRows(Job job, Map<String, Object> result, String name,
+            BiFunction<String, Integer, CursorPage<T>> pages) {
+        List<T> rows = new ArrayList<>();
+        String cursor = null;
+        boolean hasMore = true;
+        while (hasMore && rows.size() < maxRows) {
+            if (job.status == Status.CANCELLED || Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+            CursorPage<T> page = pages.apply(cursor, Math.min(PAGE_SIZE, maxRows - rows.size()));
+            reserveRows(job, page.getItems().size());
+            rows.addAll(page.getItems());
+            job.advance(page.getItems().size());
+            cursor = page.getNextCursor();
+            hasMore = page.isHasMore();
+        }
+        result.put(name, rows);
+        // Larger ranges should use the streaming exports instead
+        result.put("truncated", hasMore);
+    }
+
+    private void reserveRows(Job job, int rows) {
+        if (retainedRows.addAndGet(rows) > maxRetainedRows) {
+            evictOldestFinished(() -> retainedRows.get() > maxRetainedRows);
+            if (retainedRows.get() > maxRetainedRows) {
+                retainedRows.addAndGet(-rows);
+                throw new RuntimeException("Report jobs are holding too many rows, please retry later");
+            }
+        }
+        job.retainedRows.addAndGet(rows);
+    }
+
+    // Idempotent; a worker still adding rows after a cancel hands back the rest when it stops
+    private void release(Job job) {
+        retainedRows.addAndGet(-job.retainedRows.getAndSet(0));
+    }
+
+    private void drop(Job job) {
+        if (jobsById.remove(job.id, job)) {
+            release(job);
+        }
+        jobsByKey.remove(job.key, job);
+    }
+
+    private Job find(String id) {
+        Job job = jobsById.get(id);
+        if (job == null || job.isExpired(resultTtlNanos)) {
+            throw new ResourceNotFoundException("Report job not found: " + id);
+        }
+        return job;
+    }
+
+    private String cacheKey(ReportJobRequest request) {
+        long version = request.getType() == ReportJobRequest.Type.SALES ? salesVersion.get() : deliveryVersion.get();
+        String granularity = request.getGranularity() != null ? request.getGranularity().toLowerCase() : "day";
+        return request.getType() + "|" + request.getStartDate() + "|" + request.getEndDate() + "|"
+                + (request.getType() == ReportJobRequest.Type.SALES ? granularity : "") + "|" + version;
+    }
+
+    // Drops expired jobs, then the oldest finished ones while over maxJobs
+    private void purgeExpired() {
+        for (Job job : jobsById.values()) {
+            if (job.isExpired(resultTtlNanos)) {
+                drop(job);
+            }
+        }
+        evictOldestFinished(() -> jobsById.size() >= maxJobs);
+    }
+
+    private void evictOldestFinished(BooleanSupplier overLimit) {
+        if (!overLimit.getAsBoolean()) {
+            return;
+        }
+        List<Job> finished = jobsById.values().stream()
+                .filter(Job::isFinished)
+                .sorted(Comparator.comparingLong(job -> job.finishedNanos))
+                .toList();
+        for (Job job : finished) {
+            if (!overLimit.getAsBoolean()) {
+                return;
+            }
+            drop(job);
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    private static final class Job {
+
+        private final String id;
+        private final String key;
+        private final ReportJobRequest request;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+
+        // Status transitions happen under the monitor; reads are volatile
+        private volatile Status status = Status.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedNanos;
+        private volatile Map<String, Object> result;
+        private volatile String error;
+        private volatile Future<?> future;
+
+        private volatile long totalSteps = 1;
+        private final AtomicLong doneSteps = new AtomicLong();
+        // Detail rows counted against maxRetainedRows
+        private final AtomicLong retainedRows = new AtomicLong();
+
+        private Job(String id, String key, ReportJobRequest request) {
+            this.id = id;
+            this.key = key;
+            this.request = request;
+        }
+
+        synchronized boolean start() {
+            if (status != Status.QUEUED) {
+                return false;
+            }
+            status = Status.RUNNING;
+            startedAt = LocalDateTime.now();
+            return true;
+        }
+
+        void plan(long steps) {
+            totalSteps = Math.max(1, steps);
+        }
+
+        void advance(long steps) {
+            doneSteps.addAndGet(steps);
+        }
+
+        // Returns false if the job had already finished
+        synchronized boolean finish(Status outcome, Map<String, Object> result, String error) {
+            if (isFinished()) {
+                return false;
+            }
+            this.result = result;
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.finishedNanos = System.nanoTime();
+            this.status = outcome;
+            return true;
+        }
+
+        boolean isFinished() {
+            return status == Status.SUCCEEDED || status == Status.FAILED || status == Status.CANCELLED;
+        }
+
+        // Queued, running, or succeeded and still fresh
+        boolean isReusable(long ttlNanos) {
+            return status == Status.QUEUED || status == Status.RUNNING
+                    || (status == Status.SUCCEEDED && !isExpired(ttlNanos));
+        }
+
+        boolean isExpired(long ttlNanos) {
+            return isFinished() && System.nanoTime() - finishedNanos > ttlNanos;
+        }
+
+        ReportJobResponse toResponse() {
+            int progress = status == Status.SUCCEEDED ? 100
+                    : (int) Math.min(99, doneSteps.get() * 100 / totalSteps);
+            return new ReportJobResponse(id, request.getType(), status.name(), progress, submittedAt, startedAt,
+                    finishedAt, error);
+        }
+    }
+}
@@ -1,32 +1,83 @@
 package com.flora.service;
 
+import com.flora.dto.CursorPage;
+import com.flora.dto.DeliveryReportRow;
+import com.flora.dto.InventoryRow;
+import com.flora.dto.OrderSearchCriteria;
+import com.flora.dto.OrderSummaryResponse;
+import com.flora.dto.TimeSeriesPoint;
+import com.flora.dto.TopSellerEntry;
+import com.flora.model.CohortActivity;
+import com.flora.model.DailyDistinctSketch;
+import com.flora.model.DailySalesRollup;
 import com.flora.model.Delivery;
+import com.flora.model.DeliverySlaSketch;
 import com.flora.model.Order;
+import com.flora.repository.CategoryRepository;
+import com.flora.repository.CohortActivityRepository;
+import com.flora.repository.CustomerOrderStatsRepository;
+import com.flora.repository.DailyDistinctSketchRepository;
+import com.flora.repository.DailyProductSalesRepository;
+import com.flora.repository.DailySalesRollupRepository;
 import com.flora.repository.DeliveryRepository;
+import com.flora.repository.DeliverySlaSketchRepository;
 import com.flora.repository.EventRepository;
 import com.flora.repository.OrderRepository;
 import com.flora.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
 public class ReportService {
 
+        private static final int MAX_DETAIL_PAGE_SIZE = 200;
+        private static final int MAX_TOP_N = 100;
+        private static final int MAX_TIME_SERIES_BUCKETS = 2000;
+        private static final int MAX_COHORT_MONTHS = 120;
+
+        private static final Comparator<TopSellerEntry> BY_UNITS = Comparator.comparingLong(TopSellerEntry::getUnits)
+                        .thenComparing(TopSellerEntry::getRevenue);
+        private static final Comparator<TopSellerEntry> BY_REVENUE = Comparator.comparing(TopSellerEntry::getRevenue)
+                        .thenComparingLong(TopSellerEntry::getUnits);
+
+        private final DailySalesRollupRepository rollupRepository;
+        private final DailyDistinctSketchRepository sketchRepository;
+        private final DailyProductSalesRepository productSalesRepository;
+        private final CategoryRepository categoryRepository;
+        private final CustomerOrderStatsRepository customerStatsRepository;
+        private final CohortActivityRepository cohortActivityRepository;
         private final OrderRepository orderRepository;
+        private final OrderService orderService;
         private final EventRepository eventRepository;
         private final DeliveryRepository deliveryRepository;
+        private final DeliverySlaSketchRepository slaSketchRepository;
         private final ProductRepository productRepository;
+        private final LowStockIndex lowStockIndex;
 
         // Helper method to calculate date range based on period
-        private Map<String, LocalDate> calculateDateRange(String period) {
+        public Map<String, LocalDate> calculateDateRange(String period) {
                 LocalDate today = LocalDate.now();
                 LocalDate startDate;
                 LocalDate endDate = today;
@@ -62,212 +113,643 @@ public class ReportService {
 
         public Map<String, Object> getSalesReport(LocalDate startDate, LocalDate endDate) {
                 Map<String, Object> report = new HashMap<>();
+                SalesTotals totals = summarizeSales(startDate, endDate);
 
-                // Get all orders in date range
-                List<Order> orders = orderRepository.findAll().stream()
-                                .filter(order -> !order.getCreatedAt().toLocalDate().isBefore(startDate)
-                                                && !order.getCreatedAt().toLocalDate().isAfter(endDate))
-                                .toList();
+                report.put("startDate", startDate);
+                report.put("endDate", endDate);
+                report.put("totalSales", totals.gross);
+                report.put("totalOrders", totals.orders);
+                report.put("totalItems", totals.items);
+                report.put("averageOrderValue", totals.averageOrderValue());
+                report.put("dailySales", totals.dailySales);
+                report.put("ordersByStatus", totals.ordersByStatus);
+                report.put("salesByPaymentMethod", totals.salesByPaymentMethod);
 
-                BigDecimal totalSales = orders.stream()
-                                .map(Order::getTotalAmount)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                return report;
+        }
 
-                int totalOrders = orders.size();
+        // Order rows behind a sales report, one keyset page at a time
+        public CursorPage<OrderSummaryResponse> getSalesReportOrders(LocalDate startDate, LocalDate endDate,
+                        String cursor, int limit) {
+                OrderSearchCriteria criteria = new OrderSearchCriteria();
+                criteria.setFromDate(startDate);
+                criteria.setToDate(endDate);
+                criteria.setDirection("asc");
+                return orderService.searchOrders(criteria, cursor, limit);
+        }
 
-                BigDecimal averageOrderValue = totalOrders > 0
-                                ? totalSales.divide(new BigDecimal(totalOrders), 2, RoundingMode.HALF_UP)
-                                : BigDecimal.ZERO;
+        /**
+         * Compares the incremental rollups with a GROUP BY over the orders table and
+         * returns the (day, status) cells that disagree; empty when they are in sync.
+         */
+        public List<Map<String, Object>> checkSalesRollups(LocalDate startDate, LocalDate endDate) {
+                Map<String, Long> rolledOrders = new HashMap<>();
+                Map<String, BigDecimal> rolledGross = new HashMap<>();
+                for (DailySalesRollup row : rollupRepository.findBySalesDateBetweenOrderBySalesDate(startDate,
+                                endDate)) {
+                        String key = row.getSalesDate() + "|" + row.getStatus().name();
+                        rolledOrders.merge(key, row.getOrderCount(), Long::sum);
+                        rolledGross.merge(key, row.getGrossAmount(), BigDecimal::add);
+                }
+
+                Map<String, Long> liveOrders = new HashMap<>();
+                Map<String, BigDecimal> liveGross = new HashMap<>();
+                for (Object[] row : orderRepository.summarizeByDayAndStatusBetween(startDate.atStartOfDay(),
+                                endDate.plusDays(1).atStartOfDay())) {
+                        String key = row[0] + "|" + ((Order.OrderStatus) row[1]).name();
+                        liveOrders.put(key, ((Number) row[2]).longValue());
+                        liveGross.put(key, (BigDecimal) row[3]);
+                }
+
+                Set<String> keys = new TreeSet<>(rolledOrders.keySet());
+                keys.addAll(liveOrders.keySet());
+                List<Map<String, Object>> mismatches = new ArrayList<>();
+                for (String key : keys) {
+                        long rolledCount = rolledOrders.getOrDefault(key, 0L);
+                        long liveCount = liveOrders.getOrDefault(key, 0L);
+                        BigDecimal rolledAmount = rolledGross.getOrDefault(key, BigDecimal.ZERO);
+                        BigDecimal liveAmount = liveGross.getOrDefault(key, BigDecimal.ZERO);
+                        if (rolledCount != liveCount || rolledAmount.compareTo(liveAmount) != 0) {
+                                String[] parts = key.split("\\|");
+                                Map<String, Object> mismatch = new HashMap<>();
+                                mismatch.put("date", parts[0]);
+                                mismatch.put("status", parts[1]);
+                                mismatch.put("rollupOrders", rolledCount);
+                                mismatch.put("actualOrders", liveCount);
+                                mismatch.put("rollupSales", rolledAmount);
+                                mismatch.put("actualSales", liveAmount);
+                                mismatches.add(mismatch);
+                        }
+                }
+                return mismatches;
+        }
+
+        /**
+         * Orders and sales per hour, day, week (starting Monday) or month over any date
+         * range, with every bucket present. Day and coarser buckets are summed from the
+         * daily rollups; hourly buckets come from one GROUP BY over the range of orders.
+         */
+        public Map<String, Object> getSalesTimeSeries(LocalDate startDate, LocalDate endDate, String granularity) {
+                if (endDate.isBefore(startDate)) {
+                        throw new RuntimeException("endDate must not be before startDate");
+                }
+                Granularity unit = Granularity.parse(granularity);
+                LocalDateTime first = unit.truncate(startDate.atStartOfDay());
+                LocalDateTime end = endDate.plusDays(1).atStartOfDay();
+
+                Map<LocalDateTime, TimeSeriesPoint> buckets = new TreeMap<>();
+                for (LocalDateTime bucket = first; bucket.isBefore(end); bucket = unit.next(bucket)) {
+                        if (buckets.size() == MAX_TIME_SERIES_BUCKETS) {
+                                throw new RuntimeException("Range too large for " + unit.name().toLowerCase()
+                                                + " granularity, at most " + MAX_TIME_SERIES_BUCKETS + " buckets");
+                        }
+                        buckets.put(bucket, new TimeSeriesPoint(bucket, 0, BigDecimal.ZERO));
+                }
+
+                if (unit == Granularity.HOUR) {
+                        for (Object[] row : orderRepository.summarizeByHourBetween(startDate.atStartOfDay(), end)) {
+                                LocalDateTime bucket = ((LocalDate) row[0]).atTime(((Number) row[1]).intValue(), 0);
+                                addToBucket(buckets.get(bucket), ((Number) row[2]).longValue(), (BigDecimal) row[3]);
+                        }
+                } else {
+                        for (DailySalesRollup row : rollupRepository.findBySalesDateBetweenOrderBySalesDate(startDate,
+                                        endDate)) {
+                                LocalDateTime bucket = unit.truncate(row.getSalesDate().atStartOfDay());
+                                addToBucket(buckets.get(bucket), row.getOrderCount(), row.getGrossAmount());
+                        }
+                }
+
+                Map<String, Object> series = new HashMap<>();
+                series.put("startDate", startDate);
+                series.put("endDate", endDate);
+                series.put("granularity", unit.name().toLowerCase());
+                series.put("points", new ArrayList<>(buckets.values()));
+                return series;
+        }
+
+        private static void addToBucket(TimeSeriesPoint point, long orders, BigDecimal sales) {
+                if (point != null) {
+                        point.setOrders(point.getOrders() + orders);
+                        point.setSales(point.getSales().add(sales));
+                }
+        }
+
+        private enum Granularity {
+                HOUR, DAY, WEEK, MONTH;
+
+                static Granularity parse(String value) {
+                        try {
+                                return valueOf(value.trim().toUpperCase());
+                        } catch (IllegalArgumentException | NullPointerException e) {
+                                throw new RuntimeException("Unsupported granularity: " + value);
+                        }
+                }
+
+                LocalDateTime truncate(LocalDateTime time) {
+                        switch (this) {
+                                case HOUR:
+                                        return time.withMinute(0).withSecond(0).withNano(0);
+                                case WEEK:
+                                        return time.toLocalDate().with(DayOfWeek.MONDAY).atStartOfDay();
+                                case MONTH:
+                                        return time.toLocalDate().withDayOfMonth(1).atStartOfDay();
+                                case DAY:
+                                default:
+                                        return time.toLocalDate().atStartOfDay();
+                        }
+                }
+
+                LocalDateTime next(LocalDateTime bucket) {
+                        switch (this) {
+                                case HOUR:
+                                        return bucket.plusHours(1);
+                                case WEEK:
+                                        return bucket.plusWeeks(1);
+                                case MONTH:
+                                        return bucket.plusMonths(1);
+                                case DAY:
+                                default:
+                                        return bucket.plusDays(1);
+                        }
+                }
+        }
+
+        // Reads the pre-aggregated daily rollups, so the cost grows with the number of days, not orders
+        private SalesTotals summarizeSales(LocalDate startDate, LocalDate endDate) {
+                SalesTotals totals = new SalesTotals();
+                for (DailySalesRollup row : rollupRepository.findBySalesDateBetweenOrderBySalesDate(startDate,
+                                endDate)) {
+                        if (row.getOrderCount() == 0) {
+                                continue;
+                        }
+                        totals.orders += row.getOrderCount();
+                        totals.items += row.getItemCount();
+                        totals.gross = totals.gross.add(row.getGrossAmount());
+                        totals.dailySales.merge(row.getSalesDate(), row.getGrossAmount(), BigDecimal::add);
+                        totals.ordersByStatus.merge(row.getStatus().name(), row.getOrderCount(), Long::sum);
+                        String method = row.getPaymentMethod().isEmpty() ? "UNKNOWN" : row.getPaymentMethod();
+                        totals.salesByPaymentMethod.merge(method, row.getGrossAmount(), BigDecimal::add);
+                }
+                return totals;
+        }
+
+        /**
+         * Approximate distinct customers and products ordered in the range, merged from
+         * the daily HyperLogLog sketches. Each figure is within relativeStandardError of
+         * the exact count about two times in three, and within twice that 95% of the time.
+         */
+        public Map<String, Object> getDistinctCounts(LocalDate startDate, LocalDate endDate) {
+                HyperLogLog customers = new HyperLogLog();
+                HyperLogLog products = new HyperLogLog();
+                Map<LocalDate, Map<String, Long>> daily = new TreeMap<>();
+                for (DailyDistinctSketch row : sketchRepository.findBySketchDateBetweenOrderBySketchDate(startDate,
+                                endDate)) {
+                        HyperLogLog sketch = HyperLogLog.fromBytes(row.getRegisters());
+                        boolean customerSketch = row.getMetric() == DailyDistinctSketch.Metric.CUSTOMERS;
+                        (customerSketch ? customers : products).merge(sketch);
+                        daily.computeIfAbsent(row.getSketchDate(), d -> new HashMap<>())
+                                        .put(customerSketch ? "customers" : "products", sketch.estimate());
+                }
 
+                Map<String, Object> report = new HashMap<>();
                 report.put("startDate", startDate);
                 report.put("endDate", endDate);
-                report.put("totalSales", totalSales);
-                report.put("totalOrders", totalOrders);
-                report.put("averageOrderValue", averageOrderValue);
-                report.put("orders", orders.stream().map(order -> {
-                        Map<String, Object> orderData = new HashMap<>();
-                        orderData.put("orderNumber", order.getOrderNumber());
-                        orderData.put("date", order.getCreatedAt().toLocalDate());
-                        orderData.put("amount", order.getTotalAmount());
-                        orderData.put("status", order.getStatus());
-                        return orderData;
-                }).toList());
+                report.put("uniqueCustomers", customers.estimate());
+                report.put("uniqueProducts", products.estimate());
+                report.put("relativeStandardError", HyperLogLog.RELATIVE_STANDARD_ERROR);
+                report.put("daily", daily);
+                return report;
+        }
 
+        public Map<String, Object> getDistinctCountsByPeriod(String period) {
+                Map<String, LocalDate> range = calculateDateRange(period);
+                Map<String, Object> report = getDistinctCounts(range.get("startDate"), range.get("endDate"));
+                report.put("period", period);
                 return report;
         }
 
-        public Map<String, Object> getInventoryReport() {
+        /**
+         * Best selling products by units and by revenue over the range, optionally
+         * within one category, plus the leading categories. Reads the per-day product
+         * counters and keeps only the top entries in a bounded heap per ranking.
+         */
+        public Map<String, Object> getTopSellers(LocalDate startDate, LocalDate endDate, Long categoryId, int limit) {
+                int n = Math.max(1, Math.min(limit, MAX_TOP_N));
+
+                List<TopSellerEntry> products = new ArrayList<>();
+                for (Object[] row : productSalesRepository.sumByProductBetween(startDate, endDate, categoryId)) {
+                        products.add(new TopSellerEntry((Long) row[0], null, ((Number) row[2]).longValue(),
+                                        (BigDecimal) row[3]));
+                }
+                List<TopSellerEntry> productsByUnits = selectTop(products, BY_UNITS, n);
+                List<TopSellerEntry> productsByRevenue = selectTop(products, BY_REVENUE, n);
+                Set<Long> productIds = new HashSet<>();
+                productsByUnits.forEach(entry -> productIds.add(entry.getId()));
+                productsByRevenue.forEach(entry -> productIds.add(entry.getId()));
+                Map<Long, String> productNames = toNames(productIds.isEmpty() ? List.of()
+                                : productRepository.findNamesByIdIn(productIds));
+                productsByUnits.forEach(entry -> entry.setName(productNames.get(entry.getId())));
+                productsByRevenue.forEach(entry -> entry.setName(productNames.get(entry.getId())));
+
+                List<TopSellerEntry> categories = new ArrayList<>();
+                for (Object[] row : productSalesRepository.sumByCategoryBetween(startDate, endDate)) {
+                        categories.add(new TopSellerEntry((Long) row[0], null, ((Number) row[1]).longValue(),
+                                        (BigDecimal) row[2]));
+                }
+                Set<Long> categoryIds = new HashSet<>();
+                categories.forEach(entry -> {
+                        if (entry.getId() != null) {
+                                categoryIds.add(entry.getId());
+                        }
+                });
+                Map<Long, String> categoryNames = toNames(categoryIds.isEmpty() ? List.of()
+                                : categoryRepository.findNamesByIdIn(categoryIds));
+                categories.forEach(entry -> entry.setName(
+                                entry.getId() != null ? categoryNames.get(entry.getId()) : "Uncategorized"));
+
                 Map<String, Object> report = new HashMap<>();
+                report.put("startDate", startDate);
+                report.put("endDate", endDate);
+                report.put("categoryId", categoryId);
+                report.put("productsByUnits", productsByUnits);
+                report.put("productsByRevenue", productsByRevenue);
+                report.put("categoriesByUnits", selectTop(categories, BY_UNITS, n));
+                report.put("categoriesByRevenue", selectTop(categories, BY_REVENUE, n));
+                return report;
+        }
 
-                var products = productRepository.findAll();
-
-                long totalProducts = products.size();
-                long lowStockProducts = products.stream()
-                                .filter(p -> p.getStockQuantity() < 10)
-                                .count();
-                long outOfStockProducts = products.stream()
-                                .filter(p -> p.getStockQuantity() == 0)
-                                .count();
-
-                report.put("totalProducts", totalProducts);
-                report.put("lowStockProducts", lowStockProducts);
-                report.put("outOfStockProducts", outOfStockProducts);
-                report.put("products", products.stream().map(product -> {
-                        Map<String, Object> productData = new HashMap<>();
-                        productData.put("id", product.getId());
-                        productData.put("name", product.getName());
-                        productData.put("sku", product.getSku());
-                        productData.put("stockQuantity", product.getStockQuantity());
-                        productData.put("price", product.getPrice());
-                        productData.put("status", product.getStockQuantity() == 0 ? "OUT_OF_STOCK"
-                                        : product.getStockQuantity() < 10 ? "LOW_STOCK" : "IN_STOCK");
-                        return productData;
-                }).toList());
+        public Map<String, Object> getTopSellersByPeriod(String period, Long categoryId, int limit) {
+                Map<String, LocalDate> range = calculateDateRange(period);
+                Map<String, Object> report = getTopSellers(range.get("startDate"), range.get("endDate"), categoryId,
+                                limit);
+                report.put("period", period);
+                return report;
+        }
 
+        // Bounded min-heap selection: O(rows log n) time and O(n) extra space, best first
+        private static List<TopSellerEntry> selectTop(Collection<TopSellerEntry> entries,
+                        Comparator<TopSellerEntry> order, int n) {
+                PriorityQueue<TopSellerEntry> heap = new PriorityQueue<>(n + 1, order);
+                for (TopSellerEntry entry : entries) {
+                        heap.offer(entry);
+                        if (heap.size() > n) {
+                                heap.poll();
+                        }
+                }
+                List<TopSellerEntry> top = new ArrayList<>(heap);
+                top.sort(order.reversed());
+                return top;
+        }
+
+        private static Map<Long, String> toNames(List<Object[]> rows) {
+                Map<Long, String> names = new HashMap<>();
+                for (Object[] row : rows) {
+                        names.put((Long) row[0], (String) row[1]);
+                }
+                return names;
+        }
+
+        /**
+         * Cohorts of customers by first-order month with their retention and revenue
+         * curves, one point per month from the cohort month up to the current month.
+         * Read from the incrementally maintained matrix, never from orders.
+         */
+        public Map<String, Object> getCohortReport(YearMonth fromMonth, YearMonth toMonth) {
+                if (toMonth.isBefore(fromMonth)) {
+                        throw new RuntimeException("toMonth must not be before fromMonth");
+                }
+                if (ChronoUnit.MONTHS.between(fromMonth, toMonth) >= MAX_COHORT_MONTHS) {
+                        throw new RuntimeException("At most " + MAX_COHORT_MONTHS + " cohorts per report");
+                }
+                YearMonth currentMonth = YearMonth.now();
+                LocalDate from = fromMonth.atDay(1);
+                LocalDate to = toMonth.atDay(1);
+
+                Map<LocalDate, Object[]> sizes = new HashMap<>();
+                for (Object[] row : customerStatsRepository.summarizeCohortsBetween(from, to)) {
+                        sizes.put((LocalDate) row[0], row);
+                }
+                Map<LocalDate, Map<LocalDate, CohortActivity>> cells = new TreeMap<>();
+                for (CohortActivity cell : cohortActivityRepository
+                                .findByCohortMonthBetweenOrderByCohortMonthAscActivityMonthAsc(from, to)) {
+                        cells.computeIfAbsent(cell.getCohortMonth(), m -> new HashMap<>()).put(cell.getActivityMonth(),
+                                        cell);
+                }
+
+                List<Map<String, Object>> cohorts = new ArrayList<>();
+                long allCustomers = 0;
+                long allRepeatCustomers = 0;
+                for (YearMonth month = fromMonth; !month.isAfter(toMonth); month = month.plusMonths(1)) {
+                        LocalDate cohortMonth = month.atDay(1);
+                        Object[] size = sizes.get(cohortMonth);
+                        long customers = size != null ? ((Number) size[1]).longValue() : 0;
+                        long repeatCustomers = size != null ? ((Number) size[2]).longValue() : 0;
+                        allCustomers += customers;
+                        allRepeatCustomers += repeatCustomers;
+
+                        Map<LocalDate, CohortActivity> row = cells.getOrDefault(cohortMonth, Map.of());
+                        List<Map<String, Object>> periods = new ArrayList<>();
+                        BigDecimal cumulativeRevenue = BigDecimal.ZERO;
+                        for (YearMonth activity = month; !activity.isAfter(currentMonth); activity = activity.plusMonths(1)) {
+                                CohortActivity cell = row.get(activity.atDay(1));
+                                long active = cell != null ? cell.getActiveCustomers() : 0;
+                                BigDecimal revenue = cell != null ? cell.getRevenue() : BigDecimal.ZERO;
+                                cumulativeRevenue = cumulativeRevenue.add(revenue);
+
+                                Map<String, Object> period = new HashMap<>();
+                                period.put("offset", ChronoUnit.MONTHS.between(month, activity));
+                                period.put("month", activity.toString());
+                                period.put("activeCustomers", active);
+                                period.put("retention", ratio(active, customers));
+                                period.put("orders", cell != null ? cell.getOrderCount() : 0L);
+                                period.put("revenue", revenue);
+                                period.put("cumulativeRevenuePerCustomer", customers > 0
+                                                ? cumulativeRevenue.divide(BigDecimal.valueOf(customers), 2,
+                                                                RoundingMode.HALF_UP)
+                                                : BigDecimal.ZERO);
+                                periods.add(period);
+                        }
+
+                        Map<String, Object> cohort = new HashMap<>();
+                        cohort.put("cohortMonth", month.toString());
+                        cohort.put("customers", customers);
+                        cohort.put("repeatCustomers", repeatCustomers);
+                        cohort.put("repeatRate", ratio(repeatCustomers, customers));
+                        cohort.put("totalSpent", size != null ? size[3] : BigDecimal.ZERO);
+                        cohort.put("periods", periods);
+                        cohorts.add(cohort);
+                }
+
+                Map<String, Object> report = new HashMap<>();
+                report.put("fromMonth", fromMonth.toString());
+                report.put("toMonth", toMonth.toString());
+                report.put("customers", allCustomers);
+                report.put("repeatCustomers", allRepeatCustomers);
+                report.put("repeatRate", ratio(allRepeatCustomers, allCustomers));
+                report.put("cohorts", cohorts);
                 return report;
         }
 
-        // Get delivery report by period
-        public Map<String, Object> getDeliveryReportByPeriod(String period) {
-                Map<String, LocalDate> range = calculateDateRange(period);
+        // Share in [0, 1] rounded to 4 places; 0 for an empty base
+        private static BigDecimal ratio(long part, long whole) {
+                return whole > 0
+                                ? BigDecimal.valueOf(part).divide(BigDecimal.valueOf(whole), 4, RoundingMode.HALF_UP)
+                                : BigDecimal.ZERO;
+        }
+
+        public Map<String, Object> getInventoryReport() {
+                int defaultThreshold = lowStockIndex.getDefaultThreshold();
+                Object[] totals = productRepository.summarizeInventory(defaultThreshold).get(0);
 
                 Map<String, Object> report = new HashMap<>();
+                report.put("totalProducts", ((Number) totals[0]).longValue());
+                report.put("outOfStockProducts", ((Number) totals[1]).longValue());
+                report.put("lowStockProducts", ((Number) totals[2]).longValue());
+                report.put("totalUnits", ((Number) totals[3]).longValue());
+                report.put("stockValue", totals[4]);
+                report.put("defaultReorderThreshold", defaultThreshold);
+                return report;
+        }
+
+        // Product rows behind the inventory report, one keyset page at a time
+        public CursorPage<InventoryRow> getInventoryRows(String cursor, int limit) {
+                int pageSize = Math.max(1, Math.min(limit, MAX_DETAIL_PAGE_SIZE));
+                Long afterId = parseIdCursor(cursor);
+
+                List<InventoryRow> rows = productRepository.findInventoryRows(afterId, PageRequest.of(0, pageSize + 1));
+                boolean hasMore = rows.size() > pageSize;
+                if (hasMore) {
+                        rows = rows.subList(0, pageSize);
+                }
+                for (InventoryRow row : rows) {
+                        int threshold = lowStockIndex.effectiveThreshold(row.getReorderThreshold());
+                        row.setStatus(row.getStockQuantity() == 0 ? "OUT_OF_STOCK"
+                                        : row.getStockQuantity() < threshold ? "LOW_STOCK" : "IN_STOCK");
+                }
+                String nextCursor = hasMore ? String.valueOf(rows.get(rows.size() - 1).getId()) : null;
+                return new CursorPage<>(rows, nextCursor, hasMore);
+        }
 
-                // Get deliveries in the date range
-                List<Delivery> deliveries = deliveryRepository.findByScheduledDateBetween(
-                                range.get("startDate"), range.get("endDate"));
-
-                long totalDeliveries = deliveries.size();
-                long pendingDeliveries = deliveries.stream()
-                                .filter(d -> d.getStatus() == Delivery.DeliveryStatus.PENDING)
-                                .count();
-                long scheduledDeliveries = deliveries.stream()
-                                .filter(d -> d.getStatus() == Delivery.DeliveryStatus.SCHEDULED)
-                                .count();
-                long completedDeliveries = deliveries.stream()
-                                .filter(d -> d.getStatus() == Delivery.DeliveryStatus.DELIVERED)
-                                .count();
+        // Get delivery report by period
+        public Map<String, Object> getDeliveryReportByPeriod(String period) {
+                Map<String, LocalDate> range = calculateDateRange(period);
+                LocalDate startDate = range.get("startDate");
+                LocalDate endDate = range.get("endDate");
 
+                Map<String, Object> report = deliverySummary(
+                                deliveryRepository.countByStatusScheduledBetween(startDate, endDate));
                 report.put("period", period);
-                report.put("startDate", range.get("startDate"));
-                report.put("endDate", range.get("endDate"));
-                report.put("totalDeliveries", totalDeliveries);
-                report.put("pendingDeliveries", pendingDeliveries);
-                report.put("scheduledDeliveries", scheduledDeliveries);
-                report.put("completedDeliveries", completedDeliveries);
-                report.put("deliveries", deliveries.stream().map(delivery -> {
-                        Map<String, Object> deliveryData = new HashMap<>();
-                        deliveryData.put("trackingNumber", delivery.getTrackingNumber());
-                        deliveryData.put("status", delivery.getStatus());
-                        deliveryData.put("timeSlot", delivery.getScheduledTimeSlot());
-                        deliveryData.put("recipientName", delivery.getRecipientName());
-                        deliveryData.put("address", delivery.getDeliveryAddress());
-                        deliveryData.put("driverName", delivery.getDriverName());
-                        return deliveryData;
-                }).toList());
+                report.put("startDate", startDate);
+                report.put("endDate", endDate);
+                return report;
+        }
 
+        public Map<String, Object> getDeliveryReport(LocalDate startDate, LocalDate endDate) {
+                Map<String, Object> report = deliverySummary(
+                                deliveryRepository.countByStatusScheduledBetween(startDate, endDate));
+                report.put("startDate", startDate);
+                report.put("endDate", endDate);
                 return report;
         }
 
         public Map<String, Object> getDeliveryReport(LocalDate date) {
-                Map<String, Object> report = new HashMap<>();
-
-                List<Delivery> deliveries = deliveryRepository.findByScheduledDate(date);
+                Map<String, Object> report = deliverySummary(deliveryRepository.countByStatusScheduledBetween(date, date));
+                report.put("date", date);
+                report.put("startDate", date);
+                report.put("endDate", date);
+                return report;
+        }
 
-                long totalDeliveries = deliveries.size();
-                long pendingDeliveries = deliveries.stream()
-                                .filter(d -> d.getStatus() == Delivery.DeliveryStatus.PENDING)
-                                .count();
-                long scheduledDeliveries = deliveries.stream()
-                                .filter(d -> d.getStatus() == Delivery.DeliveryStatus.SCHEDULED)
-                                .count();
-                long completedDeliveries = deliveries.stream()
-                                .filter(d -> d.getStatus() == Delivery.DeliveryStatus.DELIVERED)
-                                .count();
+        // Delivery rows behind a delivery report, one keyset page at a time
+        public CursorPage<DeliveryReportRow> getDeliveryReportRows(LocalDate startDate, LocalDate endDate,
+                        String cursor, int limit) {
+                int pageSize = Math.max(1, Math.min(limit, MAX_DETAIL_PAGE_SIZE));
+                Long afterId = parseIdCursor(cursor);
+
+                List<DeliveryReportRow> rows = deliveryRepository.findReportRowsScheduledBetween(startDate, endDate,
+                                afterId, PageRequest.of(0, pageSize + 1));
+                boolean hasMore = rows.size() > pageSize;
+                if (hasMore) {
+                        rows = rows.subList(0, pageSize);
+                }
+                String nextCursor = hasMore ? String.valueOf(rows.get(rows.size() - 1).getId()) : null;
+                return new CursorPage<>(rows, nextCursor, hasMore);
+        }
 
-                report.put("date", date);
-                report.put("totalDeliveries", totalDeliveries);
-                report.put("pendingDeliveries", pendingDeliveries);
-                report.put("scheduledDeliveries", scheduledDeliveries);
-                report.put("completedDeliveries", completedDeliveries);
-                report.put("deliveries", deliveries.stream().map(delivery -> {
-                        Map<String, Object> deliveryData = new HashMap<>();
-                        deliveryData.put("trackingNumber", delivery.getTrackingNumber());
-                        deliveryData.put("status", delivery.getStatus());
-                        deliveryData.put("timeSlot", delivery.getScheduledTimeSlot());
-                        deliveryData.put("recipientName", delivery.getRecipientName());
-                        deliveryData.put("address", delivery.getDeliveryAddress());
-                        deliveryData.put("driverName", delivery.getDriverName());
-                        return deliveryData;
-                }).toList());
+        /**
+         * Lateness (minutes past the end of the scheduled slot, negative when early) and
+         * fulfillment time percentiles of the deliveries completed in the range, overall
+         * and optionally per driver, zipCode or deliveryType. Merged from the per-day
+         * sketches, so every percentile is within the sketch's relative accuracy.
+         */
+        public Map<String, Object> getDeliveryPerformance(LocalDate startDate, LocalDate endDate, String groupBy) {
+                if (endDate.isBefore(startDate)) {
+                        throw new RuntimeException("endDate must not be before startDate");
+                }
+                DeliverySlaSketch.Dimension dimension = parseSlaDimension(groupBy);
 
+                Map<String, Object> report = new HashMap<>();
+                report.put("startDate", startDate);
+                report.put("endDate", endDate);
+                report.put("relativeAccuracy", QuantileSketch.RELATIVE_ACCURACY);
+                report.put("overall", slaSummary(mergeSlaSketches(slaSketchRepository
+                                .findByDimensionAndDeliveryDateBetween(DeliverySlaSketch.Dimension.ALL, startDate, endDate))
+                                .get("")));
+
+                if (dimension != null) {
+                        Map<String, Map<DeliverySlaSketch.Metric, QuantileSketch>> merged = mergeSlaSketches(
+                                        slaSketchRepository.findByDimensionAndDeliveryDateBetween(dimension, startDate,
+                                                        endDate));
+                        List<Map<String, Object>> groups = new ArrayList<>();
+                        merged.forEach((value, sketches) -> {
+                                Map<String, Object> group = slaSummary(sketches);
+                                group.put("key", value.isEmpty()
+                                                ? (dimension == DeliverySlaSketch.Dimension.DRIVER ? "Unassigned" : "Unknown")
+                                                : value);
+                                groups.add(group);
+                        });
+                        groups.sort(Comparator.comparingLong((Map<String, Object> group) -> (Long) group.get("deliveries"))
+                                        .reversed());
+                        report.put("groupBy", groupBy);
+                        report.put("groups", groups);
+                }
                 return report;
         }
 
-        public Map<String, Object> getDashboardSummary() {
+        private static DeliverySlaSketch.Dimension parseSlaDimension(String groupBy) {
+                if (groupBy == null || groupBy.isBlank()) {
+                        return null;
+                }
+                switch (groupBy.trim().toLowerCase()) {
+                        case "driver":
+                                return DeliverySlaSketch.Dimension.DRIVER;
+                        case "zipcode":
+                                return DeliverySlaSketch.Dimension.ZIP_CODE;
+                        case "deliverytype":
+                                return DeliverySlaSketch.Dimension.DELIVERY_TYPE;
+                        default:
+                                throw new RuntimeException("Invalid groupBy: " + groupBy
+                                                + " (expected driver, zipCode or deliveryType)");
+                }
+        }
+
+        // Dimension value -> metric -> all days merged
+        private static Map<String, Map<DeliverySlaSketch.Metric, QuantileSketch>> mergeSlaSketches(
+                        List<DeliverySlaSketch> rows) {
+                Map<String, Map<DeliverySlaSketch.Metric, QuantileSketch>> merged = new TreeMap<>();
+                for (DeliverySlaSketch row : rows) {
+                        merged.computeIfAbsent(row.getDimensionValue(), v -> new EnumMap<>(DeliverySlaSketch.Metric.class))
+                                        .computeIfAbsent(row.getMetric(), m -> new QuantileSketch())
+                                        .merge(QuantileSketch.fromBytes(row.getSketch()));
+                }
+                return merged;
+        }
+
+        private static Map<String, Object> slaSummary(Map<DeliverySlaSketch.Metric, QuantileSketch> sketches) {
+                QuantileSketch lateness = sketches != null ? sketches.get(DeliverySlaSketch.Metric.LATENESS) : null;
+                QuantileSketch fulfillment = sketches != null ? sketches.get(DeliverySlaSketch.Metric.FULFILLMENT) : null;
+                long deliveries = Math.max(lateness != null ? lateness.getCount() : 0,
+                                fulfillment != null ? fulfillment.getCount() : 0);
+
                 Map<String, Object> summary = new HashMap<>();
+                summary.put("deliveries", deliveries);
+                summary.put("onTimeRate", lateness != null ? roundSla(lateness.fractionAtMostZero() * 100) : null);
+                summary.put("latenessMinutes", percentiles(lateness));
+                summary.put("fulfillmentMinutes", percentiles(fulfillment));
+                return summary;
+        }
 
-                LocalDate today = LocalDate.now();
-                LocalDate monthStart = today.withDayOfMonth(1);
+        private static Map<String, Object> percentiles(QuantileSketch sketch) {
+                Map<String, Object> values = new HashMap<>();
+                values.put("p50", sketch != null ? roundSla(sketch.quantile(0.5)) : null);
+                values.put("p90", sketch != null ? roundSla(sketch.quantile(0.9)) : null);
+                values.put("p99", sketch != null ? roundSla(sketch.quantile(0.99)) : null);
+                return values;
+        }
 
-                // This month's sales
-                Map<String, Object> salesReport = getSalesReport(monthStart, today);
-                summary.put("monthlySales", salesReport.get("totalSales"));
-                summary.put("monthlyOrders", salesReport.get("totalOrders"));
+        private static Double roundSla(double value) {
+                return Double.isNaN(value) ? null : Math.round(value * 10) / 10.0;
+        }
 
-                // Inventory summary
-                Map<String, Object> inventoryReport = getInventoryReport();
-                summary.put("totalProducts", inventoryReport.get("totalProducts"));
-                summary.put("lowStockProducts", inventoryReport.get("lowStockProducts"));
+        private static Long parseIdCursor(String cursor) {
+                try {
+                        return cursor == null || cursor.isBlank() ? null : Long.valueOf(cursor);
+                } catch (NumberFormatException e) {
+                        throw new RuntimeException("Invalid cursor: " + cursor);
+                }
+        }
 
-                // Today's deliveries (created today, not scheduled for today)
-                List<Delivery> todayDeliveries = deliveryRepository.findByCreatedAtDate(today);
-                long pendingCount = todayDeliveries.stream()
-                                .filter(d -> d.getStatus() == Delivery.DeliveryStatus.PENDING ||
-                                                d.getStatus() == Delivery.DeliveryStatus.SCHEDULED)
-                                .count();
+        private Map<String, Object> deliverySummary(List<Object[]> statusCounts) {
+                Map<Delivery.DeliveryStatus, Long> counts = toStatusCounts(statusCounts);
+                Map<String, Object> report = new HashMap<>();
+                report.put("totalDeliveries", counts.values().stream().mapToLong(Long::longValue).sum());
+                report.put("pendingDeliveries", counts.getOrDefault(Delivery.DeliveryStatus.PENDING, 0L));
+                report.put("scheduledDeliveries", counts.getOrDefault(Delivery.DeliveryStatus.SCHEDULED, 0L));
+                report.put("completedDeliveries", counts.getOrDefault(Delivery.DeliveryStatus.DELIVERED, 0L));
+                report.put("deliveriesByStatus", counts);
+                return report;
+        }
 
-                summary.put("todayDeliveries", todayDeliveries.size());
-                summary.put("pendingDeliveries", pendingCount);
+        private static Map<Delivery.DeliveryStatus, Long> toStatusCounts(List<Object[]> rows) {
+                Map<Delivery.DeliveryStatus, Long> counts = new EnumMap<>(Delivery.DeliveryStatus.class);
+                for (Object[] row : rows) {
+                        counts.put((Delivery.DeliveryStatus) row[0], ((Number) row[1]).longValue());
+                }
+                return counts;
+        }
 
-                // Upcoming events
-                long upcomingEvents = eventRepository.findEventsByDate(today).size();
-                summary.put("upcomingEvents", upcomingEvents);
+        // Dashboard sections; DashboardService runs these concurrently and caches the assembled summary
 
+        public Map<String, Object> getSalesSummary(LocalDate startDate, LocalDate endDate) {
+                SalesTotals totals = summarizeSales(startDate, endDate);
+                Map<String, Object> summary = new HashMap<>();
+                summary.put("totalSales", totals.gross);
+                summary.put("totalOrders", totals.orders);
                 return summary;
         }
 
-        // Get dashboard summary by period
-        public Map<String, Object> getDashboardSummaryByPeriod(String period) {
+        public Map<String, Object> getDistinctSummary(LocalDate startDate, LocalDate endDate) {
+                Map<String, Object> counts = getDistinctCounts(startDate, endDate);
                 Map<String, Object> summary = new HashMap<>();
-                Map<String, LocalDate> range = calculateDateRange(period);
-
-                // Sales for the period
-                Map<String, Object> salesReport = getSalesReport(range.get("startDate"), range.get("endDate"));
-                summary.put("periodSales", salesReport.get("totalSales"));
-                summary.put("periodOrders", salesReport.get("totalOrders"));
-                summary.put("period", period);
+                summary.put("uniqueCustomers", counts.get("uniqueCustomers"));
+                summary.put("uniqueProducts", counts.get("uniqueProducts"));
+                return summary;
+        }
 
-                // Inventory summary (doesn't change with period)
+        public Map<String, Object> getInventorySummary() {
                 Map<String, Object> inventoryReport = getInventoryReport();
+                Map<String, Object> summary = new HashMap<>();
                 summary.put("totalProducts", inventoryReport.get("totalProducts"));
                 summary.put("lowStockProducts", inventoryReport.get("lowStockProducts"));
+                return summary;
+        }
 
-                // Deliveries for the period
-                List<Delivery> periodDeliveries = deliveryRepository.findByScheduledDateBetween(
-                                range.get("startDate"), range.get("endDate"));
-                long pendingCount = periodDeliveries.stream()
-                                .filter(d -> d.getStatus() == Delivery.DeliveryStatus.PENDING ||
-                                                d.getStatus() == Delivery.DeliveryStatus.SCHEDULED)
-                                .count();
+        public Map<Delivery.DeliveryStatus, Long> countDeliveriesCreatedOn(LocalDate date) {
+                return toStatusCounts(deliveryRepository.countByStatusCreatedBetween(date.atStartOfDay(),
+                                date.plusDays(1).atStartOfDay()));
+        }
 
-                summary.put("periodDeliveries", periodDeliveries.size());
-                summary.put("pendingDeliveries", pendingCount);
+        public Map<Delivery.DeliveryStatus, Long> countDeliveriesScheduledBetween(LocalDate startDate,
+                        LocalDate endDate) {
+                return toStatusCounts(deliveryRepository.countByStatusScheduledBetween(startDate, endDate));
+        }
 
-                // Upcoming events
-                long upcomingEvents = eventRepository.findEventsByDate(LocalDate.now()).size();
-                summary.put("upcomingEvents", upcomingEvents);
+        public long countUpcomingEvents(LocalDate date) {
+                return eventRepository.findEventsByDate(date).size();
+        }
 
-                return summary;
+        private static final class SalesTotals {
+                private long orders;
+                private long items;
+                private BigDecimal gross = BigDecimal.ZERO;
+                private final Map<LocalDate, BigDecimal> dailySales = new TreeMap<>();
+                private final Map<String, Long> ordersByStatus = new TreeMap<>();
+                private final Map<String, BigDecimal> salesByPaymentMethod = new TreeMap<>();
+
+                private BigDecimal averageOrderValue() {
+                        return orders > 0
+                                        ? gross.divide(new BigDecimal(orders), 2, RoundingMode.HALF_UP)
+                                        : BigDecimal.ZERO;
+                }
         }
 }
@@ -0,0 +1,391 @@
+package com.flora.service;
+
+import com.flora.dto.DeliveryReportRow;
+import com.flora.dto.PlannedRoute;
+import com.flora.dto.RoutePlan;
+import com.flora.dto.RouteStop;
+import com.flora.model.Delivery;
+import com.flora.model.ZipCentroid;
+import com.flora.repository.DeliveryRepository;
+import com.flora.repository.ZipCentroidRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits a day's open deliveries into driver routes and orders the stops of each.
+ * Deliveries are grouped by time slot, then each slot is cut into routes of at
+ * most {@code maxStopsPerRoute} stops by sweeping around the depot, so every
+ * route covers one wedge of the map. Each route is sequenced with nearest
+ * neighbour and improved with 2-opt, routes in parallel, until no improving move
+ * is left or the time budget runs out. Plans are computed on demand and not
+ * stored; drivers are still assigned per delivery.
+ */
+@Service
+public class RoutePlannerService {
+
+    private static final List<Delivery.DeliveryStatus> PLANNABLE_STATUSES = List.of(
+            Delivery.DeliveryStatus.PENDING, Delivery.DeliveryStatus.SCHEDULED);
+    private static final String ANY_TIME = "Any time";
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final int MAX_STOPS_PER_ROUTE = 200;
+
+    private final DeliveryRepository deliveryRepository;
+    private final ZipCentroidRepository zipCentroidRepository;
+    private final Double depotLatitude;
+    private final Double depotLongitude;
+    private final boolean returnToDepot;
+    private final int defaultMaxStopsPerRoute;
+    private final long timeBudgetMs;
+    private final ExecutorService workers;
+
+    public RoutePlannerService(DeliveryRepository deliveryRepository,
+            ZipCentroidRepository zipCentroidRepository,
+            @Value("${flora.routing.depot-latitude:}") String depotLatitude,
+            @Value("${flora.routing.depot-longitude:}") String depotLongitude,
+            @Value("${flora.routing.return-to-depot:true}") boolean returnToDepot,
+            @Value("${flora.routing.max-stops-per-route:25}") int defaultMaxStopsPerRoute,
+            @Value("${flora.routing.time-budget-ms:3000}") long timeBudgetMs,
+            @Value("${flora.routing.workers:4}") int workerThreads) {
+        this.deliveryRepository = deliveryRepository;
+        this.zipCentroidRepository = zipCentroidRepository;
+        this.depotLatitude = depotLatitude.isBlank() || depotLongitude.isBlank() ? null
+                : Double.valueOf(depotLatitude.trim());
+        this.depotLongitude = this.depotLatitude == null ? null : Double.valueOf(depotLongitude.trim());
+        this.returnToDepot = returnToDepot;
+        this.defaultMaxStopsPerRoute = defaultMaxStopsPerRoute;
+        this.timeBudgetMs = timeBudgetMs;
+        this.workers = Executors.newFixedThreadPool(workerThreads, namedThreads("route-planner-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Transactional(readOnly = true)
+    public RoutePlan planRoutes(LocalDate date, Integer maxStopsPerRoute) {
+        long startedAt = System.currentTimeMillis();
+        int routeSize = maxStopsPerRoute != null ? maxStopsPerRoute : defaultMaxStopsPerRoute;
+        if (routeSize < 1 || routeSize > MAX_STOPS_PER_ROUTE) {
+            throw new RuntimeException("maxStopsPerRoute must be between 1 and " + MAX_STOPS_PER_ROUTE);
+        }
+
+        List<Delivery> deliveries = deliveryRepository.findScheduledDeliveries(date, PLANNABLE_STATUSES);
+        Map<String, double[]> centroids = zipCentroids(deliveries);
+        List<Stop> located = new ArrayList<>();
+        List<DeliveryReportRow> unlocated = new ArrayList<>();
+        for (Delivery delivery : deliveries) {
+            Stop stop = Stop.of(delivery, centroids);
+            if (stop != null) {
+                located.add(stop);
+            } else {
+                unlocated.add(new DeliveryReportRow(delivery.getId(), delivery.getTrackingNumber(),
+                        delivery.getStatus(), delivery.getScheduledDate(), delivery.getScheduledTimeSlot(),
+                        delivery.getRecipientName(), delivery.getDeliveryAddress(), delivery.getDriverName()));
+            }
+        }
+
+        // Without a configured depot, routes start from the middle of the day's stops
+        double[] depot = depotLatitude != null ? new double[] {depotLatitude, depotLongitude} : centreOf(located);
+        boolean closed = returnToDepot && depotLatitude != null;
+
+        // Earliest slot first; routes never mix slots
+        Map<String, List<Stop>> bySlot = new TreeMap<>(Comparator.comparingInt(RoutePlannerService::slotStart)
+                .thenComparing(Comparator.naturalOrder()));
+        for (Stop stop : located) {
+            bySlot.computeIfAbsent(stop.timeSlot, s -> new ArrayList<>()).add(stop);
+        }
+        List<Cluster> clusters = new ArrayList<>();
+        bySlot.forEach((slot, stops) -> {
+            for (List<Stop> wedge : sweep(stops, depot, routeSize)) {
+                clusters.add(new Cluster(slot, wedge));
+            }
+        });
+
+        long deadline = startedAt + timeBudgetMs;
+        List<Callable<PlannedRoute>> tasks = new ArrayList<>();
+        for (int i = 0; i < clusters.size(); i++) {
+            Cluster cluster = clusters.get(i);
+            int routeNumber = i + 1;
+            tasks.add(() -> sequence(routeNumber, cluster, depot, closed, deadline));
+        }
+        List<PlannedRoute> routes = new ArrayList<>();
+        try {
+            for (Future<PlannedRoute> route : workers.invokeAll(tasks)) {
+                routes.add(route.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Route planning was interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Route planning failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        double totalKm = routes.stream().mapToDouble(PlannedRoute::getDistanceKm).sum();
+        return new RoutePlan(date, located.isEmpty() ? null : depot[0], located.isEmpty() ? null : depot[1],
+                located.size(), round(totalKm), located.isEmpty() ? 0 : round(totalKm / located.size()),
+                System.currentTimeMillis() - startedAt, routes, unlocated);
+    }
+
+    private Map<String, double[]> zipCentroids(List<Delivery> deliveries) {
+        Set<String> missing = new HashSet<>();
+        for (Delivery delivery : deliveries) {
+            if ((delivery.getGpsLatitude() == null || delivery.getGpsLongitude() == null)
+                    && delivery.getDeliveryZipCode() != null) {
+                missing.add(delivery.getDeliveryZipCode().trim());
+            }
+        }
+        Map<String, double[]> centroids = new HashMap<>();
+        if (!missing.isEmpty()) {
+            for (ZipCentroid centroid : zipCentroidRepository.findByZipCodeIn(missing)) {
+                centroids.put(centroid.getZipCode(), new double[] {centroid.getLatitude().doubleValue(),
+                        centroid.getLongitude().doubleValue()});
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * Cuts the stops into ceil(n / routeSize) routes of near-equal size by polar
+     * angle around the depot, starting after the widest empty gap so that no
+     * route wraps around the depot.
+     */
+    private static List<List<Stop>> sweep(List<Stop> stops, double[] depot, int routeSize) {
+        double cosLat = Math.cos(Math.toRadians(depot[0]));
+        stops.sort(Comparator.comparingDouble(stop -> Math.atan2(stop.latitude - depot[0],
+                (stop.longitude - depot[1]) * cosLat)));
+
+        int n = stops.size();
+        int start = 0;
+        double widestGap = -1;
+        for (int i = 0; i < n; i++) {
+            double from = angle(stops.get(i), depot, cosLat);
+            double to = angle(stops.get((i + 1) % n), depot, cosLat);
+            double gap = i + 1 < n ? to - from : to + 2 * Math.PI - from;
+            if (gap > widestGap) {
+                widestGap = gap;
+                start = (i + 1) % n;
+            }
+        }
+
+        int routes = (n + routeSize - 1) / routeSize;
+        List<List<Stop>> wedges = new ArrayList<>(routes);
+        for (int r = 0; r < routes; r++) {
+            int from = (int) ((long) n * r / routes);
+            int to = (int) ((long) n * (r + 1) / routes);
+            List<Stop> wedge = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                wedge.add(stops.get((start + i) % n));
+            }
+            wedges.add(wedge);
+        }
+        return wedges;
+    }
+
+    private static double angle(Stop stop, double[] depot, double cosLat) {
+        return Math.atan2(stop.latitude - depot[0], (stop.longitude - depot[1]) * cosLat);
+    }
+
+    private static PlannedRoute sequence(int routeNumber, Cluster cluster, double[] depot, boolean closed,
+            long deadline) {
+        List<Stop> stops = cluster.stops;
+        int n = stops.size();
+
+        // Point 0 is the depot; the tour always starts there
+        double[][] distance = new double[n + 1][n + 1];
+        for (int i = 0; i <= n; i++) {
+            for (int j = i + 1; j <= n; j++) {
+                double km = haversineKm(latitude(stops, depot, i), longitude(stops, depot, i),
+                        latitude(stops, depot, j), longitude(stops, depot, j));
+                distance[i][j] = km;
+                distance[j][i] = km;
+            }
+        }
+
+        int[] tour = nearestNeighbour(distance, n);
+        twoOpt(tour, distance, closed, deadline);
+
+        List<RouteStop> routeStops = new ArrayList<>(n);
+        double total = 0;
+        for (int position = 1; position <= n; position++) {
+            Stop stop = stops.get(tour[position] - 1);
+            double leg = distance[tour[position - 1]][tour[position]];
+            total += leg;
+            routeStops.add(new RouteStop(position, stop.deliveryId, stop.trackingNumber, stop.recipientName,
+                    stop.address, stop.zipCode, stop.latitude, stop.longitude, stop.source, round(leg)));
+        }
+        if (closed && n > 0) {
+            total += distance[tour[n]][0];
+        }
+        return new PlannedRoute(routeNumber, cluster.timeSlot, n, round(total), routeStops);
+    }
+
+    private static int[] nearestNeighbour(double[][] distance, int n) {
+        int[] tour = new int[n + 1];
+        boolean[] visited = new boolean[n + 1];
+        visited[0] = true;
+        for (int position = 1; position <= n; position++) {
+            int from = tour[position - 1];
+            int next = -1;
+            for (int candidate = 1; candidate <= n; candidate++) {
+                if (!visited[candidate] && (next < 0 || distance[from][candidate] < distance[from][next])) {
+                    next = candidate;
+                }
+            }
+            tour[position] = next;
+            visited[next] = true;
+        }
+        return tour;
+    }
+
+    /**
+     * First-improvement 2-opt: reverses tour[i..j] whenever that shortens the route.
+     * On an open route the segment may run to the last stop, which then has no
+     * outgoing edge to pay for.
+     */
+    private static void twoOpt(int[] tour, double[][] distance, boolean closed, long deadline) {
+        int n = tour.length - 1;
+        boolean improved = true;
+        while (improved && System.currentTimeMillis() < deadline) {
+            improved = false;
+            for (int i = 1; i < n; i++) {
+                for (int j = i + 1; j <= n; j++) {
+                    int before = tour[i - 1];
+                    int first = tour[i];
+                    int last = tour[j];
+                    double delta = distance[before][last] - distance[before][first];
+                    if (j < n || closed) {
+                        int after = j < n ? tour[j + 1] : 0;
+                        delta += distance[first][after] - distance[last][after];
+                    }
+                    if (delta < -1e-9) {
+                        reverse(tour, i, j);
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void reverse(int[] tour, int i, int j) {
+        while (i < j) {
+            int swap = tour[i];
+            tour[i++] = tour[j];
+            tour[j--] = swap;
+        }
+    }
+
+    private static double latitude(List<Stop> stops, double[] depot, int point) {
+        return point == 0 ? depot[0] : stops.get(point - 1).latitude;
+    }
+
+    private static double longitude(List<Stop> stops, double[] depot, int point) {
+        return point == 0 ? depot[1] : stops.get(point - 1).longitude;
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2)
+                * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static double[] centreOf(List<Stop> stops) {
+        double latitude = 0;
+        double longitude = 0;
+        for (Stop stop : stops) {
+            latitude += stop.latitude;
+            longitude += stop.longitude;
+        }
+        int n = Math.max(1, stops.size());
+        return new double[] {latitude / n, longitude / n};
+    }
+
+    // Unparseable slots sort last
+    private static int slotStart(String timeSlot) {
+        Integer start = TimeSlot.startMinute(timeSlot);
+        return start != null ? start : Integer.MAX_VALUE;
+    }
+
+    private static double round(double km) {
+        return Math.round(km * 100) / 100.0;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Cluster {
+
+        private final String timeSlot;
+        private final List<Stop> stops;
+
+        private Cluster(String timeSlot, List<Stop> stops) {
+            this.timeSlot = timeSlot;
+            this.stops = stops;
+        }
+    }
+
+    private static final class Stop {
+
+        private final Long deliveryId;
+        private final String trackingNumber;
+        private final String recipientName;
+        private final String address;
+        private final String zipCode;
+        private final String timeSlot;
+        private final double latitude;
+        private final double longitude;
+        private final String source;
+
+        private Stop(Delivery delivery, double latitude, double longitude, String source) {
+            this.deliveryId = delivery.getId();
+            this.trackingNumber = delivery.getTrackingNumber();
+            this.recipientName = delivery.getRecipientName();
+            this.address = delivery.getDeliveryAddress();
+            this.zipCode = delivery.getDeliveryZipCode();
+            String slot = delivery.getScheduledTimeSlot();
+            this.timeSlot = slot == null || slot.isBlank() ? ANY_TIME : slot.trim();
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.source = source;
+        }
+
+        // Null when the delivery can be placed neither by GPS nor by zip code
+        static Stop of(Delivery delivery, Map<String, double[]> zipCentroids) {
+            if (delivery.getGpsLatitude() != null && delivery.getGpsLongitude() != null) {
+                return new Stop(delivery, delivery.getGpsLatitude().doubleValue(),
+                        delivery.getGpsLongitude().doubleValue(), "GPS");
+            }
+            double[] centroid = delivery.getDeliveryZipCode() != null
+                    ? zipCentroids.get(delivery.getDeliveryZipCode().trim()) : null;
+            return centroid != null ? new Stop(delivery, centroid[0], centroid[1], "ZIP") : null;
+        }
+    }
+}
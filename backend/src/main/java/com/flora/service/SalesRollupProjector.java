@@ -0,0 +1,97 @@
+package com.flora.service;
+
+import com.flora.event.OrderCreatedEvent;
+import com.flora.event.OrderStatusChangedEvent;
+import com.flora.model.Order;
+import com.flora.model.OrderItem;
+import com.flora.repository.DailySalesRollupRepository;
+import com.flora.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintains daily_sales_rollup from order write events. Like the order read model,
+ * deltas are applied before commit inside the writing transaction, so the rollups
+ * and the orders they summarize always commit (or roll back) together.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesRollupProjector implements SmartInitializingSingleton {
+
+    // daily_sales_rollup.payment_method; longer methods are cut so the upsert never fails a checkout
+    static final int MAX_PAYMENT_METHOD_LENGTH = 50;
+
+    private final DailySalesRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final ProjectionBackfillService backfillService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        long units = 0;
+        for (OrderItem item : order.getOrderItems()) {
+            units += item.getQuantity();
+        }
+        apply(order.getCreatedAt(), order.getStatus(), order.getPaymentMethod(), 1, order.getTotalAmount(), units);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getPreviousStatus() == null || event.getPreviousStatus() == event.getStatus()) {
+            return;
+        }
+        List<Object[]> rows = orderRepository.findRollupFactsById(event.getOrderId());
+        if (rows.isEmpty()) {
+            return;
+        }
+        Object[] facts = rows.get(0);
+        LocalDateTime createdAt = (LocalDateTime) facts[0];
+        String paymentMethod = (String) facts[1];
+        BigDecimal amount = (BigDecimal) facts[2];
+        long units = ((Number) facts[3]).longValue();
+
+        // The order moves from one status bucket to the other on its creation day
+        apply(createdAt, event.getPreviousStatus(), paymentMethod, -1, amount.negate(), -units);
+        apply(createdAt, event.getStatus(), paymentMethod, 1, amount, units);
+    }
+
+    /**
+     * Loads the rollups from the orders table once, on the first start after the
+     * table was introduced, before any order can be taken. Afterwards every order
+     * write path publishes the events above, and status changes are guarded
+     * updates, so each event's previous status is the one its transaction actually
+     * replaced.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfillService.runOnce("daily_sales_rollup", () -> {
+            rollupRepository.deleteAllInBatch();
+            return rollupRepository.rebuildFromOrders();
+        });
+    }
+
+    private void apply(LocalDateTime createdAt, Order.OrderStatus status, String paymentMethod, long orders,
+            BigDecimal gross, long units) {
+        LocalDate day = createdAt != null ? createdAt.toLocalDate() : LocalDate.now();
+        rollupRepository.applyDelta(day, status.name(), paymentMethodKey(paymentMethod), orders,
+                gross != null ? gross : BigDecimal.ZERO, units);
+    }
+
+    // Same normalization as DailySalesRollupRepository.rebuildFromOrders
+    static String paymentMethodKey(String paymentMethod) {
+        if (paymentMethod == null) {
+            return "";
+        }
+        String trimmed = paymentMethod.trim();
+        return trimmed.length() > MAX_PAYMENT_METHOD_LENGTH ? trimmed.substring(0, MAX_PAYMENT_METHOD_LENGTH)
+                : trimmed;
+    }
+}
@@ -0,0 +1,477 @@
+package com.flora.service;
+
+import com.flora.dto.DeliverySlotAvailability;
+import com.flora.dto.SlotCapacityRequest;
+import com.flora.event.DeliveryStatusChangedEvent;
+import com.flora.exception.CheckoutRejectedException;
+import com.flora.model.Delivery;
+import com.flora.model.DeliverySlotCapacity;
+import com.flora.repository.DeliveryRepository;
+import com.flora.repository.DeliverySlotCapacityRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Delivery time-slot capacity per day and delivery zone (a zip code prefix). The
+ * slots of a zone-day are loaded once into memory as counters of capacity taken,
+ * including the claims of checkouts still in flight, and checkouts claim a slot with
+ * a compare-and-set on its counter, so a full slot is refused without a database
+ * round trip or any lock. The claim is written while the order transaction
+ * commits, as a conditional increment that also guards against other nodes; if
+ * that finds the slot full the order is rolled back, and a rolled back order hands
+ * its claim back, and a cancelled delivery gives its slot back when the cancellation
+ * commits. Days without configured capacity get the default time slots at
+ * the default capacity. A day's slots are offered earliest first.
+ */
+@Service
+public class SlotCapacityService {
+
+    // Zone for zip codes shorter than the configured prefix
+    public static final String DEFAULT_ZONE = "DEFAULT";
+
+    private static final int MAX_LISTED_DAYS = 31;
+    private static final int MAX_ADMIN_DAYS = 366;
+    private static final int MAX_BULK_SLOTS = 20000;
+
+    private final DeliverySlotCapacityRepository capacityRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final List<String> defaultTimeSlots;
+    private final int defaultCapacity;
+    private final int leadDays;
+    private final int horizonDays;
+    private final int zonePrefixLength;
+
+    private final ConcurrentMap<DayKey, ZoneDay> days = new ConcurrentHashMap<>();
+    private final AtomicReference<LocalDate> prunedBefore = new AtomicReference<>(LocalDate.MIN);
+
+    public SlotCapacityService(DeliverySlotCapacityRepository capacityRepository,
+            DeliveryRepository deliveryRepository,
+            @Value("${flora.slots.time-slots:9:00 AM - 12:00 PM,12:00 PM - 3:00 PM,3:00 PM - 6:00 PM}")
+            String timeSlots,
+            @Value("${flora.slots.default-capacity:40}") int defaultCapacity,
+            @Value("${flora.slots.lead-days:1}") int leadDays,
+            @Value("${flora.slots.horizon-days:14}") int horizonDays,
+            @Value("${flora.slots.zone-prefix-length:3}") int zonePrefixLength) {
+        this.capacityRepository = capacityRepository;
+        this.deliveryRepository = deliveryRepository;
+        List<String> slots = new ArrayList<>();
+        for (String slot : timeSlots.split(",")) {
+            if (!slot.isBlank()) {
+                slots.add(slot.trim());
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("flora.slots.time-slots must list at least one time slot");
+        }
+        for (String slot : slots) {
+            if (!TimeSlot.isValid(slot)) {
+                throw new IllegalArgumentException("Time slot needs a start and end time: " + slot);
+            }
+        }
+        this.defaultTimeSlots = List.copyOf(slots);
+        this.defaultCapacity = defaultCapacity;
+        this.leadDays = leadDays;
+        this.horizonDays = Math.max(1, horizonDays);
+        this.zonePrefixLength = zonePrefixLength;
+    }
+
+    public String zoneOf(String zipCode) {
+        String normalized = normalize(zipCode);
+        if (zonePrefixLength <= 0 || normalized.length() < zonePrefixLength) {
+            return DEFAULT_ZONE;
+        }
+        return normalized.substring(0, zonePrefixLength);
+    }
+
+    // Slots offered at checkout for the zip code, from the first bookable day on
+    public List<DeliverySlotAvailability> getAvailableSlots(String zipCode, LocalDate from, int days) {
+        String zone = zoneOf(zipCode);
+        LocalDate first = firstBookableDate();
+        if (from != null && from.isAfter(first)) {
+            first = from;
+        }
+        LocalDate last = first.plusDays(Math.max(1, Math.min(days, MAX_LISTED_DAYS)) - 1);
+        if (last.isAfter(lastBookableDate())) {
+            last = lastBookableDate();
+        }
+
+        List<DeliverySlotAvailability> slots = new ArrayList<>();
+        for (Map.Entry<LocalDate, ZoneDay> day : load(zone, first, last).entrySet()) {
+            for (SlotCounter counter : day.getValue().slots.values()) {
+                if (counter.capacity > 0) {
+                    slots.add(counter.toAvailability(day.getKey(), zone));
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Claims a slot for an order being placed and returns it; with no preference the
+     * earliest free slot is taken, with only a date the earliest free slot that day.
+     * The claim is written to the database when the calling transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Reservation reserve(String zipCode, LocalDate preferredDate, String preferredTimeSlot) {
+        String zone = zoneOf(zipCode);
+        LocalDate first = firstBookableDate();
+        LocalDate last = lastBookableDate();
+        if (preferredDate != null) {
+            if (preferredDate.isBefore(first) || preferredDate.isAfter(last)) {
+                throw new CheckoutRejectedException("Deliveries can be scheduled from " + first + " to " + last,
+                        HttpStatus.BAD_REQUEST, 0);
+            }
+            first = preferredDate;
+            last = preferredDate;
+        } else if (preferredTimeSlot != null && !preferredTimeSlot.isBlank()) {
+            throw new CheckoutRejectedException("Choose a delivery date for the time slot", HttpStatus.BAD_REQUEST, 0);
+        }
+
+        for (Map.Entry<LocalDate, ZoneDay> day : load(zone, first, last).entrySet()) {
+            ZoneDay zoneDay = day.getValue();
+            if (preferredTimeSlot != null && !preferredTimeSlot.isBlank()) {
+                SlotCounter counter = zoneDay.slots.get(preferredTimeSlot.trim());
+                if (counter == null) {
+                    throw new CheckoutRejectedException("Unknown delivery slot: " + preferredTimeSlot,
+                            HttpStatus.BAD_REQUEST, 0);
+                }
+                if (counter.tryClaim()) {
+                    return claimed(new DayKey(day.getKey(), zone), zoneDay, counter);
+                }
+                throw new CheckoutRejectedException("The selected delivery slot is full, please choose another",
+                        HttpStatus.CONFLICT, 0);
+            }
+            for (SlotCounter counter : zoneDay.slots.values()) {
+                if (counter.tryClaim()) {
+                    return claimed(new DayKey(day.getKey(), zone), zoneDay, counter);
+                }
+            }
+        }
+        throw new CheckoutRejectedException(preferredDate != null
+                ? "No delivery slots are left on " + preferredDate + ", please choose another day"
+                : "No delivery slots are available in your area right now", HttpStatus.CONFLICT, 0);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DeliverySlotAvailability> getCapacities(LocalDate startDate, LocalDate endDate, String zone) {
+        checkAdminRange(startDate, endDate);
+        List<DeliverySlotCapacity> rows = zone != null && !zone.isBlank()
+                ? capacityRepository.findByZoneAndSlotDateBetween(normalize(zone), startDate, endDate)
+                : capacityRepository.findBySlotDateBetweenOrderBySlotDateAscZoneAsc(startDate, endDate);
+        List<DeliverySlotAvailability> capacities = new ArrayList<>(rows.size());
+        for (DeliverySlotCapacity row : rows) {
+            capacities.add(new DeliverySlotAvailability(row.getSlotDate(), row.getZone(), row.getTimeSlot(),
+                    row.getCapacity(), row.getReserved(), Math.max(0, row.getCapacity() - row.getReserved())));
+        }
+        return capacities;
+    }
+
+    // Returns the number of slots written; lowering a capacity below what is reserved only closes the slot
+    @Transactional
+    public int setCapacities(SlotCapacityRequest request) {
+        checkAdminRange(request.getStartDate(), request.getEndDate());
+        Set<String> zones = new LinkedHashSet<>();
+        for (String zone : request.getZones()) {
+            if (zone != null && !zone.isBlank()) {
+                zones.add(normalize(zone));
+            }
+        }
+        Set<String> timeSlots = new LinkedHashSet<>();
+        for (String timeSlot : request.getTimeSlots()) {
+            if (timeSlot == null || !TimeSlot.isValid(timeSlot)) {
+                throw new RuntimeException("Time slot must have a start and end time, like 9:00 AM - 12:00 PM: "
+                        + timeSlot);
+            }
+            timeSlots.add(timeSlot.trim());
+        }
+        long dayCount = ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) + 1;
+        if (dayCount * zones.size() * timeSlots.size() > MAX_BULK_SLOTS) {
+            throw new RuntimeException("At most " + MAX_BULK_SLOTS + " slots can be updated at once");
+        }
+
+        int written = 0;
+        List<DayKey> touched = new ArrayList<>();
+        for (LocalDate date = request.getStartDate(); !date.isAfter(request.getEndDate()); date = date.plusDays(1)) {
+            for (String zone : zones) {
+                for (String timeSlot : timeSlots) {
+                    capacityRepository.upsertCapacity(date, zone, timeSlot, request.getCapacity());
+                    written++;
+                }
+                touched.add(new DayKey(date, zone));
+            }
+        }
+
+        // Reloaded on next use, once the new capacities are visible
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                touched.forEach(days::remove);
+            }
+        });
+        return written;
+    }
+
+    // Cancelling an order cancels its deliveries, so this covers both; a cancelled delivery can't be reopened
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onDeliveryStatusChanged(DeliveryStatusChangedEvent event) {
+        if (event.getStatus() != Delivery.DeliveryStatus.CANCELLED
+                || event.getPreviousStatus() == Delivery.DeliveryStatus.CANCELLED) {
+            return;
+        }
+        for (Object[] slot : deliveryRepository.findSlotById(event.getDeliveryId())) {
+            LocalDate date = (LocalDate) slot[0];
+            String timeSlot = (String) slot[1];
+            if (date == null || timeSlot == null) {
+                continue;
+            }
+            DayKey key = new DayKey(date, zoneOf((String) slot[2]));
+            if (capacityRepository.release(key.date, key.zone, timeSlot.trim()) > 0) {
+                // Reloaded on next use, once the released slot is visible
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        days.remove(key);
+                    }
+                });
+            }
+        }
+    }
+
+    private Reservation claimed(DayKey key, ZoneDay zoneDay, SlotCounter counter) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (capacityRepository.tryReserve(key.date, key.zone, counter.timeSlot) == 0
+                        && !reserveInNewRow(key, counter)) {
+                    // Taken through another node or changed by an admin; reload the day from the database
+                    days.remove(key, zoneDay);
+                    throw new CheckoutRejectedException("The selected delivery slot has just filled up, "
+                            + "please choose another", HttpStatus.CONFLICT, 0);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    counter.release();
+                }
+            }
+        });
+        return new Reservation(key.date, key.zone, counter.timeSlot);
+    }
+
+    // Only once the update found nothing: INSERT IGNORE on an existing row takes a shared lock, and two
+    // checkouts both upgrading it to the update's exclusive lock would deadlock
+    private boolean reserveInNewRow(DayKey key, SlotCounter counter) {
+        if (capacityRepository.existsBySlotDateAndZoneAndTimeSlot(key.date, key.zone, counter.timeSlot)) {
+            return false;
+        }
+        capacityRepository.insertIfAbsent(key.date, key.zone, counter.timeSlot, counter.capacity);
+        return capacityRepository.tryReserve(key.date, key.zone, counter.timeSlot) > 0;
+    }
+
+    // Zone-days of the range in date order, loading the missing ones with a single query
+    private Map<LocalDate, ZoneDay> load(String zone, LocalDate first, LocalDate last) {
+        pruneExpired();
+        Map<LocalDate, ZoneDay> loaded = new LinkedHashMap<>();
+        LocalDate missingFrom = null;
+        LocalDate missingTo = null;
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            ZoneDay zoneDay = days.get(new DayKey(date, zone));
+            loaded.put(date, zoneDay);
+            if (zoneDay == null) {
+                missingFrom = missingFrom == null ? date : missingFrom;
+                missingTo = date;
+            }
+        }
+        if (missingFrom == null) {
+            return loaded;
+        }
+
+        Map<LocalDate, List<DeliverySlotCapacity>> rowsByDate = new HashMap<>();
+        for (DeliverySlotCapacity row : capacityRepository.findByZoneAndSlotDateBetween(zone, missingFrom, missingTo)) {
+            rowsByDate.computeIfAbsent(row.getSlotDate(), date -> new ArrayList<>()).add(row);
+        }
+        for (Map.Entry<LocalDate, ZoneDay> entry : loaded.entrySet()) {
+            if (entry.getValue() == null) {
+                ZoneDay fresh = newZoneDay(rowsByDate.getOrDefault(entry.getKey(), Collections.emptyList()));
+                ZoneDay existing = days.putIfAbsent(new DayKey(entry.getKey(), zone), fresh);
+                entry.setValue(existing != null ? existing : fresh);
+            }
+        }
+        return loaded;
+    }
+
+    // Default slots plus any extra slots configured for the day, earliest first
+    private ZoneDay newZoneDay(List<DeliverySlotCapacity> rows) {
+        Map<String, SlotCounter> counters = new HashMap<>();
+        for (String timeSlot : defaultTimeSlots) {
+            counters.put(timeSlot, new SlotCounter(timeSlot, defaultCapacity, 0));
+        }
+        for (DeliverySlotCapacity row : rows) {
+            counters.put(row.getTimeSlot(), new SlotCounter(row.getTimeSlot(), row.getCapacity(), row.getReserved()));
+        }
+        List<SlotCounter> ordered = new ArrayList<>(counters.values());
+        ordered.sort(Comparator.comparing((SlotCounter counter) -> TimeSlot.startMinute(counter.timeSlot),
+                Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(counter -> counter.timeSlot));
+        Map<String, SlotCounter> slots = new LinkedHashMap<>();
+        for (SlotCounter counter : ordered) {
+            slots.put(counter.timeSlot, counter);
+        }
+        return new ZoneDay(Collections.unmodifiableMap(slots));
+    }
+
+    // Past days can no longer be booked; dropped once per day by whichever caller gets there first
+    private void pruneExpired() {
+        LocalDate today = LocalDate.now();
+        LocalDate pruned = prunedBefore.get();
+        if (pruned.isBefore(today) && prunedBefore.compareAndSet(pruned, today)) {
+            days.keySet().removeIf(key -> key.date.isBefore(today));
+        }
+    }
+
+    private LocalDate firstBookableDate() {
+        return LocalDate.now().plusDays(leadDays);
+    }
+
+    private LocalDate lastBookableDate() {
+        return firstBookableDate().plusDays(horizonDays - 1);
+    }
+
+    private static void checkAdminRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_ADMIN_DAYS) {
+            throw new RuntimeException("Date range must not exceed " + MAX_ADMIN_DAYS + " days");
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public static final class Reservation {
+
+        private final LocalDate date;
+        private final String zone;
+        private final String timeSlot;
+
+        private Reservation(LocalDate date, String zone, String timeSlot) {
+            this.date = date;
+            this.zone = zone;
+            this.timeSlot = timeSlot;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public String getZone() {
+            return zone;
+        }
+
+        public String getTimeSlot() {
+            return timeSlot;
+        }
+    }
+
+    private static final class ZoneDay {
+
+        // Fixed once loaded; capacity changes replace the whole day
+        private final Map<String, SlotCounter> slots;
+
+        private ZoneDay(Map<String, SlotCounter> slots) {
+            this.slots = slots;
+        }
+    }
+
+    private static final class SlotCounter {
+
+        private final String timeSlot;
+        private final int capacity;
+        // Reservations already committed plus claims of checkouts still in flight
+        private final AtomicInteger taken;
+
+        private SlotCounter(String timeSlot, int capacity, int reserved) {
+            this.timeSlot = timeSlot;
+            this.capacity = capacity;
+            this.taken = new AtomicInteger(reserved);
+        }
+
+        boolean tryClaim() {
+            while (true) {
+                int current = taken.get();
+                if (current >= capacity) {
+                    return false;
+                }
+                if (taken.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            taken.decrementAndGet();
+        }
+
+        DeliverySlotAvailability toAvailability(LocalDate date, String zone) {
+            int current = taken.get();
+            return new DeliverySlotAvailability(date, zone, timeSlot, capacity, current,
+                    Math.max(0, capacity - current));
+        }
+    }
+
+    private static final class DayKey {
+
+        private final LocalDate date;
+        private final String zone;
+
+        private DayKey(LocalDate date, String zone) {
+            this.date = date;
+            this.zone = zone;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DayKey)) {
+                return false;
+            }
+            DayKey other = (DayKey) o;
+            return date.equals(other.date) && zone.equals(other.zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, zone);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.flora.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy hitters over weighted long keys in a fixed number of
+ * counters. A key that isn't tracked takes over the smallest counter and
+ * inherits its count as the error, so every estimate overcounts by at most its
+ * {@link Counter#getError() error}, and any key whose true weight exceeds
+ * total / capacity is guaranteed to be tracked. Not thread-safe.
+ */
+public final class SpaceSaving {
+
+    private static final Comparator<Counter> BY_COUNT = Comparator.comparingLong(Counter::getCount)
+            .thenComparingLong(Counter::getKey);
+
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> ordered = new TreeSet<>(BY_COUNT);
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Space-Saving capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public void offer(long key, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        total += weight;
+
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(key, 0, 0);
+            } else {
+                Counter smallest = ordered.pollFirst();
+                counters.remove(smallest.key);
+                counter = new Counter(key, smallest.count, smallest.count);
+            }
+            counters.put(key, counter);
+        } else {
+            // Re-inserted below with its new count
+            ordered.remove(counter);
+        }
+        counter.count += weight;
+        ordered.add(counter);
+    }
+
+    // Up to n counters, largest estimate first
+    public List<Counter> top(int n) {
+        List<Counter> result = new ArrayList<>(Math.min(n, counters.size()));
+        Iterator<Counter> descending = ordered.descendingIterator();
+        while (descending.hasNext() && result.size() < n) {
+            Counter counter = descending.next();
+            result.add(new Counter(counter.key, counter.count, counter.error));
+        }
+        return result;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void clear() {
+        counters.clear();
+        ordered.clear();
+        total = 0;
+    }
+
+    public static final class Counter {
+
+        private final long key;
+        private long count;
+        private final long error;
+
+        private Counter(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        // Upper bound of the key's true weight
+        public long getCount() {
+            return count;
+        }
+
+        // Maximum overcount; count - error is a lower bound of the true weight
+        public long getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.flora.service;
+
+import com.flora.dto.TrackingStatusUpdate;
+import com.flora.event.DeliveryStatusChangedEvent;
+import com.flora.event.OrderStatusChangedEvent;
+import com.flora.exception.TooManyRequestsException;
+import com.flora.model.User;
+import com.flora.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * In-process fan-out of order and delivery status changes to server-sent event
+ * subscribers. Connections are held as async servlet requests, so an idle
+ * subscriber costs no thread; a small dispatcher pool drains each subscriber's
+ * bounded buffer, and subscribers that fall behind are disconnected rather than
+ * slowing the publisher down. Public tracking streams are capped per tracking
+ * number and per remote address, and only see the delivery's own status.
+ */
+@Service
+public class StatusStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusStreamService.class);
+
+    private final UserRepository userRepository;
+    private final long timeoutMs;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final int maxPerTracking;
+    private final int maxPerAddress;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> adminSubscribers = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, Set<Subscriber>> userSubscribers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Subscriber>> trackingSubscribers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Subscriber>> addressSubscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+
+    public StatusStreamService(UserRepository userRepository,
+            @Value("${flora.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${flora.stream.buffer-size:32}") int bufferSize,
+            @Value("${flora.stream.max-subscribers:50000}") int maxSubscribers,
+            @Value("${flora.stream.max-per-tracking:20}") int maxPerTracking,
+            @Value("${flora.stream.max-per-address:50}") int maxPerAddress,
+            @Value("${flora.stream.dispatcher-threads:4}") int dispatcherThreads,
+            @Value("${flora.stream.heartbeat-seconds:20}") long heartbeatSeconds) {
+        this.userRepository = userRepository;
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPerTracking = maxPerTracking;
+        this.maxPerAddress = maxPerAddress;
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, namedThreads("status-stream-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(namedThreads("status-stream-heartbeat-"));
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    public SseEmitter subscribeForUser(String username) {
+        User user = userRepository.findByEmail(username)
+                .orElseGet(() -> userRepository.findByUsername(username)
+                        .orElseThrow(() -> new RuntimeException("User not found")));
+        Long userId = user.getId();
+        return register(subscriber -> {
+            attach(userSubscribers, userId, subscriber);
+            return () -> detach(userSubscribers, userId, subscriber);
+        });
+    }
+
+    // Unauthenticated, so the caller checks the tracking number exists and both caps apply
+    public SseEmitter subscribeForTracking(String trackingNumber, String remoteAddress) {
+        return register(subscriber -> {
+            attachBounded(addressSubscribers, remoteAddress, subscriber, maxPerAddress,
+                    "Too many open status streams from this address");
+            try {
+                attachBounded(trackingSubscribers, trackingNumber, subscriber, maxPerTracking,
+                        "Too many open status streams for this tracking number");
+            } catch (RuntimeException e) {
+                detach(addressSubscribers, remoteAddress, subscriber);
+                throw e;
+            }
+            return () -> {
+                detach(trackingSubscribers, trackingNumber, subscriber);
+                detach(addressSubscribers, remoteAddress, subscriber);
+            };
+        });
+    }
+
+    public SseEmitter subscribeForAdmin() {
+        return register(subscriber -> {
+            adminSubscribers.add(subscriber);
+            return () -> adminSubscribers.remove(subscriber);
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        StreamMessage message = new StreamMessage("order-status", event);
+        publish(userSubscribers.get(event.getUserId()), message);
+        publish(adminSubscribers, message);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeliveryStatusChanged(DeliveryStatusChangedEvent event) {
+        StreamMessage message = new StreamMessage("delivery-status", event);
+        publish(trackingSubscribers.get(event.getTrackingNumber()), new StreamMessage("delivery-status",
+                new TrackingStatusUpdate(event.getTrackingNumber(), event.getPreviousStatus(), event.getStatus(),
+                        event.getDriverName(), event.getChangedAt())));
+        if (event.getUserId() != null) {
+            publish(userSubscribers.get(event.getUserId()), message);
+        }
+        publish(adminSubscribers, message);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+    }
+
+    private SseEmitter register(Function<Subscriber, Runnable> attachToIndex) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("Too many open status streams, please retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+
+        emitter.onCompletion(subscriber::unregister);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.unregister());
+
+        subscribers.add(subscriber);
+        try {
+            subscriber.detach = attachToIndex.apply(subscriber);
+        } catch (RuntimeException e) {
+            subscribers.remove(subscriber);
+            throw e;
+        }
+        if (subscriber.closed.get()) {
+            // Completed before it was indexed
+            subscriber.detach.run();
+        }
+
+        // Flushes the response headers so the client sees the stream as open
+        subscriber.offer(StreamMessage.comment("connected"));
+        return emitter;
+    }
+
+    // compute/computeIfPresent keep add and prune atomic per key, so a subscriber never lands in a pruned set
+    private static <K> void attach(ConcurrentMap<K, Set<Subscriber>> index, K key, Subscriber subscriber) {
+        index.compute(key, (k, existing) -> {
+            Set<Subscriber> group = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            group.add(subscriber);
+            return group;
+        });
+    }
+
+    // Throwing from compute leaves the group untouched, so the size check and the add are one step
+    private static <K> void attachBounded(ConcurrentMap<K, Set<Subscriber>> index, K key, Subscriber subscriber,
+            int limit, String rejection) {
+        index.compute(key, (k, existing) -> {
+            Set<Subscriber> group = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            if (group.size() >= limit) {
+                throw new TooManyRequestsException(rejection);
+            }
+            group.add(subscriber);
+            return group;
+        });
+    }
+
+    private static <K> void detach(ConcurrentMap<K, Set<Subscriber>> index, K key, Subscriber subscriber) {
+        index.computeIfPresent(key, (k, group) -> {
+            group.remove(subscriber);
+            return group.isEmpty() ? null : group;
+        });
+    }
+
+    private void publish(Set<Subscriber> targets, StreamMessage message) {
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(message);
+        }
+    }
+
+    private void sendHeartbeats() {
+        try {
+            StreamMessage ping = StreamMessage.comment("heartbeat");
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(ping);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Status stream heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // SseEventBuilder is mutable and single-use, so the shared payload is kept separately and built per send
+    private static final class StreamMessage {
+
+        private final String name;
+        private final Object data;
+        private final String comment;
+
+        private StreamMessage(String name, Object data) {
+            this(name, data, null);
+        }
+
+        private StreamMessage(String name, Object data, String comment) {
+            this.name = name;
+            this.data = data;
+            this.comment = comment;
+        }
+
+        static StreamMessage comment(String comment) {
+            return new StreamMessage(null, null, comment);
+        }
+
+        SseEmitter.SseEventBuilder toEvent() {
+            SseEmitter.SseEventBuilder event = SseEmitter.event();
+            if (comment != null) {
+                return event.comment(comment);
+            }
+            return event.name(name).data(data);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamMessage> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Runnable detach = () -> {
+        };
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(StreamMessage message) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(message)) {
+                logger.debug("Evicting slow status stream subscriber");
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamMessage message;
+                while (!closed.get() && (message = buffer.poll()) != null) {
+                    emitter.send(message.toEvent());
+                }
+            } catch (Exception e) {
+                // Client went away or the async request already completed
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // A message offered between the last poll and releasing the flag would otherwise wait for the next one
+            if (!closed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unregister();
+                try {
+                    emitter.complete();
+                } catch (RuntimeException ignored) {
+                    // Already completed by the container
+                }
+            }
+        }
+
+        void unregister() {
+            closed.set(true);
+            buffer.clear();
+            if (subscribers.remove(this)) {
+                detach.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.flora.service;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Delivery time slots are stored as display text such as "9:00 AM - 12:00 PM".
+ * This parses them into minutes after midnight, which is what deliveries are
+ * indexed and ordered by. Times are 12-hour with AM/PM or 24-hour; an end at or
+ * before the start means the slot runs past midnight and comes back above 1440.
+ */
+public final class TimeSlot {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final Pattern TIME = Pattern.compile("(\\d{1,2}):(\\d{2})\\s*([AaPp][Mm])?");
+
+    private TimeSlot() {
+    }
+
+    // Null without a recognizable time
+    public static Integer startMinute(String timeSlot) {
+        int[] times = parse(timeSlot);
+        return times[0] >= 0 ? times[0] : null;
+    }
+
+    // Null unless the slot has both a start and an end time
+    public static Integer endMinute(String timeSlot) {
+        int[] times = parse(timeSlot);
+        if (times[1] < 0) {
+            return null;
+        }
+        return times[1] > times[0] ? times[1] : times[1] + MINUTES_PER_DAY;
+    }
+
+    public static boolean isValid(String timeSlot) {
+        return parse(timeSlot)[1] >= 0;
+    }
+
+    // First two recognizable times, -1 where missing
+    private static int[] parse(String timeSlot) {
+        int[] times = {-1, -1};
+        if (timeSlot == null) {
+            return times;
+        }
+        Matcher matcher = TIME.matcher(timeSlot);
+        int found = 0;
+        while (found < 2 && matcher.find()) {
+            int hour = Integer.parseInt(matcher.group(1));
+            int minute = Integer.parseInt(matcher.group(2));
+            String meridiem = matcher.group(3);
+            if (meridiem != null) {
+                if (hour < 1 || hour > 12) {
+                    continue;
+                }
+                hour = hour % 12 + (meridiem.equalsIgnoreCase("PM") ? 12 : 0);
+            }
+            if (hour < 24 && minute < 60) {
+                times[found++] = hour * 60 + minute;
+            }
+        }
+        return times;
+    }
+}
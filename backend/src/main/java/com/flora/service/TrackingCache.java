@@ -0,0 +1,151 @@
+package com.flora.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flora.dto.DeliveryResponse;
+import com.flora.event.DeliveryStatusChangedEvent;
+import com.flora.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Public tracking lookups by tracking number and by order number, with an ETag per
+ * snapshot so refreshing clients can be answered with 304. Unknown numbers are
+ * cached too, for a shorter time. Entries are dropped once a delivery change
+ * commits; a lookup that raced with such a change is not cached.
+ */
+@Service
+public class TrackingCache {
+
+    private final ObjectMapper objectMapper;
+    private final long ttlMs;
+    private final long negativeTtlMs;
+    private final int maxEntries;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; loads that span one are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public TrackingCache(ObjectMapper objectMapper,
+            @Value("${flora.tracking-cache.ttl-ms:300000}") long ttlMs,
+            @Value("${flora.tracking-cache.negative-ttl-ms:60000}") long negativeTtlMs,
+            @Value("${flora.tracking-cache.max-entries:100000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.ttlMs = ttlMs;
+        this.negativeTtlMs = negativeTtlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    public static String trackingKey(String trackingNumber) {
+        return "T:" + trackingNumber;
+    }
+
+    public static String orderNumberKey(String orderNumber) {
+        return "O:" + orderNumber;
+    }
+
+    /**
+     * Cached entry for the key, loading it on a miss. A loader throwing
+     * {@link ResourceNotFoundException} produces a negative entry.
+     */
+    public Entry get(String key, Supplier<DeliveryResponse> loader) {
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached;
+        }
+
+        long stamp = generation.get();
+        DeliveryResponse response;
+        try {
+            response = loader.get();
+        } catch (ResourceNotFoundException e) {
+            response = null;
+        }
+        Entry loaded = response != null ? new Entry(response, etag(response), now + ttlMs)
+                : new Entry(null, null, now + negativeTtlMs);
+
+        if (generation.get() == stamp) {
+            makeRoom(now);
+            entries.put(key, loaded);
+            if (generation.get() != stamp) {
+                entries.remove(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeliveryStatusChanged(DeliveryStatusChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.getTrackingNumber() != null) {
+            entries.remove(trackingKey(event.getTrackingNumber()));
+        }
+        if (event.getOrderNumber() != null) {
+            entries.remove(orderNumberKey(event.getOrderNumber()));
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Expired entries go first; when everything is live, an arbitrary eighth is dropped
+    private void makeRoom(long now) {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 8);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private String etag(DeliveryResponse response) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(response)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize delivery " + response.getTrackingNumber(), e);
+        }
+    }
+
+    public static final class Entry {
+
+        // Null for unknown numbers
+        private final DeliveryResponse response;
+        private final String etag;
+        private final long expiresAt;
+
+        private Entry(DeliveryResponse response, String etag, long expiresAt) {
+            this.response = response;
+            this.etag = etag;
+            this.expiresAt = expiresAt;
+        }
+
+        public boolean isFound() {
+            return response != null;
+        }
+
+        public DeliveryResponse getResponse() {
+            return response;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
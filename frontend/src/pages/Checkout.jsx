@@ -27,8 +27,10 @@ const Checkout = () => {
     cardName: '',
     expiryDate: '',
     cvv: '',
-    notes: ''
+    notes: '',
+    deliverySlot: ''
   });
+  const [deliverySlots, setDeliverySlots] = useState([]);
 
   useEffect(() => {
     if (user) {
@@ -45,6 +47,13 @@ const Checkout = () => {
     }
   }, [user]);
 
+  useEffect(() => {
+    if (currentStep !== 2 || !formData.shippingZipCode) return;
+    orderService.getDeliverySlots(formData.shippingZipCode)
+      .then(setDeliverySlots)
+      .catch(() => setDeliverySlots([]));
+  }, [currentStep, formData.shippingZipCode]);
+
   const handleChange = (e) => {
     setFormData({
       ...formData,
@@ -87,12 +96,14 @@ const Checkout = () => {
     setLoading(true);
 
     try {
-      const order = await orderService.createOrder(formData);
+      // Empty slot means the earliest one still free
+      const [deliveryDate, deliveryTimeSlot] = formData.deliverySlot ? formData.deliverySlot.split('|') : [];
+      const order = await orderService.createOrder({ ...formData, deliveryDate, deliveryTimeSlot });
       toast.success('Order placed successfully! 🎉');
       await clearCart();
       navigate(`/order-success/${order.orderNumber}`);
     } catch (error) {
-      toast.error(error.response?.data?.message || 'Error placing order');
+      toast.error(error.response?.data?.error || error.response?.data?.message || 'Error placing order');
     } finally {
       setLoading(false);
     }
@@ -398,6 +409,29 @@ const Checkout = () => {
                     </div>
                   )}
 
+                  <div>
+                    <label className="block text-sm font-semibold text-charcoal-900 mb-2">
+                      Delivery Time
+                    </label>
+                    <select
+                      name="deliverySlot"
+                      value={formData.deliverySlot}
+                      onChange={handleChange}
+                      className="w-full px-4 py-3 border-2 border-charcoal-200 rounded-xl focus:outline-none focus:ring-2 focus:ring-primary-300 focus:border-primary-400 transition-all bg-white text-charcoal-900"
+                    >
+                      <option value="">Earliest available</option>
+                      {deliverySlots.map((slot) => (
+                        <option
+                          key={`${slot.date}|${slot.timeSlot}`}
+                          value={`${slot.date}|${slot.timeSlot}`}
+                          disabled={slot.available === 0}
+                        >
+                          {slot.date} {slot.timeSlot}{slot.available === 0 ? ' (full)' : ''}
+                        </option>
+                      ))}
+                    </select>
+                  </div>
+
                   <div>
                     <label className="block text-sm font-semibold text-charcoal-900 mb-2">
                       Order Notes (Optional)
@@ -461,6 +495,9 @@ const Checkout = () => {
                     <div>
                       <h3 className="font-semibold text-charcoal-900 mb-3">Payment</h3>
                       <p className="text-charcoal-600 text-sm">{formData.paymentMethod}</p>
+                      <p className="text-charcoal-600 text-sm">
+                        Delivery: {formData.deliverySlot ? formData.deliverySlot.replace('|', ' ') : 'Earliest available'}
+                      </p>
                       {formData.paymentMethod === 'Credit Card' && formData.cardNumber && (
                         <p className="text-charcoal-600 text-sm">
                           **** **** **** {formData.cardNumber.slice(-4)}
@@ -7,6 +7,8 @@ const Orders = () => {
   const [orders, setOrders] = useState([]);
   const [loading, setLoading] = useState(true);
   const [filter, setFilter] = useState('ALL');
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     fetchOrders();
@@ -16,7 +18,8 @@ const Orders = () => {
     try {
       const data = await orderService.getUserOrders();
       // Ensure data is an array
-      setOrders(Array.isArray(data) ? data : []);
+      setOrders(Array.isArray(data?.items) ? data.items : []);
+      setNextCursor(data?.hasMore ? data.nextCursor : null);
     } catch (error) {
       console.error('Error fetching orders:', error);
       setOrders([]); // Set empty array on error
@@ -25,6 +28,20 @@ const Orders = () => {
     }
   };
 
+  const loadMoreOrders = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const data = await orderService.getUserOrders({ cursor: nextCursor });
+      setOrders((prev) => [...prev, ...(Array.isArray(data?.items) ? data.items : [])]);
+      setNextCursor(data?.hasMore ? data.nextCursor : null);
+    } catch (error) {
+      console.error('Error loading more orders:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const getStatusInfo = (status) => {
     const statusMap = {
       PENDING: {
@@ -202,10 +219,10 @@ const Orders = () => {
                       {order.orderItems?.map((item) => (
                         <div key={item.id} className="flex items-center gap-4 p-3 bg-white rounded-xl border border-charcoal-200">
                           <div className="w-16 h-16 bg-charcoal-100 rounded-lg overflow-hidden flex-shrink-0">
-                            {item.product?.imageUrl ? (
+                            {item.productImageUrl ? (
                               <img
-                                src={item.product.imageUrl}
-                                alt={item.product.name}
+                                src={item.productImageUrl}
+                                alt={item.productName}
                                 className="w-full h-full object-cover"
                               />
                             ) : (
@@ -215,7 +232,7 @@ const Orders = () => {
                             )}
                           </div>
                           <div className="flex-1 min-w-0">
-                            <h5 className="font-semibold text-charcoal-900 truncate">{item.product?.name || 'Product'}</h5>
+                            <h5 className="font-semibold text-charcoal-900 truncate">{item.productName || 'Product'}</h5>
                             <p className="text-sm text-charcoal-600">Quantity: {item.quantity}</p>
                           </div>
                           <div className="text-right">
@@ -242,6 +259,17 @@ const Orders = () => {
                 </div>
               );
             })}
+            {nextCursor && (
+              <div className="text-center">
+                <button
+                  onClick={loadMoreOrders}
+                  disabled={loadingMore}
+                  className="btn-outline px-6 py-3"
+                >
+                  {loadingMore ? 'Loading...' : 'Load More Orders'}
+                </button>
+              </div>
+            )}
           </div>
         ) : (
           <div className="text-center py-16">
@@ -7,6 +7,15 @@ const AdminDeliveries = () => {
   const [deliveries, setDeliveries] = useState([]);
   const [loading, setLoading] = useState(true);
   const [selectedDate, setSelectedDate] = useState(''); // Empty by default to show all deliveries
+  const [routePlan, setRoutePlan] = useState(null);
+  const [showSlotForm, setShowSlotForm] = useState(false);
+  const [slotForm, setSlotForm] = useState({
+    startDate: '',
+    endDate: '',
+    zones: 'DEFAULT',
+    timeSlots: '9:00 AM - 12:00 PM, 12:00 PM - 3:00 PM, 3:00 PM - 6:00 PM',
+    capacity: 40
+  });
   const [showAssignModal, setShowAssignModal] = useState(false);
   const [selectedDelivery, setSelectedDelivery] = useState(null);
   const [driverInfo, setDriverInfo] = useState({
@@ -17,6 +26,7 @@ const AdminDeliveries = () => {
 
   useEffect(() => {
     fetchDeliveries();
+    setRoutePlan(null);
   }, [selectedDate]);
 
   const fetchDeliveries = async () => {
@@ -32,6 +42,33 @@ const AdminDeliveries = () => {
     }
   };
 
+  const handlePlanRoutes = async () => {
+    try {
+      const plan = await deliveryService.planRoutes(selectedDate);
+      setRoutePlan(plan);
+    } catch (error) {
+      toast.error('Failed to plan routes');
+    }
+  };
+
+  const handleSetSlotCapacities = async (e) => {
+    e.preventDefault();
+    const split = (value) => value.split(',').map((item) => item.trim()).filter(Boolean);
+    try {
+      const result = await deliveryService.setSlotCapacities({
+        startDate: slotForm.startDate,
+        endDate: slotForm.endDate,
+        zones: split(slotForm.zones),
+        timeSlots: split(slotForm.timeSlots),
+        capacity: Number(slotForm.capacity)
+      });
+      toast.success(result.message);
+      setShowSlotForm(false);
+    } catch (error) {
+      toast.error(error.response?.data?.error || 'Failed to update slot capacities');
+    }
+  };
+
   const handleStatusChange = async (trackingNumber, newStatus) => {
     try {
       await deliveryService.updateDeliveryStatus(trackingNumber, newStatus);
@@ -96,9 +133,116 @@ const AdminDeliveries = () => {
           >
             All Deliveries
           </button>
+          <button
+            onClick={() => setShowSlotForm(!showSlotForm)}
+            className="px-6 py-3 bg-charcoal-100 text-charcoal-700 rounded-xl hover:bg-charcoal-200 font-medium transition-all"
+          >
+            Slot Capacity
+          </button>
+          {selectedDate && (
+            <button
+              onClick={handlePlanRoutes}
+              className="px-6 py-3 bg-primary-500 text-white rounded-xl hover:bg-primary-600 font-medium transition-all"
+            >
+              Plan Routes
+            </button>
+          )}
         </div>
       </div>
 
+      {showSlotForm && (
+        <form onSubmit={handleSetSlotCapacities} className="card p-6 mb-6">
+          <h3 className="text-lg font-bold text-gray-900 mb-1">Delivery Slot Capacity</h3>
+          <p className="text-sm text-gray-500 mb-4">
+            Zones are zip code prefixes; DEFAULT covers zip codes too short to have one. A capacity of 0 closes the slot.
+          </p>
+          <div className="grid grid-cols-1 md:grid-cols-5 gap-4">
+            <input
+              type="date"
+              required
+              value={slotForm.startDate}
+              onChange={(e) => setSlotForm({ ...slotForm, startDate: e.target.value })}
+              className="px-4 py-2 border-2 border-charcoal-200 rounded-xl"
+            />
+            <input
+              type="date"
+              required
+              value={slotForm.endDate}
+              onChange={(e) => setSlotForm({ ...slotForm, endDate: e.target.value })}
+              className="px-4 py-2 border-2 border-charcoal-200 rounded-xl"
+            />
+            <input
+              type="text"
+              required
+              placeholder="Zones, comma separated"
+              value={slotForm.zones}
+              onChange={(e) => setSlotForm({ ...slotForm, zones: e.target.value })}
+              className="px-4 py-2 border-2 border-charcoal-200 rounded-xl"
+            />
+            <input
+              type="text"
+              required
+              placeholder="Time slots, comma separated"
+              value={slotForm.timeSlots}
+              onChange={(e) => setSlotForm({ ...slotForm, timeSlots: e.target.value })}
+              className="px-4 py-2 border-2 border-charcoal-200 rounded-xl"
+            />
+            <input
+              type="number"
+              min="0"
+              required
+              value={slotForm.capacity}
+              onChange={(e) => setSlotForm({ ...slotForm, capacity: e.target.value })}
+              className="px-4 py-2 border-2 border-charcoal-200 rounded-xl"
+            />
+          </div>
+          <button
+            type="submit"
+            className="mt-4 px-6 py-2 bg-primary-500 text-white rounded-xl hover:bg-primary-600 font-medium transition-all"
+          >
+            Save Capacities
+          </button>
+        </form>
+      )}
+
+      {routePlan && (
+        <div className="card p-6 mb-6">
+          <div className="flex justify-between items-center mb-4">
+            <h3 className="text-lg font-bold text-gray-900">
+              {routePlan.routes.length} routes, {routePlan.plannedStops} stops, {routePlan.totalDistanceKm} km
+              ({routePlan.kmPerDrop} km per drop)
+            </h3>
+            <button onClick={() => setRoutePlan(null)} className="text-sm text-gray-500 hover:text-gray-700">
+              Close
+            </button>
+          </div>
+          {routePlan.unlocated.length > 0 && (
+            <p className="text-sm text-orange-600 mb-4">
+              {routePlan.unlocated.length} deliveries have no GPS coordinates or known zip code and were not routed.
+            </p>
+          )}
+          <div className="grid grid-cols-1 md:grid-cols-2 gap-4">
+            {routePlan.routes.map((route) => (
+              <div key={route.routeNumber} className="p-4 bg-gray-50 rounded-xl border border-gray-100">
+                <p className="font-semibold text-gray-900">
+                  Route {route.routeNumber} - {route.timeSlot}
+                </p>
+                <p className="text-xs text-gray-500 mb-2">
+                  {route.stopCount} stops, {route.distanceKm} km
+                </p>
+                <ol className="text-sm text-gray-700 list-decimal list-inside space-y-1">
+                  {route.stops.map((stop) => (
+                    <li key={stop.deliveryId}>
+                      {stop.trackingNumber} - {stop.recipientName} ({stop.legKm} km)
+                    </li>
+                  ))}
+                </ol>
+              </div>
+            ))}
+          </div>
+        </div>
+      )}
+
       <div className="grid grid-cols-1 gap-4">
         {deliveries.map((delivery) => (
           <div key={delivery.id} className="card p-6">
@@ -10,6 +10,8 @@ const AdminOrders = () => {
   const [selectedOrder, setSelectedOrder] = useState(null);
   const [showStatusModal, setShowStatusModal] = useState(false);
   const [newStatus, setNewStatus] = useState('');
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     fetchOrders();
@@ -18,7 +20,8 @@ const AdminOrders = () => {
   const fetchOrders = async () => {
     try {
       const data = await orderService.getAllOrders();
-      setOrders(data);
+      setOrders(Array.isArray(data?.items) ? data.items : []);
+      setNextCursor(data?.hasMore ? data.nextCursor : null);
     } catch (error) {
       toast.error('Error fetching orders');
     } finally {
@@ -26,17 +29,29 @@ const AdminOrders = () => {
     }
   };
 
+  const loadMoreOrders = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const data = await orderService.getAllOrders({ cursor: nextCursor });
+      setOrders((prev) => [...prev, ...(Array.isArray(data?.items) ? data.items : [])]);
+      setNextCursor(data?.hasMore ? data.nextCursor : null);
+    } catch (error) {
+      toast.error('Error loading more orders');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleUpdateStatus = async (e) => {
     e.preventDefault();
-    if (!selectedOrder || !selectedOrder.deliveries || selectedOrder.deliveries.length === 0) {
+    if (!selectedOrder || !selectedOrder.trackingNumber) {
       toast.error('No delivery associated with this order');
       return;
     }
 
-    const delivery = selectedOrder.deliveries[0]; // Assuming one delivery per order for now
-
     try {
-      await deliveryService.updateDeliveryStatus(delivery.trackingNumber, newStatus);
+      await deliveryService.updateDeliveryStatus(selectedOrder.trackingNumber, newStatus);
       toast.success('Delivery status updated successfully');
       setShowStatusModal(false);
       fetchOrders(); // Refresh list
@@ -46,12 +61,12 @@ const AdminOrders = () => {
   };
 
   const openStatusModal = (order) => {
-    if (!order.deliveries || order.deliveries.length === 0) {
+    if (!order.trackingNumber) {
       toast.warning('No delivery created for this order yet');
       return;
     }
     setSelectedOrder(order);
-    setNewStatus(order.deliveries[0].status);
+    setNewStatus(order.deliveryStatus);
     setShowStatusModal(true);
   };
 
@@ -97,7 +112,7 @@ const AdminOrders = () => {
                 <td className="px-4 py-3 font-medium text-gray-900">{order.orderNumber}</td>
                 <td className="px-4 py-3">
                   <div className="text-sm text-gray-900">
-                    {order.user?.firstName ? `${order.user.firstName} ${order.user.lastName}` : order.user?.username}
+                    {order.customerName}
                   </div>
                   <div className="text-xs text-gray-500">{order.customerEmail}</div>
                 </td>
@@ -113,9 +128,9 @@ const AdminOrders = () => {
                   </span>
                 </td>
                 <td className="px-4 py-3">
-                  {order.deliveries && order.deliveries.length > 0 ? (
-                    <span className={`px-2 py-1 rounded-full text-xs font-semibold ${getStatusColor(order.deliveries[0].status)}`}>
-                      {order.deliveries[0].status.replace(/_/g, ' ')}
+                  {order.deliveryStatus ? (
+                    <span className={`px-2 py-1 rounded-full text-xs font-semibold ${getStatusColor(order.deliveryStatus)}`}>
+                      {order.deliveryStatus.replace(/_/g, ' ')}
                     </span>
                   ) : (
                     <span className="text-xs text-gray-400">No Delivery</span>
@@ -136,6 +151,18 @@ const AdminOrders = () => {
         </table>
       </div>
 
+      {nextCursor && (
+        <div className="text-center mt-6">
+          <button
+            onClick={loadMoreOrders}
+            disabled={loadingMore}
+            className="btn-outline px-6 py-3"
+          >
+            {loadingMore ? 'Loading...' : 'Load More Orders'}
+          </button>
+        </div>
+      )}
+
       {/* Status Update Modal */}
       {showStatusModal && (
         <div className="fixed inset-0 bg-black bg-opacity-50 z-50 flex items-center justify-center">
@@ -144,7 +171,7 @@ const AdminOrders = () => {
             <p className="text-gray-600 mb-4">
               Order: {selectedOrder?.orderNumber}
               <br />
-              Tracking: {selectedOrder?.deliveries[0]?.trackingNumber}
+              Tracking: {selectedOrder?.trackingNumber}
             </p>
 
             <form onSubmit={handleUpdateStatus}>
@@ -17,6 +17,7 @@ const AdminProducts = () => {
     description: '',
     price: '',
     stockQuantity: '',
+    reorderThreshold: '',
     imageUrl: '',
     categoryId: '',
     sku: '',
@@ -51,6 +52,7 @@ const AdminProducts = () => {
     try {
       const productData = {
         ...formData,
+        reorderThreshold: formData.reorderThreshold === '' ? null : formData.reorderThreshold,
         category: formData.categoryId ? { id: formData.categoryId } : null
       };
 
@@ -93,6 +95,7 @@ const AdminProducts = () => {
       description: product.description,
       price: product.price,
       stockQuantity: product.stockQuantity,
+      reorderThreshold: product.reorderThreshold ?? '',
       imageUrl: product.imageUrl || '',
       categoryId: product.category?.id || '',
       sku: product.sku || '',
@@ -109,6 +112,7 @@ const AdminProducts = () => {
       description: '',
       price: '',
       stockQuantity: '',
+      reorderThreshold: '',
       imageUrl: '',
       categoryId: '',
       sku: '',
@@ -386,6 +390,18 @@ const AdminProducts = () => {
                       </div>
                     </div>
 
+                    <div>
+                      <label className="block text-sm font-semibold text-charcoal-900 mb-2">Reorder Threshold</label>
+                      <input
+                        type="number"
+                        min="0"
+                        value={formData.reorderThreshold}
+                        onChange={(e) => setFormData({ ...formData, reorderThreshold: e.target.value })}
+                        className="w-full px-4 py-3 border-2 border-charcoal-200 rounded-xl focus:outline-none focus:ring-2 focus:ring-primary-300 focus:border-primary-400 transition-all bg-white text-charcoal-900"
+                        placeholder="Leave empty to use the store default"
+                      />
+                    </div>
+
                     <div className="grid grid-cols-2 gap-4">
                       <div>
                         <label className="block text-sm font-semibold text-charcoal-900 mb-2">SKU</label>
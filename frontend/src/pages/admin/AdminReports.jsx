@@ -31,8 +31,16 @@ const AdminReports = () => {
   const [loading, setLoading] = useState(false);
   const [dashboardData, setDashboardData] = useState(null);
   const [salesReport, setSalesReport] = useState(null);
+  const [topSellers, setTopSellers] = useState(null);
+  const [salesSeries, setSalesSeries] = useState(null);
+  const [salesGranularity, setSalesGranularity] = useState('day');
+  const [reportJob, setReportJob] = useState(null);
+  const [cohortReport, setCohortReport] = useState(null);
   const [inventoryReport, setInventoryReport] = useState(null);
+  const [lowStockItems, setLowStockItems] = useState([]);
   const [deliveryReport, setDeliveryReport] = useState(null);
+  const [deliveryRows, setDeliveryRows] = useState({ items: [], nextCursor: null, hasMore: false });
+  const [deliveryPerformance, setDeliveryPerformance] = useState(null);
   const [timePeriod, setTimePeriod] = useState('monthly'); // daily, weekly, monthly, yearly
 
   const [salesDateRange, setSalesDateRange] = useState({
@@ -60,17 +68,71 @@ const AdminReports = () => {
 
   const fetchSalesReport = async () => {
     try {
-      const data = await reportService.getSalesReport(salesDateRange.startDate, salesDateRange.endDate);
+      const [data, top, series] = await Promise.all([
+        reportService.getSalesReport(salesDateRange.startDate, salesDateRange.endDate),
+        reportService.getTopSellers(salesDateRange.startDate, salesDateRange.endDate),
+        reportService.getSalesTimeSeries(salesDateRange.startDate, salesDateRange.endDate, salesGranularity)
+      ]);
       setSalesReport(data);
+      setTopSellers(top);
+      setSalesSeries(series);
     } catch (error) {
       console.error('Failed to load sales report');
     }
   };
 
+  // Runs the full sales report (with every order row) as a background job and downloads it when done
+  const downloadFullSalesReport = async () => {
+    try {
+      let job = await reportService.submitReportJob('SALES', salesDateRange.startDate, salesDateRange.endDate,
+        salesGranularity);
+      setReportJob(job);
+      while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+        await new Promise(resolve => setTimeout(resolve, 1000));
+        job = await reportService.getReportJob(job.id);
+        setReportJob(job);
+      }
+      if (job.status !== 'SUCCEEDED') {
+        if (job.status === 'FAILED') toast.error(job.error || 'Report failed');
+        return;
+      }
+      const result = await reportService.getReportJobResult(job.id);
+      const url = URL.createObjectURL(new Blob([JSON.stringify(result, null, 2)], { type: 'application/json' }));
+      const link = document.createElement('a');
+      link.href = url;
+      link.download = `sales-report-${salesDateRange.startDate}-${salesDateRange.endDate}.json`;
+      link.click();
+      URL.revokeObjectURL(url);
+    } catch (error) {
+      toast.error(error.response?.data?.error || 'Failed to generate report');
+    } finally {
+      setReportJob(null);
+    }
+  };
+
+  const cancelFullSalesReport = async () => {
+    if (reportJob) {
+      await reportService.cancelReportJob(reportJob.id);
+    }
+  };
+
+  const fetchCohortReport = async () => {
+    try {
+      const data = await reportService.getCohortReport();
+      setCohortReport(data);
+    } catch (error) {
+      console.error('Failed to load cohort report');
+    }
+  };
+
   const fetchInventoryReport = async () => {
     try {
-      const data = await reportService.getInventoryReport();
+      const [data, lowStock] = await Promise.all([
+        reportService.getInventoryReport(),
+        reportService.getLowStockFeed(null, 10)
+      ]);
       setInventoryReport(data);
+      setLowStockItems(lowStock.items);
     } catch (error) {
       console.error('Failed to load inventory report');
     }
@@ -88,6 +150,7 @@ const AdminReports = () => {
   useEffect(() => {
     if (activeTab === 'sales') fetchSalesReport();
     else if (activeTab === 'inventory') fetchInventoryReport();
+    else if (activeTab === 'cohorts') fetchCohortReport();
     else if (activeTab === 'deliveries') {
       // Fetch deliveries by period when tab is active
       fetchDeliveriesByPeriod();
@@ -134,59 +197,87 @@ const AdminReports = () => {
 
   // Chart Data Transformations
   const salesChartData = useMemo(() => {
-    if (!salesReport?.orders) return [];
-
-    // Group by date
-    const grouped = salesReport.orders.reduce((acc, order) => {
-      const date = new Date(order.date).toLocaleDateString();
-      if (!acc[date]) acc[date] = 0;
-      acc[date] += order.amount;
-      return acc;
-    }, {});
-
-    return Object.entries(grouped).map(([date, amount]) => ({
-      date,
+    if (!salesReport?.dailySales) return [];
+
+    // Per-day totals are pre-aggregated on the server
+    return Object.entries(salesReport.dailySales).map(([date, amount]) => ({
+      date: new Date(date).toLocaleDateString(),
       amount
-    })).sort((a, b) => new Date(a.date) - new Date(b.date));
+    }));
   }, [salesReport]);
 
-  const orderStatusData = useMemo(() => {
-    if (!salesReport?.orders) return [];
+  const salesSeriesData = useMemo(() => {
+    if (!salesSeries?.points) return [];
 
-    const grouped = salesReport.orders.reduce((acc, order) => {
-      const status = order.status;
-      if (!acc[status]) acc[status] = 0;
-      acc[status]++;
-      return acc;
-    }, {});
+    // Buckets arrive zero-filled, one per hour/day/week/month
+    return salesSeries.points.map(point => ({
+      date: salesSeries.granularity === 'hour'
+        ? new Date(point.bucketStart).toLocaleString([], { month: 'short', day: 'numeric', hour: '2-digit' })
+        : new Date(point.bucketStart).toLocaleDateString(),
+      amount: point.sales,
+      orders: point.orders
+    }));
+  }, [salesSeries]);
+
+  const orderStatusData = useMemo(() => {
+    if (!salesReport?.ordersByStatus) return [];
 
-    return Object.entries(grouped).map(([name, value]) => ({ name, value }));
+    return Object.entries(salesReport.ordersByStatus).map(([name, value]) => ({ name, value }));
   }, [salesReport]);
 
   const inventoryChartData = useMemo(() => {
-    if (!inventoryReport?.products) return [];
-    // Top 10 products by stock (or low stock)
-    return inventoryReport.products
-      .slice(0, 10)
-      .map(p => ({
-        name: p.name.substring(0, 15) + '...',
-        stock: p.stockQuantity
-      }));
-  }, [inventoryReport]);
+    // Emptiest products first, as served by the low-stock feed
+    return lowStockItems.map(p => ({
+      name: p.name.length > 15 ? p.name.substring(0, 15) + '...' : p.name,
+      stock: p.stockQuantity,
+      threshold: p.reorderThreshold
+    }));
+  }, [lowStockItems]);
 
   const deliveryStatusData = useMemo(() => {
-    if (!deliveryReport?.deliveries) return [];
+    if (!deliveryReport?.deliveriesByStatus) return [];
+
+    return Object.entries(deliveryReport.deliveriesByStatus).map(([name, value]) => ({ name, value }));
+  }, [deliveryReport]);
 
-    const grouped = deliveryReport.deliveries.reduce((acc, delivery) => {
-      const status = delivery.status;
-      if (!acc[status]) acc[status] = 0;
-      acc[status]++;
-      return acc;
-    }, {});
+  // Detail rows are paged separately from the aggregated summary
+  const fetchDeliveryRows = async (report, cursor = null) => {
+    if (!report?.startDate || !report?.endDate) {
+      setDeliveryRows({ items: [], nextCursor: null, hasMore: false });
+      return;
+    }
+    try {
+      const page = await reportService.getDeliveryRows(report.startDate, report.endDate, cursor);
+      setDeliveryRows(prev => ({
+        items: cursor ? [...prev.items, ...page.items] : page.items,
+        nextCursor: page.nextCursor,
+        hasMore: page.hasMore
+      }));
+    } catch (error) {
+      console.error('Failed to load delivery rows');
+    }
+  };
 
-    return Object.entries(grouped).map(([name, value]) => ({ name, value }));
+  const fetchDeliveryPerformance = async (report) => {
+    if (!report?.startDate || !report?.endDate) {
+      setDeliveryPerformance(null);
+      return;
+    }
+    try {
+      const data = await reportService.getDeliveryPerformance(report.startDate, report.endDate, 'driver');
+      setDeliveryPerformance(data);
+    } catch (error) {
+      console.error('Failed to load delivery performance');
+    }
+  };
+
+  useEffect(() => {
+    fetchDeliveryRows(deliveryReport);
+    fetchDeliveryPerformance(deliveryReport);
   }, [deliveryReport]);
 
+  const formatMinutes = (minutes) => (minutes == null ? '-' : `${minutes} min`);
+
   const COLORS = ['#ec4899', '#8b5cf6', '#10b981', '#f59e0b', '#ef4444'];
 
   if (loading && !dashboardData) return <Loading />;
@@ -197,7 +288,7 @@ const AdminReports = () => {
 
       {/* Tab Navigation */}
       <div className="flex gap-2 border-b border-gray-200">
-        {['dashboard', 'sales', 'inventory', 'deliveries'].map(tab => (
+        {['dashboard', 'sales', 'inventory', 'deliveries', 'cohorts'].map(tab => (
           <button
             key={tab}
             onClick={() => setActiveTab(tab)}
@@ -243,6 +334,9 @@ const AdminReports = () => {
               <p className="text-3xl font-bold text-gray-900">
                 {dashboardData.periodOrders || dashboardData.monthlyOrders || 0}
               </p>
+              <p className="text-sm text-purple-600 mt-2 font-medium">
+                ~{dashboardData.uniqueCustomers || 0} customers, ~{dashboardData.uniqueProducts || 0} products
+              </p>
             </div>
             <div className="card p-6">
               <div className="flex items-center justify-between mb-3">
@@ -373,9 +467,31 @@ const AdminReports = () => {
                   className="px-4 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-pink-500"
                 />
               </div>
+              <div>
+                <label className="block text-sm font-medium mb-1 text-gray-700">Group By</label>
+                <select
+                  value={salesGranularity}
+                  onChange={(e) => setSalesGranularity(e.target.value)}
+                  className="px-4 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-pink-500"
+                >
+                  <option value="hour">Hour</option>
+                  <option value="day">Day</option>
+                  <option value="week">Week</option>
+                  <option value="month">Month</option>
+                </select>
+              </div>
               <button onClick={fetchSalesReport} className="btn-primary">
                 Update Report
               </button>
+              {reportJob ? (
+                <button onClick={cancelFullSalesReport} className="btn-secondary">
+                  Cancel ({reportJob.progress}%)
+                </button>
+              ) : (
+                <button onClick={downloadFullSalesReport} className="btn-secondary">
+                  Download Full Report
+                </button>
+              )}
             </div>
           </div>
 
@@ -403,10 +519,10 @@ const AdminReports = () => {
               </div>
 
               <div className="card p-6">
-                <h3 className="text-lg font-bold text-gray-900 mb-4">Daily Sales Performance</h3>
+                <h3 className="text-lg font-bold text-gray-900 mb-4">Sales Performance</h3>
                 <div className="h-96">
                   <ResponsiveContainer width="100%" height="100%">
-                    <BarChart data={salesChartData}>
+                    <BarChart data={salesSeriesData}>
                       <CartesianGrid strokeDasharray="3 3" vertical={false} />
                       <XAxis dataKey="date" />
                       <YAxis />
@@ -416,6 +532,37 @@ const AdminReports = () => {
                   </ResponsiveContainer>
                 </div>
               </div>
+
+              {topSellers && (
+                <div className="grid grid-cols-1 md:grid-cols-2 gap-6">
+                  {[
+                    { title: 'Best Sellers by Revenue', rows: topSellers.productsByRevenue },
+                    { title: 'Best Sellers by Units', rows: topSellers.productsByUnits }
+                  ].map(({ title, rows }) => (
+                    <div key={title} className="card p-6">
+                      <h3 className="text-lg font-bold text-gray-900 mb-4">{title}</h3>
+                      <table className="w-full text-sm">
+                        <thead>
+                          <tr className="text-left text-gray-600 border-b">
+                            <th className="py-2">Product</th>
+                            <th className="py-2 text-right">Units</th>
+                            <th className="py-2 text-right">Revenue</th>
+                          </tr>
+                        </thead>
+                        <tbody>
+                          {rows.map(row => (
+                            <tr key={row.id} className="border-b last:border-0">
+                              <td className="py-2 text-gray-900">{row.name || `#${row.id}`}</td>
+                              <td className="py-2 text-right">{row.units}</td>
+                              <td className="py-2 text-right">${row.revenue?.toFixed(2)}</td>
+                            </tr>
+                          ))}
+                        </tbody>
+                      </table>
+                    </div>
+                  ))}
+                </div>
+              )}
             </>
           )}
         </div>
@@ -446,7 +593,7 @@ const AdminReports = () => {
           </div>
 
           <div className="card p-6">
-            <h3 className="text-lg font-bold text-gray-900 mb-4">Inventory Overview (First 10 Items)</h3>
+            <h3 className="text-lg font-bold text-gray-900 mb-4">Lowest Stock (Below Reorder Threshold)</h3>
             <div className="h-96">
               <ResponsiveContainer width="100%" height="100%">
                 <BarChart data={inventoryChartData} layout="vertical">
@@ -455,6 +602,7 @@ const AdminReports = () => {
                   <YAxis dataKey="name" type="category" width={150} />
                   <Tooltip />
                   <Bar dataKey="stock" fill="#8b5cf6" radius={[0, 4, 4, 0]} />
+                  <Bar dataKey="threshold" fill="#fbbf24" radius={[0, 4, 4, 0]} />
                 </BarChart>
               </ResponsiveContainer>
             </div>
@@ -541,8 +689,8 @@ const AdminReports = () => {
             <div className="card p-6">
               <h3 className="text-lg font-bold text-gray-900 mb-4">Delivery List</h3>
               <div className="overflow-y-auto h-80 space-y-3 pr-2">
-                {deliveryReport.deliveries && deliveryReport.deliveries.length > 0 ? (
-                  deliveryReport.deliveries.map((delivery) => (
+                {deliveryRows.items.length > 0 ? (
+                  deliveryRows.items.map((delivery) => (
                     <div key={delivery.trackingNumber} className="flex justify-between items-center p-4 bg-gray-50 rounded-xl border border-gray-100 hover:border-pink-100 transition-colors">
                       <div>
                         <p className="font-semibold text-gray-900">{delivery.trackingNumber}</p>
@@ -568,8 +716,107 @@ const AdminReports = () => {
                     <p className="text-gray-500">No deliveries found for the selected period</p>
                   </div>
                 )}
+                {deliveryRows.hasMore && (
+                  <button
+                    onClick={() => fetchDeliveryRows(deliveryReport, deliveryRows.nextCursor)}
+                    className="w-full py-2 text-sm font-medium text-pink-600 hover:text-pink-700"
+                  >
+                    Load More
+                  </button>
+                )}
+              </div>
+            </div>
+          </div>
+
+          {deliveryPerformance && (
+            <div className="card p-6">
+              <h3 className="text-lg font-bold text-gray-900 mb-1">Delivery Performance by Driver</h3>
+              <p className="text-sm text-gray-500 mb-4">
+                Lateness is measured from the end of the scheduled slot; percentiles are within
+                {' '}{Math.round((deliveryPerformance.relativeAccuracy || 0) * 100)}%.
+              </p>
+              <div className="overflow-x-auto">
+                <table className="min-w-full text-sm">
+                  <thead>
+                    <tr className="text-left text-gray-600 border-b">
+                      <th className="py-2 pr-4">Driver</th>
+                      <th className="py-2 pr-4">Delivered</th>
+                      <th className="py-2 pr-4">On Time</th>
+                      <th className="py-2 pr-4">Lateness p50 / p90 / p99</th>
+                      <th className="py-2 pr-4">Fulfillment p50 / p90</th>
+                    </tr>
+                  </thead>
+                  <tbody>
+                    {[{ key: 'All drivers', ...deliveryPerformance.overall }, ...(deliveryPerformance.groups || [])].map((row) => (
+                      <tr key={row.key} className="border-b border-gray-100">
+                        <td className="py-2 pr-4 font-medium text-gray-900">{row.key}</td>
+                        <td className="py-2 pr-4">{row.deliveries}</td>
+                        <td className="py-2 pr-4">{row.onTimeRate == null ? '-' : `${row.onTimeRate}%`}</td>
+                        <td className="py-2 pr-4">
+                          {formatMinutes(row.latenessMinutes?.p50)} / {formatMinutes(row.latenessMinutes?.p90)} / {formatMinutes(row.latenessMinutes?.p99)}
+                        </td>
+                        <td className="py-2 pr-4">
+                          {formatMinutes(row.fulfillmentMinutes?.p50)} / {formatMinutes(row.fulfillmentMinutes?.p90)}
+                        </td>
+                      </tr>
+                    ))}
+                  </tbody>
+                </table>
               </div>
             </div>
+          )}
+        </div>
+      )}
+
+      {/* Cohorts Tab */}
+      {activeTab === 'cohorts' && cohortReport && (
+        <div className="space-y-6">
+          <div className="grid grid-cols-1 md:grid-cols-3 gap-6">
+            <div className="card p-6">
+              <h3 className="text-sm font-medium text-gray-600 mb-2">New Customers</h3>
+              <p className="text-3xl font-bold text-gray-900">{cohortReport.customers}</p>
+            </div>
+            <div className="card p-6">
+              <h3 className="text-sm font-medium text-gray-600 mb-2">Repeat Customers</h3>
+              <p className="text-3xl font-bold text-gray-900">{cohortReport.repeatCustomers}</p>
+            </div>
+            <div className="card p-6">
+              <h3 className="text-sm font-medium text-gray-600 mb-2">Repeat Purchase Rate</h3>
+              <p className="text-3xl font-bold text-green-600">{(cohortReport.repeatRate * 100).toFixed(1)}%</p>
+            </div>
+          </div>
+
+          <div className="card p-6 overflow-x-auto">
+            <h3 className="text-lg font-bold text-gray-900 mb-4">Monthly Retention by First-Order Cohort</h3>
+            <table className="text-sm">
+              <thead>
+                <tr className="text-left text-gray-600 border-b">
+                  <th className="py-2 pr-4">Cohort</th>
+                  <th className="py-2 pr-4 text-right">Customers</th>
+                  {Array.from({ length: Math.max(0, ...cohortReport.cohorts.map(c => c.periods.length)) }, (_, i) => (
+                    <th key={i} className="py-2 px-2 text-center">M{i}</th>
+                  ))}
+                </tr>
+              </thead>
+              <tbody>
+                {cohortReport.cohorts.map(cohort => (
+                  <tr key={cohort.cohortMonth} className="border-b last:border-0">
+                    <td className="py-2 pr-4 font-medium text-gray-900">{cohort.cohortMonth}</td>
+                    <td className="py-2 pr-4 text-right">{cohort.customers}</td>
+                    {cohort.periods.map(period => (
+                      <td
+                        key={period.offset}
+                        className="py-2 px-2 text-center"
+                        style={{ backgroundColor: `rgba(236, 72, 153, ${period.retention})` }}
+                        title={`${period.activeCustomers} customers, $${period.revenue} revenue`}
+                      >
+                        {cohort.customers > 0 ? `${(period.retention * 100).toFixed(0)}%` : '-'}
+                      </td>
+                    ))}
+                  </tr>
+                ))}
+              </tbody>
+            </table>
           </div>
         </div>
       )}
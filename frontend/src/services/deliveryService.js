@@ -43,6 +43,28 @@ export const deliveryService = {
     return response.data;
   },
 
+  // Proposed driver routes for a date's open deliveries (admin)
+  planRoutes: async (date, maxStopsPerRoute) => {
+    const response = await api.get(`/deliveries/routes/${date}`, {
+      params: { maxStopsPerRoute }
+    });
+    return response.data;
+  },
+
+  // Slot capacities and reservations for a date range (admin)
+  getSlotCapacities: async (startDate, endDate, zone) => {
+    const response = await api.get('/deliveries/slots', {
+      params: { startDate, endDate, zone: zone || undefined }
+    });
+    return response.data;
+  },
+
+  // Set one capacity for the given time slots in the given zones over a date range (admin)
+  setSlotCapacities: async (request) => {
+    const response = await api.put('/deliveries/slots', request);
+    return response.data;
+  },
+
   // Get deliveries by status (admin)
   getDeliveriesByStatus: async (status) => {
     const response = await api.get(`/deliveries/status/${status}`);
@@ -6,8 +6,17 @@ export const orderService = {
     return response.data;
   },
 
-  getUserOrders: async () => {
-    const response = await api.get('/orders');
+  getDeliverySlots: async (zipCode, days = 7) => {
+    const response = await api.get('/orders/delivery-slots', {
+      params: { zipCode, days }
+    });
+    return response.data;
+  },
+
+  getUserOrders: async ({ cursor, limit = 20, view = 'full' } = {}) => {
+    const response = await api.get('/orders', {
+      params: { cursor, limit, view }
+    });
     return response.data;
   },
 
@@ -21,8 +30,10 @@ export const orderService = {
     return response.data;
   },
 
-  getAllOrders: async () => {
-    const response = await api.get('/orders/all');
+  getAllOrders: async ({ cursor, limit = 50 } = {}) => {
+    const response = await api.get('/orders/all', {
+      params: { cursor, limit }
+    });
     return response.data;
   },
 
@@ -9,12 +9,89 @@ export const reportService = {
     return response.data;
   },
 
+  // Zero-filled sales buckets at hour, day, week or month granularity
+  getSalesTimeSeries: async (startDate, endDate, granularity = 'day') => {
+    const response = await api.get('/reports/sales/timeseries', {
+      params: { startDate, endDate, granularity }
+    });
+    return response.data;
+  },
+
+  // Keyset-paginated order rows behind a sales report
+  getSalesOrders: async (startDate, endDate, cursor, limit = 50) => {
+    const response = await api.get('/reports/sales/orders', {
+      params: { startDate, endDate, cursor, limit }
+    });
+    return response.data;
+  },
+
+  // Best selling products and categories by units and revenue
+  getTopSellers: async (startDate, endDate, categoryId, limit = 10) => {
+    const response = await api.get('/reports/top-sellers', {
+      params: { startDate, endDate, categoryId, limit }
+    });
+    return response.data;
+  },
+
+  // Real-time best sellers for today
+  getTopSellersToday: async (limit = 10) => {
+    const response = await api.get('/reports/top-sellers/today', {
+      params: { limit }
+    });
+    return response.data;
+  },
+
+  // Background report jobs for large custom ranges
+  submitReportJob: async (type, startDate, endDate, granularity) => {
+    const response = await api.post('/reports/jobs', { type, startDate, endDate, granularity });
+    return response.data;
+  },
+
+  getReportJob: async (id) => {
+    const response = await api.get(`/reports/jobs/${id}`);
+    return response.data;
+  },
+
+  getReportJobResult: async (id) => {
+    const response = await api.get(`/reports/jobs/${id}/result`);
+    return response.data;
+  },
+
+  cancelReportJob: async (id) => {
+    const response = await api.delete(`/reports/jobs/${id}`);
+    return response.data;
+  },
+
+  // Cohort retention and revenue curves; months as yyyy-MM
+  getCohortReport: async (fromMonth, toMonth) => {
+    const response = await api.get('/reports/cohorts', {
+      params: { fromMonth, toMonth }
+    });
+    return response.data;
+  },
+
   // Get inventory report
   getInventoryReport: async () => {
     const response = await api.get('/reports/inventory');
     return response.data;
   },
 
+  // Keyset-paginated product rows behind the inventory report
+  getInventoryRows: async (cursor, limit = 50) => {
+    const response = await api.get('/reports/inventory/rows', {
+      params: { cursor, limit }
+    });
+    return response.data;
+  },
+
+  // Products below their reorder threshold, emptiest first
+  getLowStockFeed: async (cursor, limit = 50) => {
+    const response = await api.get('/reports/inventory/low-stock', {
+      params: { cursor, limit }
+    });
+    return response.data;
+  },
+
   // Get delivery report
   getDeliveryReport: async (date) => {
     const response = await api.get('/reports/deliveries', {
@@ -23,14 +100,32 @@ export const reportService = {
     return response.data;
   },
 
+  // Keyset-paginated delivery rows behind a delivery report
+  getDeliveryRows: async (startDate, endDate, cursor, limit = 50) => {
+    const response = await api.get('/reports/deliveries/rows', {
+      params: { startDate, endDate, cursor, limit }
+    });
+    return response.data;
+  },
+
+  // Lateness and fulfillment percentiles of completed deliveries, optionally grouped
+  getDeliveryPerformance: async (startDate, endDate, groupBy) => {
+    const response = await api.get('/reports/deliveries/performance', {
+      params: { startDate, endDate, groupBy }
+    });
+    return response.data;
+  },
+
   // Get dashboard summary
   getDashboardSummary: async () => {
     const response = await api.get('/reports/dashboard');
     return response.data;
   },
 
-  getAllOrders: async () => {
-    const response = await api.get('/orders/all');
+  getAllOrders: async ({ cursor, limit = 50 } = {}) => {
+    const response = await api.get('/orders/all', {
+      params: { cursor, limit }
+    });
     return response.data;
   },
 